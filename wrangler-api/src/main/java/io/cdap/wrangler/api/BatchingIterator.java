@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} that pulls records from an input iterator in batches, processes each batch and yields the
+ * processed records. A batch is only pulled once all the records of the previous batch have been consumed, so
+ * at most one batch of input and its output are held in memory at any time.
+ *
+ * <p>Failures to process a batch are thrown as {@link UncheckedRecipeException}.</p>
+ *
+ * @param <I> type of the input records
+ * @param <O> type of the output records
+ */
+public final class BatchingIterator<I, O> implements Iterator<O> {
+  private final Iterator<I> input;
+  private final int batchSize;
+  private final Processor<I, O> processor;
+  private Iterator<O> output = Collections.emptyIterator();
+  private boolean finished;
+
+  /**
+   * Processes a batch of records.
+   *
+   * @param <I> type of the input records
+   * @param <O> type of the output records
+   */
+  public interface Processor<I, O> {
+
+    /**
+     * Processes a batch of records.
+     *
+     * @param batch of records pulled from the input, never empty.
+     * @return the records to yield for the batch.
+     */
+    List<O> process(List<I> batch) throws RecipeException;
+
+    /**
+     * Invoked once after the last batch has been processed.
+     *
+     * @return the records to yield after the records of the last batch.
+     */
+    default List<O> finish() throws RecipeException {
+      return Collections.emptyList();
+    }
+  }
+
+  public BatchingIterator(Iterator<I> input, int batchSize, Processor<I, O> processor) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be at least 1, found " + batchSize);
+    }
+    this.input = input;
+    this.batchSize = batchSize;
+    this.processor = processor;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!output.hasNext() && !finished) {
+      List<I> batch = new ArrayList<>(batchSize);
+      while (batch.size() < batchSize && input.hasNext()) {
+        batch.add(input.next());
+      }
+      try {
+        if (batch.isEmpty()) {
+          finished = true;
+          output = processor.finish().iterator();
+        } else {
+          output = processor.process(batch).iterator();
+        }
+      } catch (RecipeException e) {
+        finished = true;
+        throw new UncheckedRecipeException(e);
+      }
+    }
+    return output.hasNext();
+  }
+
+  @Override
+  public O next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return output.next();
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.List;
+
+/**
+ * A {@link Directive} that produces rows once all the input has been executed, such as a directive that
+ * aggregates over the whole input. The rows it returns are executed by the directives that follow it in the
+ * recipe.
+ */
+@PublicEvolving
+public interface Finishable {
+
+  /**
+   * Invoked once by the executor after the last input row has been executed by the recipe.
+   *
+   * @param context the context in which the directive is executed.
+   * @return the rows to pass on to the next directive.
+   */
+  List<Row> finish(ExecutorContext context) throws DirectiveExecutionException;
+}
@@ -20,7 +20,12 @@ import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.wrangler.api.annotations.PublicEvolving;
 
 import java.io.Serializable;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * {@link RecipePipeline} executes array of {@link Executor} in the order they are specified.
@@ -32,6 +37,11 @@ import java.util.List;
 @PublicEvolving
 public interface RecipePipeline<I, O, E> extends Serializable, AutoCloseable {
 
+  /**
+   * Number of records pulled at a time from the input when executing the pipeline lazily.
+   */
+  int DEFAULT_BATCH_SIZE = 64;
+
   /**
    * Executes the pipeline on the input.
    *
@@ -49,6 +59,35 @@ public interface RecipePipeline<I, O, E> extends Serializable, AutoCloseable {
    */
   List<I> execute(List<I> input) throws RecipeException;
 
+  /**
+   * Executes the pipeline lazily on the input. Records are pulled from the input in batches as the output is
+   * consumed, so that only a batch of records and its output are held in memory at any time. Failures to
+   * execute a batch are thrown from the returned iterator as {@link UncheckedRecipeException}.
+   *
+   * <p>The default implementation executes each batch with {@link #execute(List)}, in which case
+   * {@link #errors()} only returns the records that errored out in the last batch.</p>
+   *
+   * @param input iterator over the input records of type I.
+   * @param batchSize maximum number of records pulled from the input at a time.
+   * @return iterator over the output records of type I.
+   */
+  default Iterator<I> execute(Iterator<I> input, int batchSize) throws RecipeException {
+    return new BatchingIterator<>(input, batchSize, batch -> execute(batch));
+  }
+
+  /**
+   * Executes the pipeline lazily on the input stream, pulling {@link #DEFAULT_BATCH_SIZE} records at a time.
+   *
+   * @param input stream of input records of type I.
+   * @return stream of output records of type I, which closes the input stream when closed.
+   * @see #execute(Iterator, int)
+   */
+  default Stream<I> execute(Stream<I> input) throws RecipeException {
+    Iterator<I> output = execute(input.iterator(), DEFAULT_BATCH_SIZE);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(output, Spliterator.ORDERED), false)
+      .onClose(input::close);
+  }
+
   /**
    * Returns records that are errored out.
    *
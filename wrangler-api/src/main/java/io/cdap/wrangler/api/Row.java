@@ -18,6 +18,8 @@ package io.cdap.wrangler.api;
 
 import io.cdap.wrangler.api.annotations.PublicEvolving;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +27,10 @@ import java.util.Objects;
 
 /**
  * Row defines the schema and data on which the wrangler will operate upon.
+ *
+ * <p>A copy of a row shares the columns and values of the original row until either of them is modified, at
+ * which point the modified row takes a private copy of the list being changed. This keeps directives that
+ * fan a row out into many rows from copying columns that are never changed.</p>
  */
 @PublicEvolving
 public final class Row implements Serializable {
@@ -36,17 +42,29 @@ public final class Row implements Serializable {
   // Values held by the row.
   private List<Object> values = new ArrayList<>();
 
+  // Whether the columns or values are shared with another row and have to be copied before being modified.
+  private transient boolean sharedColumns;
+  private transient boolean sharedValues;
+
   public Row() {
   }
 
   /**
-   * Makes a copy of the row.
+   * Makes a copy of the row. The copy shares the columns and values with the row being copied until either
+   * of the rows is modified.
    *
    * @param row to be copied to 'this' object.
    */
   public Row(Row row) {
-    this.values = new ArrayList<>(row.values);
-    this.columns = new ArrayList<>(row.columns);
+    if (!(row.values instanceof ArrayList)) {
+      // Values backed by anything but a plain list, such as lazily loaded values, are not shared.
+      row.values = new ArrayList<>(row.values);
+      row.sharedValues = false;
+    }
+    this.columns = row.columns;
+    this.values = row.values;
+    this.sharedColumns = row.sharedColumns = true;
+    this.sharedValues = row.sharedValues = true;
   }
 
   /**
@@ -59,6 +77,18 @@ public final class Row implements Serializable {
     this.values = new ArrayList<>(columns.size());
   }
 
+  /**
+   * Initializes a row with the list of columns and their values. The lists are held by the row as they are,
+   * which allows the values to be backed by a list that is populated lazily.
+   *
+   * @param columns to set in the row.
+   * @param values of the columns, in the same order as the columns.
+   */
+  public Row(List<String> columns, List<Object> values) {
+    this.columns = columns;
+    this.values = values;
+  }
+
   /**
    * Initializes the row with column name and value.
    *
@@ -89,7 +119,24 @@ public final class Row implements Serializable {
    * @param name of the column to be set at idx.
    */
   public void setColumn(int idx, String name) {
-    columns.set(idx, name);
+    mutableColumns().set(idx, name);
+  }
+
+  /**
+   * Sets the names of all the columns at once. The list is shared rather than copied: the row takes a private copy
+   * before modifying it, and the caller must not modify it once it's set. This lets rows with the same layout
+   * share a single list of column names.
+   *
+   * @param columns names of the columns, one per value of the row.
+   * @throws IllegalArgumentException if the number of columns differs from the width of the row.
+   */
+  public void setColumns(List<String> columns) {
+    if (columns.size() != this.columns.size()) {
+      throw new IllegalArgumentException(
+        String.format("Expected %d columns, but got %d.", this.columns.size(), columns.size()));
+    }
+    this.columns = columns;
+    this.sharedColumns = true;
   }
 
   /**
@@ -125,7 +172,7 @@ public final class Row implements Serializable {
    * @param value value to be updated at index (idx).
    */
   public Row setValue(int idx, Object value) {
-    values.set(idx, value);
+    mutableValues().set(idx, value);
     return this;
   }
 
@@ -136,8 +183,8 @@ public final class Row implements Serializable {
    * @param value to be added to row.
    */
   public Row add(String name, Object value) {
-    columns.add(name);
-    values.add(value);
+    mutableColumns().add(name);
+    mutableValues().add(value);
     return this;
   }
 
@@ -147,8 +194,8 @@ public final class Row implements Serializable {
    * @param idx for which the value and column are removed.
    */
   public Row remove(int idx) {
-    columns.remove(idx);
-    values.remove(idx);
+    mutableColumns().remove(idx);
+    mutableValues().remove(idx);
     return this;
   }
 
@@ -236,12 +283,42 @@ public final class Row implements Serializable {
       setValue(idx, value);
     } else {
       if (index < columns.size() && index < values.size()) {
-        columns.add(index, name);
-        values.add(index, value);
+        mutableColumns().add(index, name);
+        mutableValues().add(index, value);
       }
     }
   }
 
+  /**
+   * @return the columns of the row, copied first if they are shared with another row.
+   */
+  private List<String> mutableColumns() {
+    if (sharedColumns) {
+      columns = new ArrayList<>(columns);
+      sharedColumns = false;
+    }
+    return columns;
+  }
+
+  /**
+   * @return the values of the row, copied first if they are shared with another row.
+   */
+  private List<Object> mutableValues() {
+    if (sharedValues) {
+      values = new ArrayList<>(values);
+      sharedValues = false;
+    }
+    return values;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    // Shared lists are written as copies, so that the deserialized rows don't share them.
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("columns", sharedColumns ? new ArrayList<>(columns) : columns);
+    fields.put("values", sharedValues ? new ArrayList<>(values) : values);
+    out.writeFields();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+/**
+ * Wraps a {@link RecipeException} raised while lazily executing a {@link RecipePipeline}, where checked
+ * exceptions can't be thrown, such as when iterating over the output of the pipeline.
+ */
+public class UncheckedRecipeException extends RuntimeException {
+
+  public UncheckedRecipeException(RecipeException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  @Override
+  public synchronized RecipeException getCause() {
+    return (RecipeException) super.getCause();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link Row}
+ */
+public class RowTest {
+
+  @Test
+  public void testCopyIsIndependent() {
+    Row row = new Row("a", 1).add("b", 2);
+    Row copy = new Row(row);
+    Row other = new Row(row);
+
+    copy.setValue(0, 10);
+    copy.add("c", 3);
+    Assert.assertEquals(new Row("a", 1).add("b", 2), row);
+    Assert.assertEquals(new Row("a", 10).add("b", 2).add("c", 3), copy);
+
+    row.setColumn(1, "x");
+    row.remove(0);
+    Assert.assertEquals(new Row("x", 2), row);
+    Assert.assertEquals(new Row("a", 1).add("b", 2), other);
+
+    other.addOrSetAtIndex(0, "z", 0);
+    Assert.assertEquals(new Row("z", 0).add("a", 1).add("b", 2), other);
+    Assert.assertEquals(new Row("a", 10).add("b", 2).add("c", 3), copy);
+  }
+
+  @Test
+  public void testCopyOfRowWithForeignLists() {
+    List<String> columns = Collections.unmodifiableList(Arrays.asList("a", "b"));
+    List<Object> values = Collections.unmodifiableList(Arrays.asList(1, 2));
+    Row row = new Row(columns, values);
+    Row copy = new Row(row);
+    copy.setValue(0, 10);
+    copy.setColumn(1, "c");
+    Assert.assertEquals(new Row("a", 10).add("c", 2), copy);
+    Assert.assertEquals(new Row("a", 1).add("b", 2), row);
+  }
+
+  @Test
+  public void testSetColumns() {
+    List<String> columns = new ArrayList<>(Arrays.asList("x", "y"));
+    Row first = new Row("a", 1).add("b", 2);
+    Row second = new Row("c", 3).add("d", 4);
+    first.setColumns(columns);
+    second.setColumns(columns);
+    Assert.assertEquals(new Row("x", 1).add("y", 2), first);
+    Assert.assertEquals(new Row("x", 3).add("y", 4), second);
+
+    first.setColumn(0, "z");
+    second.add("e", 5);
+    Assert.assertEquals(new Row("z", 1).add("y", 2), first);
+    Assert.assertEquals(new Row("x", 3).add("y", 4).add("e", 5), second);
+    Assert.assertEquals(Arrays.asList("x", "y"), columns);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetColumnsOfDifferentWidth() {
+    new Row("a", 1).setColumns(Arrays.asList("x", "y"));
+  }
+
+  @Test
+  public void testSerializationOfSharedRows() throws Exception {
+    Row row = new Row("a", 1).add("b", 2);
+    List<Row> rows = new ArrayList<>(Arrays.asList(row, new Row(row)));
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(rows);
+    }
+    List<Row> copies;
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      //noinspection unchecked
+      copies = (List<Row>) ois.readObject();
+    }
+
+    copies.get(1).setValue(0, 10);
+    Assert.assertEquals(row, copies.get(0));
+    Assert.assertEquals(new Row("a", 10).add("b", 2), copies.get(1));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.aggregates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * An aggregate computed by the {@link GroupBy} directive over every group, written as
+ * {@code <target> = <function>(<column>)}.
+ */
+final class Aggregation {
+  private static final Pattern PATTERN =
+    Pattern.compile("\\s*([^=\\s]+)\\s*=\\s*([a-zA-Z-]+)\\s*\\(\\s*:?([^)]*?)\\s*\\)\\s*");
+
+  /**
+   * Functions that can be computed for a group.
+   */
+  enum Function {
+    COUNT("count"),
+    SUM("sum"),
+    MIN("min"),
+    MAX("max"),
+    AVG("avg"),
+    COUNT_DISTINCT("count-distinct");
+
+    private final String name;
+
+    Function(String name) {
+      this.name = name;
+    }
+
+    @Nullable
+    static Function fromName(String name) {
+      for (Function function : values()) {
+        if (function.name.equalsIgnoreCase(name)) {
+          return function;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * @return true if the function is computed over the numeric values of the column.
+     */
+    boolean isNumeric() {
+      return this == SUM || this == MIN || this == MAX || this == AVG;
+    }
+  }
+
+  private final String target;
+  private final Function function;
+  private final String column;
+
+  private Aggregation(String target, Function function, @Nullable String column) {
+    this.target = target;
+    this.function = function;
+    this.column = column;
+  }
+
+  /**
+   * @return name of the column holding the aggregate.
+   */
+  String getTarget() {
+    return target;
+  }
+
+  Function getFunction() {
+    return function;
+  }
+
+  /**
+   * @return name of the aggregated column, null when all the rows of the group are counted.
+   */
+  @Nullable
+  String getColumn() {
+    return column;
+  }
+
+  /**
+   * Parses a comma separated list of aggregates, such as {@code total = sum(price), orders = count(*)}.
+   *
+   * @throws IllegalArgumentException if an aggregate is not valid.
+   */
+  static List<Aggregation> parse(String text) {
+    List<Aggregation> aggregations = new ArrayList<>();
+    for (String part : text.split(",")) {
+      Matcher matcher = PATTERN.matcher(part);
+      if (!matcher.matches()) {
+        throw new IllegalArgumentException(
+          String.format("Aggregate '%s' is not of the form <column> = <function>(<column>).", part.trim()));
+      }
+      Function function = Function.fromName(matcher.group(2));
+      if (function == null) {
+        throw new IllegalArgumentException(
+          String.format("Aggregate function '%s' is not one of count, sum, min, max, avg or count-distinct.",
+                        matcher.group(2)));
+      }
+      String column = matcher.group(3);
+      if (column.equals("*")) {
+        if (function != Function.COUNT) {
+          throw new IllegalArgumentException(String.format("Only count can be computed over all the columns, " +
+                                                             "found '%s'.", part.trim()));
+        }
+        column = null;
+      } else if (column.isEmpty()) {
+        throw new IllegalArgumentException(String.format("Aggregate '%s' is missing a column.", part.trim()));
+      }
+      aggregations.add(new Aggregation(matcher.group(1), function, column));
+    }
+    return aggregations;
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.aggregates;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ErrorRowException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Finishable;
+import io.cdap.wrangler.api.Optional;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Many;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.parser.ColumnNameList;
+import io.cdap.wrangler.api.parser.Numeric;
+import io.cdap.wrangler.api.parser.Text;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A directive that groups the rows by the values of columns and computes aggregates over each group.
+ *
+ * <p>The rows are consumed as they are executed, and a row per group is produced once all the input has been
+ * executed. Groups are accumulated in a {@link GroupTable}, which spills them to local disk when they exceed the
+ * memory budget.</p>
+ */
+@Plugin(type = Directive.TYPE)
+@Name(GroupBy.NAME)
+@Categories(categories = { "aggregate"})
+@Description("Groups the rows by the columns and computes count, sum, min, max, avg or count-distinct per group.")
+public class GroupBy implements Directive, Finishable, Lineage {
+  public static final String NAME = "group-by";
+  private static final double DEFAULT_MEMORY_MB = 64;
+
+  private List<String> columns;
+  private List<Aggregation> aggregations;
+  private GroupTable table;
+
+  @Override
+  public UsageDefinition define() {
+    UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
+    builder.define("columns", TokenType.COLUMN_NAME_LIST);
+    builder.define("aggregates", TokenType.TEXT);
+    builder.define("memory-mb", TokenType.NUMERIC, Optional.TRUE);
+    return builder.build();
+  }
+
+  @Override
+  public void initialize(Arguments args) throws DirectiveParseException {
+    this.columns = ((ColumnNameList) args.value("columns")).value();
+    try {
+      this.aggregations = Aggregation.parse(((Text) args.value("aggregates")).value());
+    } catch (IllegalArgumentException e) {
+      throw new DirectiveParseException(NAME, e.getMessage(), e);
+    }
+    double memory = DEFAULT_MEMORY_MB;
+    if (args.contains("memory-mb")) {
+      memory = ((Numeric) args.value("memory-mb")).value().doubleValue();
+      if (memory <= 0) {
+        throw new DirectiveParseException(NAME, String.format("Memory budget must be positive, found '%s'.", memory));
+      }
+    }
+    this.table = new GroupTable(columns, aggregations, (long) (memory * 1024 * 1024));
+  }
+
+  @Override
+  public List<Row> execute(List<Row> rows, ExecutorContext context)
+    throws DirectiveExecutionException, ErrorRowException {
+    for (Row row : rows) {
+      Object[] key = new Object[columns.size()];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = getValue(row, columns.get(i));
+      }
+      Object[] inputs = new Object[aggregations.size()];
+      for (int a = 0; a < inputs.length; a++) {
+        Aggregation aggregation = aggregations.get(a);
+        if (aggregation.getColumn() == null) {
+          inputs[a] = Boolean.TRUE;
+          continue;
+        }
+        Object value = getValue(row, aggregation.getColumn());
+        inputs[a] = aggregation.getFunction().isNumeric() ? toDouble(aggregation.getColumn(), value) : value;
+      }
+      try {
+        table.add(key, inputs);
+      } catch (IOException e) {
+        throw new DirectiveExecutionException(NAME, "Failed to spill the groups to disk. " + e.getMessage(), e);
+      } catch (IllegalArgumentException e) {
+        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Row> finish(ExecutorContext context) throws DirectiveExecutionException {
+    try {
+      return table.collect();
+    } catch (IOException e) {
+      throw new DirectiveExecutionException(NAME, "Failed to merge the groups spilled to disk. " + e.getMessage(),
+                                            e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (table != null) {
+      table.close();
+    }
+  }
+
+  @Override
+  public Mutation lineage() {
+    List<String> targets = new ArrayList<>();
+    aggregations.forEach(aggregation -> targets.add(aggregation.getTarget()));
+    Mutation.Builder builder = Mutation.builder()
+      .readable("Grouped by column(s) '%s' and computed '%s'", columns, targets);
+    columns.forEach(column -> builder.relation(column, column));
+    for (Aggregation aggregation : aggregations) {
+      if (aggregation.getColumn() == null) {
+        builder.generate(Many.of(aggregation.getTarget()));
+      } else {
+        builder.relation(aggregation.getColumn(), aggregation.getTarget());
+      }
+    }
+    return builder.build();
+  }
+
+  private static Object getValue(Row row, String column) {
+    int idx = row.find(column);
+    return idx == -1 ? null : row.getValue(idx);
+  }
+
+  private static Double toDouble(String column, Object value) throws ErrorRowException {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof String) {
+      String text = ((String) value).trim();
+      if (text.isEmpty()) {
+        return null;
+      }
+      try {
+        return Double.parseDouble(text);
+      } catch (NumberFormatException e) {
+        // Reported below.
+      }
+    }
+    throw new ErrorRowException(NAME, String.format("Column '%s' has value '%s' that is not a number.",
+                                                    column, value), 1);
+  }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.aggregates;
+
+import io.cdap.wrangler.api.Row;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A hash table of groups and their aggregates, used by the {@link GroupBy} directive.
+ *
+ * <p>Groups are kept in an open addressing table of group ids, and the aggregates are accumulated in primitive
+ * arrays indexed by the group id. When the estimated size of the table exceeds the memory budget, the groups are
+ * written to a run on local disk sorted by the hash of their key, and the table is cleared. The runs are merged
+ * when the groups are collected, so at most the groups sharing a hash are held in memory at a time.</p>
+ *
+ * <p>Runs are written in the {@link SpillFormat}, so the values of the group columns and the distinct values must be
+ * of a type it supports. This is checked for every row, whether or not the groups are spilled. Byte array values
+ * are compared by their content.</p>
+ */
+final class GroupTable implements Closeable {
+  private static final int INITIAL_CAPACITY = 64;
+  // Rough size of the slot, arrays and objects held for a group, and for an entry of a distinct values set.
+  private static final long GROUP_BYTES = 96;
+  private static final long DISTINCT_VALUE_BYTES = 48;
+  // Fewer groups are not spilled even above the budget, so that a few large groups don't spill on every row.
+  private static final int MIN_SPILL_GROUPS = 16;
+
+  private final List<String> columns;
+  private final List<Aggregation> aggregations;
+  private final long memoryBudget;
+  private final List<File> runs = new ArrayList<>();
+
+  // Slots hold the group id plus one, zero for an empty slot.
+  private int[] slots;
+  private int[] hashes;
+  private Object[][] keys;
+  // Indexed by aggregation and then by group id.
+  private long[][] counts;
+  private double[][] values;
+  private Set<Object>[][] distinct;
+  private int groups;
+  private long estimatedBytes;
+
+  /**
+   * @param columns names of the columns the rows are grouped by.
+   * @param aggregations aggregates to compute for every group.
+   * @param memoryBudget estimated size in bytes of the groups above which they are spilled to disk.
+   */
+  GroupTable(List<String> columns, List<Aggregation> aggregations, long memoryBudget) {
+    this.columns = columns;
+    this.aggregations = aggregations;
+    this.memoryBudget = memoryBudget;
+    clear();
+  }
+
+  /**
+   * Adds a row to the group of the key.
+   *
+   * @param key values of the group columns of the row.
+   * @param inputs value of the aggregated column of the row for every aggregation, as a {@link Double} for the
+   *               numeric functions, non null for the rows to count.
+   * @throws IllegalArgumentException if a value of a group column or a distinct value can't be spilled to disk.
+   */
+  void add(Object[] key, Object[] inputs) throws IOException {
+    for (int i = 0; i < key.length; i++) {
+      checkSupported(columns.get(i), key[i]);
+    }
+    int group = findOrCreate(key);
+    for (int a = 0; a < aggregations.size(); a++) {
+      Object input = inputs[a];
+      if (input == null) {
+        continue;
+      }
+      switch (aggregations.get(a).getFunction()) {
+        case SUM:
+        case AVG:
+          values[a][group] += (Double) input;
+          break;
+        case MIN:
+          values[a][group] = counts[a][group] == 0 ? (Double) input : Math.min(values[a][group], (Double) input);
+          break;
+        case MAX:
+          values[a][group] = counts[a][group] == 0 ? (Double) input : Math.max(values[a][group], (Double) input);
+          break;
+        case COUNT_DISTINCT:
+          checkSupported(aggregations.get(a).getColumn(), input);
+          if (distinct[a][group] == null) {
+            distinct[a][group] = new HashSet<>();
+          }
+          // Byte arrays are wrapped so that equal contents are counted once.
+          if (distinct[a][group].add(input instanceof byte[] ? ByteBuffer.wrap((byte[]) input) : input)) {
+            estimatedBytes += DISTINCT_VALUE_BYTES + sizeOf(input);
+          }
+          break;
+        default:
+          break;
+      }
+      counts[a][group]++;
+    }
+    if (estimatedBytes > memoryBudget && groups >= MIN_SPILL_GROUPS) {
+      spill();
+    }
+  }
+
+  /**
+   * Collects the rows of all the groups and clears the table. Groups are returned in the order they were first
+   * seen unless they were spilled to disk.
+   */
+  List<Row> collect() throws IOException {
+    List<Row> rows = new ArrayList<>();
+    try {
+      if (runs.isEmpty()) {
+        for (int group = 0; group < groups; group++) {
+          rows.add(toRow(partial(group)));
+        }
+        return rows;
+      }
+      spill();
+      merge(rows);
+      return rows;
+    } finally {
+      close();
+    }
+  }
+
+  /**
+   * Clears the table and deletes the runs spilled to disk.
+   */
+  @Override
+  public void close() {
+    for (File run : runs) {
+      run.delete();
+    }
+    runs.clear();
+    clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void clear() {
+    slots = new int[INITIAL_CAPACITY * 2];
+    hashes = new int[INITIAL_CAPACITY];
+    keys = new Object[INITIAL_CAPACITY][];
+    counts = new long[aggregations.size()][INITIAL_CAPACITY];
+    values = new double[aggregations.size()][INITIAL_CAPACITY];
+    distinct = new Set[aggregations.size()][INITIAL_CAPACITY];
+    groups = 0;
+    estimatedBytes = 0;
+  }
+
+  private int findOrCreate(Object[] key) {
+    int hash = hash(key);
+    int mask = slots.length - 1;
+    int slot = hash & mask;
+    while (slots[slot] != 0) {
+      int group = slots[slot] - 1;
+      if (hashes[group] == hash && Arrays.deepEquals(keys[group], key)) {
+        return group;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int group = groups++;
+    if (group == hashes.length) {
+      grow();
+      mask = slots.length - 1;
+      slot = hash & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+    }
+    slots[slot] = group + 1;
+    hashes[group] = hash;
+    keys[group] = key;
+    estimatedBytes += GROUP_BYTES;
+    for (Object value : key) {
+      estimatedBytes += sizeOf(value);
+    }
+    return group;
+  }
+
+  /**
+   * Doubles the capacity of the table, keeping the load factor of the slots at most one half.
+   */
+  private void grow() {
+    int capacity = hashes.length * 2;
+    hashes = Arrays.copyOf(hashes, capacity);
+    keys = Arrays.copyOf(keys, capacity);
+    for (int a = 0; a < aggregations.size(); a++) {
+      counts[a] = Arrays.copyOf(counts[a], capacity);
+      values[a] = Arrays.copyOf(values[a], capacity);
+      distinct[a] = Arrays.copyOf(distinct[a], capacity);
+    }
+    slots = new int[capacity * 2];
+    int mask = slots.length - 1;
+    for (int group = 0; group < groups - 1; group++) {
+      int slot = hashes[group] & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = group + 1;
+    }
+  }
+
+  /**
+   * Writes the groups to a new run sorted by their hash, and clears the table.
+   */
+  private void spill() throws IOException {
+    // Sorts by hash and then by group id, both packed in a long.
+    long[] order = new long[groups];
+    for (int group = 0; group < groups; group++) {
+      order[group] = ((long) hashes[group] << 32) | group;
+    }
+    Arrays.sort(order);
+
+    File run = File.createTempFile("wrangler-group-by-", ".run");
+    runs.add(run);
+    boolean written = false;
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+      for (long entry : order) {
+        Partial partial = partial((int) entry);
+        out.writeBoolean(true);
+        partial.write(out);
+      }
+      out.writeBoolean(false);
+      written = true;
+    } finally {
+      // Runs that are written are deleted when the table is closed.
+      if (!written) {
+        runs.remove(run);
+        run.delete();
+      }
+    }
+    clear();
+  }
+
+  /**
+   * Merges the runs, combining the groups with equal keys.
+   */
+  private void merge(List<Row> rows) throws IOException {
+    PriorityQueue<RunReader> readers = new PriorityQueue<>((r1, r2) -> Integer.compare(r1.current.hash,
+                                                                                      r2.current.hash));
+    List<RunReader> opened = new ArrayList<>();
+    try {
+      for (File run : runs) {
+        RunReader reader = new RunReader(run);
+        opened.add(reader);
+        if (reader.current != null) {
+          readers.add(reader);
+        }
+      }
+      List<Partial> merged = new ArrayList<>();
+      while (!readers.isEmpty()) {
+        int hash = readers.peek().current.hash;
+        merged.clear();
+        while (!readers.isEmpty() && readers.peek().current.hash == hash) {
+          RunReader reader = readers.poll();
+          while (reader.current != null && reader.current.hash == hash) {
+            combine(merged, reader.current);
+            reader.advance();
+          }
+          if (reader.current != null) {
+            readers.add(reader);
+          }
+        }
+        for (Partial partial : merged) {
+          rows.add(toRow(partial));
+        }
+      }
+    } finally {
+      for (RunReader reader : opened) {
+        reader.close();
+      }
+    }
+  }
+
+  private void combine(List<Partial> merged, Partial partial) {
+    for (Partial existing : merged) {
+      if (Arrays.deepEquals(existing.key, partial.key)) {
+        existing.merge(partial);
+        return;
+      }
+    }
+    merged.add(partial);
+  }
+
+  private Partial partial(int group) {
+    Partial partial = new Partial(hashes[group], keys[group], aggregations.size());
+    for (int a = 0; a < aggregations.size(); a++) {
+      partial.counts[a] = counts[a][group];
+      partial.values[a] = values[a][group];
+      partial.distinct[a] = distinct[a][group];
+    }
+    return partial;
+  }
+
+  private Row toRow(Partial partial) {
+    Row row = new Row();
+    for (int i = 0; i < columns.size(); i++) {
+      row.add(columns.get(i), partial.key[i]);
+    }
+    for (int a = 0; a < aggregations.size(); a++) {
+      Aggregation aggregation = aggregations.get(a);
+      long count = partial.counts[a];
+      Object value;
+      switch (aggregation.getFunction()) {
+        case COUNT:
+          value = count;
+          break;
+        case AVG:
+          value = count == 0 ? null : partial.values[a] / count;
+          break;
+        case COUNT_DISTINCT:
+          value = partial.distinct[a] == null ? 0L : (long) partial.distinct[a].size();
+          break;
+        default:
+          value = count == 0 ? null : partial.values[a];
+          break;
+      }
+      row.add(aggregation.getTarget(), value);
+    }
+    return row;
+  }
+
+  private static void checkSupported(String column, Object value) {
+    if (!SpillFormat.isSupported(value)) {
+      throw new IllegalArgumentException(
+        String.format("Column '%s' has a value of type '%s' that can't be grouped or counted.",
+                      column, value.getClass().getName()));
+    }
+  }
+
+  private static int hash(Object[] key) {
+    int hash = Arrays.deepHashCode(key);
+    return hash ^ (hash >>> 16);
+  }
+
+  private static long sizeOf(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof CharSequence) {
+      return 40 + 2L * ((CharSequence) value).length();
+    }
+    return 24;
+  }
+
+  /**
+   * The aggregates of a group, read from a run or taken from the table.
+   */
+  private final class Partial {
+    private final int hash;
+    private final Object[] key;
+    private final long[] counts;
+    private final double[] values;
+    private final Set<Object>[] distinct;
+
+    @SuppressWarnings("unchecked")
+    private Partial(int hash, Object[] key, int size) {
+      this.hash = hash;
+      this.key = key;
+      this.counts = new long[size];
+      this.values = new double[size];
+      this.distinct = new Set[size];
+    }
+
+    private void merge(Partial other) {
+      for (int a = 0; a < aggregations.size(); a++) {
+        if (other.counts[a] == 0) {
+          continue;
+        }
+        switch (aggregations.get(a).getFunction()) {
+          case SUM:
+          case AVG:
+            values[a] += other.values[a];
+            break;
+          case MIN:
+            values[a] = counts[a] == 0 ? other.values[a] : Math.min(values[a], other.values[a]);
+            break;
+          case MAX:
+            values[a] = counts[a] == 0 ? other.values[a] : Math.max(values[a], other.values[a]);
+            break;
+          case COUNT_DISTINCT:
+            if (distinct[a] == null) {
+              distinct[a] = other.distinct[a];
+            } else {
+              distinct[a].addAll(other.distinct[a]);
+            }
+            break;
+          default:
+            break;
+        }
+        counts[a] += other.counts[a];
+      }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+      out.writeInt(hash);
+      out.writeInt(key.length);
+      for (Object value : key) {
+        SpillFormat.write(out, value);
+      }
+      for (int a = 0; a < counts.length; a++) {
+        out.writeLong(counts[a]);
+        out.writeDouble(values[a]);
+        out.writeInt(distinct[a] == null ? -1 : distinct[a].size());
+        if (distinct[a] != null) {
+          for (Object value : distinct[a]) {
+            SpillFormat.write(out, value);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the groups of a run one at a time.
+   */
+  private final class RunReader implements Closeable {
+    private final DataInputStream in;
+    private Partial current;
+
+    private RunReader(File run) throws IOException {
+      this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+      advance();
+    }
+
+    private void advance() throws IOException {
+      try {
+        if (!in.readBoolean()) {
+          current = null;
+          return;
+        }
+        int hash = in.readInt();
+        Object[] key = new Object[in.readInt()];
+        for (int i = 0; i < key.length; i++) {
+          key[i] = SpillFormat.read(in);
+        }
+        Partial partial = new Partial(hash, key, aggregations.size());
+        for (int a = 0; a < aggregations.size(); a++) {
+          partial.counts[a] = in.readLong();
+          partial.values[a] = in.readDouble();
+          int size = in.readInt();
+          if (size >= 0) {
+            partial.distinct[a] = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+              partial.distinct[a].add(SpillFormat.read(in));
+            }
+          }
+        }
+        current = partial;
+      } catch (EOFException e) {
+        throw new IOException("Failed to read the groups spilled to disk.", e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
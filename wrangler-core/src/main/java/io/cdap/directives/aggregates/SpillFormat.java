@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.aggregates;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads the values of groups spilled to disk by the {@link GroupTable}.
+ *
+ * <p>Values are written with a tag for their type, so that values of any supported type can be spilled whether or
+ * not they are serializable. The supported types are the scalar types of rows, byte arrays, dates and times, JSON
+ * elements, and lists and maps of supported values.</p>
+ */
+final class SpillFormat {
+  private static final JsonParser JSON_PARSER = new JsonParser();
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte BYTE = 3;
+  private static final byte SHORT = 4;
+  private static final byte INT = 5;
+  private static final byte LONG = 6;
+  private static final byte FLOAT = 7;
+  private static final byte DOUBLE = 8;
+  private static final byte BIG_DECIMAL = 9;
+  private static final byte BIG_INTEGER = 10;
+  private static final byte BYTES = 11;
+  private static final byte BYTE_BUFFER = 12;
+  private static final byte DATE = 13;
+  private static final byte TIME = 14;
+  private static final byte DATE_TIME = 15;
+  private static final byte ZONED_DATE_TIME = 16;
+  private static final byte JSON = 17;
+  private static final byte LIST = 18;
+  private static final byte MAP = 19;
+
+  private SpillFormat() {
+  }
+
+  /**
+   * Returns whether a value can be spilled, including the elements of lists and maps.
+   */
+  static boolean isSupported(Object value) {
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (!isSupported(element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (value instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!isSupported(entry.getKey()) || !isSupported(entry.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return tag(value) >= 0;
+  }
+
+  static void write(DataOutput out, Object value) throws IOException {
+    byte tag = tag(value);
+    if (tag < 0) {
+      throw new IOException(String.format("Values of type '%s' can't be spilled to disk.",
+                                          value.getClass().getName()));
+    }
+    out.writeByte(tag);
+    switch (tag) {
+      case NULL:
+        break;
+      case STRING:
+        writeString(out, (String) value);
+        break;
+      case BOOLEAN:
+        out.writeBoolean((Boolean) value);
+        break;
+      case BYTE:
+        out.writeByte((Byte) value);
+        break;
+      case SHORT:
+        out.writeShort((Short) value);
+        break;
+      case INT:
+        out.writeInt((Integer) value);
+        break;
+      case LONG:
+        out.writeLong((Long) value);
+        break;
+      case FLOAT:
+        out.writeFloat((Float) value);
+        break;
+      case DOUBLE:
+        out.writeDouble((Double) value);
+        break;
+      case BIG_DECIMAL:
+        writeString(out, value.toString());
+        break;
+      case BIG_INTEGER:
+        writeBytes(out, ((BigInteger) value).toByteArray());
+        break;
+      case BYTES:
+        writeBytes(out, (byte[]) value);
+        break;
+      case BYTE_BUFFER:
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        writeBytes(out, bytes);
+        break;
+      case DATE:
+      case TIME:
+      case DATE_TIME:
+      case ZONED_DATE_TIME:
+      case JSON:
+        writeString(out, value.toString());
+        break;
+      case LIST:
+        List<?> list = (List<?>) value;
+        out.writeInt(list.size());
+        for (Object element : list) {
+          write(out, element);
+        }
+        break;
+      default:
+        Map<?, ?> map = (Map<?, ?>) value;
+        out.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          write(out, entry.getKey());
+          write(out, entry.getValue());
+        }
+        break;
+    }
+  }
+
+  static Object read(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case BOOLEAN:
+        return in.readBoolean();
+      case BYTE:
+        return in.readByte();
+      case SHORT:
+        return in.readShort();
+      case INT:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case FLOAT:
+        return in.readFloat();
+      case DOUBLE:
+        return in.readDouble();
+      case BIG_DECIMAL:
+        return new BigDecimal(readString(in));
+      case BIG_INTEGER:
+        return new BigInteger(readBytes(in));
+      case BYTES:
+        return readBytes(in);
+      case BYTE_BUFFER:
+        return ByteBuffer.wrap(readBytes(in));
+      case DATE:
+        return LocalDate.parse(readString(in));
+      case TIME:
+        return LocalTime.parse(readString(in));
+      case DATE_TIME:
+        return LocalDateTime.parse(readString(in));
+      case ZONED_DATE_TIME:
+        return ZonedDateTime.parse(readString(in));
+      case JSON:
+        return JSON_PARSER.parse(readString(in));
+      case LIST:
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(read(in));
+        }
+        return list;
+      case MAP:
+        int entries = in.readInt();
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+          map.put(read(in), read(in));
+        }
+        return map;
+      default:
+        throw new IOException(String.format("Unknown type tag %d in the groups spilled to disk.", tag));
+    }
+  }
+
+  /**
+   * Returns the tag of the type of a value, or -1 if the type is not supported.
+   */
+  private static byte tag(Object value) {
+    if (value == null) {
+      return NULL;
+    } else if (value instanceof String) {
+      return STRING;
+    } else if (value instanceof Boolean) {
+      return BOOLEAN;
+    } else if (value instanceof Byte) {
+      return BYTE;
+    } else if (value instanceof Short) {
+      return SHORT;
+    } else if (value instanceof Integer) {
+      return INT;
+    } else if (value instanceof Long) {
+      return LONG;
+    } else if (value instanceof Float) {
+      return FLOAT;
+    } else if (value instanceof Double) {
+      return DOUBLE;
+    } else if (value instanceof BigDecimal) {
+      return BIG_DECIMAL;
+    } else if (value instanceof BigInteger) {
+      return BIG_INTEGER;
+    } else if (value instanceof byte[]) {
+      return BYTES;
+    } else if (value instanceof ByteBuffer) {
+      return BYTE_BUFFER;
+    } else if (value instanceof LocalDate) {
+      return DATE;
+    } else if (value instanceof LocalTime) {
+      return TIME;
+    } else if (value instanceof LocalDateTime) {
+      return DATE_TIME;
+    } else if (value instanceof ZonedDateTime) {
+      return ZONED_DATE_TIME;
+    } else if (value instanceof JsonElement) {
+      return JSON;
+    } else if (value instanceof List) {
+      return LIST;
+    } else if (value instanceof Map) {
+      return MAP;
+    }
+    return -1;
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+    // DataOutput.writeUTF is limited to 64KB.
+    writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
@@ -50,6 +50,7 @@ import java.util.stream.Collectors;
 public class ChangeColCaseNames implements Directive, Lineage {
   public static final String NAME = "change-column-case";
   private boolean toLower;
+  private final ColumnLayoutCache layouts = new ColumnLayoutCache(this::changeCase);
 
   @Override
   public UsageDefinition define() {
@@ -78,18 +79,22 @@ public class ChangeColCaseNames implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      for (int i = 0; i < row.width(); ++i) {
-        String name = row.getColumn(i);
-        if (toLower) {
-          row.setColumn(i, name.toLowerCase());
-        } else {
-          row.setColumn(i, name.toUpperCase());
-        }
-      }
+      layouts.apply(row);
     }
     return rows;
   }
 
+  private void changeCase(Row row) {
+    for (int i = 0; i < row.width(); ++i) {
+      String name = row.getColumn(i);
+      if (toLower) {
+        row.setColumn(i, name.toLowerCase());
+      } else {
+        row.setColumn(i, name.toUpperCase());
+      }
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -54,6 +54,7 @@ import java.util.stream.Collectors;
   "with an underscore '_'.")
 public final class CleanseColumnNames implements Directive, Lineage {
   public static final String NAME = "cleanse-column-names";
+  private final ColumnLayoutCache layouts = new ColumnLayoutCache(this::cleanse);
 
   @Override
   public UsageDefinition define() {
@@ -74,14 +75,18 @@ public final class CleanseColumnNames implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      for (int i = 0; i < row.width(); ++i) {
-        String column = row.getColumn(i);
-        row.setColumn(i, cleanseColumnName(column));
-      }
+      layouts.apply(row);
     }
     return rows;
   }
 
+  private void cleanse(Row row) {
+    for (int i = 0; i < row.width(); ++i) {
+      String column = row.getColumn(i);
+      row.setColumn(i, cleanseColumnName(column));
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
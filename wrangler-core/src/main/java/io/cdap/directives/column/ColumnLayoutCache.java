@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.column;
+
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.Row;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the column names a directive produces for each distinct layout of input column names.
+ *
+ * <p>Directives that only rename columns produce the same names for every row with the same columns, and rows
+ * of a pipeline almost always share one or a few layouts. The renaming is run once per layout, on a row that holds
+ * only the column names, and every other row with that layout is given the resulting names as a list shared with
+ * the rest of the rows.</p>
+ *
+ * <p>Layouts are looked up by a fingerprint of the column names and then compared name by name, so a lookup is a
+ * handful of reference comparisons when the rows share the same name instances. Like directives, a cache is not
+ * thread safe.</p>
+ */
+final class ColumnLayoutCache {
+  // Layouts remembered before the cache is cleared.
+  private static final int MAX_LAYOUTS = 64;
+
+  /**
+   * Renames the columns of a row.
+   */
+  interface Renaming {
+    /**
+     * @param row holding the columns to be renamed, without values.
+     * @throws DirectiveExecutionException if the columns can't be renamed.
+     */
+    void apply(Row row) throws DirectiveExecutionException;
+  }
+
+  private final Renaming renaming;
+  // Layouts by fingerprint, chained when fingerprints collide.
+  private final Map<Integer, Layout> layouts = new HashMap<>();
+  // Layout of the last row, tried first.
+  private Layout last;
+
+  ColumnLayoutCache(Renaming renaming) {
+    this.renaming = renaming;
+  }
+
+  /**
+   * Renames the columns of a row, running the renaming only if no row with the same columns was renamed before.
+   *
+   * @param row whose columns are to be renamed.
+   * @throws DirectiveExecutionException if the renaming fails for the columns of the row.
+   */
+  void apply(Row row) throws DirectiveExecutionException {
+    Layout layout = last;
+    if (layout == null || !layout.matches(row)) {
+      layout = lookup(row);
+      last = layout;
+    }
+    if (layout.output != null) {
+      row.setColumns(layout.output);
+    }
+  }
+
+  private Layout lookup(Row row) throws DirectiveExecutionException {
+    int width = row.width();
+    int fingerprint = width;
+    for (int i = 0; i < width; i++) {
+      fingerprint = 31 * fingerprint + row.getColumn(i).hashCode();
+    }
+    Layout first = layouts.get(fingerprint);
+    for (Layout layout = first; layout != null; layout = layout.next) {
+      if (layout.matches(row)) {
+        return layout;
+      }
+    }
+
+    String[] input = new String[width];
+    List<String> names = new ArrayList<>(width);
+    for (int i = 0; i < width; i++) {
+      input[i] = row.getColumn(i);
+      names.add(input[i]);
+    }
+    Row columns = new Row(names, new ArrayList<>());
+    renaming.apply(columns);
+    List<String> output = new ArrayList<>(width);
+    boolean changed = false;
+    for (int i = 0; i < width; i++) {
+      output.add(columns.getColumn(i));
+      changed |= !output.get(i).equals(input[i]);
+    }
+
+    if (layouts.size() >= MAX_LAYOUTS) {
+      layouts.clear();
+      first = null;
+    }
+    Layout layout = new Layout(input, changed ? output : null, first);
+    layouts.put(fingerprint, layout);
+    return layout;
+  }
+
+  /**
+   * Input column names and the names they're renamed to.
+   */
+  private static final class Layout {
+    private final String[] input;
+    // Names of the columns after renaming, or null if they are unchanged.
+    private final List<String> output;
+    private final Layout next;
+
+    Layout(String[] input, List<String> output, Layout next) {
+      this.input = input;
+      this.output = output;
+      this.next = next;
+    }
+
+    boolean matches(Row row) {
+      if (row.width() != input.length) {
+        return false;
+      }
+      for (int i = 0; i < input.length; i++) {
+        String name = row.getColumn(i);
+        if (name != input[i] && !name.equals(input[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -52,6 +52,7 @@ import java.util.stream.Collectors;
 public class ColumnsReplace implements Directive, Lineage {
   public static final String NAME = "columns-replace";
   private String sed;
+  private final ColumnLayoutCache layouts = new ColumnLayoutCache(this::replace);
 
   @Override
   public UsageDefinition define() {
@@ -73,18 +74,22 @@ public class ColumnsReplace implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      for (int i = 0; i < row.width(); ++i) {
-        String name = row.getColumn(i);
-        try {
-          row.setColumn(i, getSedReplacedColumnName(name));
-        } catch (IllegalArgumentException e) {
-          throw new DirectiveExecutionException(NAME, e.getMessage(), e);
-        }
-      }
+      layouts.apply(row);
     }
     return rows;
   }
 
+  private void replace(Row row) throws DirectiveExecutionException {
+    for (int i = 0; i < row.width(); ++i) {
+      String name = row.getColumn(i);
+      try {
+        row.setColumn(i, getSedReplacedColumnName(name));
+      } catch (IllegalArgumentException e) {
+        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+      }
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
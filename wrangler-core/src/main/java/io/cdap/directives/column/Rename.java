@@ -48,6 +48,7 @@ public final class Rename implements Directive, Lineage {
   public static final String NAME = "rename";
   private ColumnName source;
   private ColumnName target;
+  private final ColumnLayoutCache layouts = new ColumnLayoutCache(this::rename);
 
   @Override
   public UsageDefinition define() {
@@ -73,11 +74,15 @@ public final class Rename implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      ColumnConverter.rename(NAME, row, source.value(), target.value());
+      layouts.apply(row);
     }
     return rows;
   }
 
+  private void rename(Row row) throws DirectiveExecutionException {
+    ColumnConverter.rename(NAME, row, source.value(), target.value());
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -52,6 +52,7 @@ public class SetHeader implements Directive, Lineage {
   public static final String NAME = "set-headers";
   // Name of the columns represented in a {@link Row}
   private List<String> columns = new ArrayList<>();
+  private final ColumnLayoutCache layouts = new ColumnLayoutCache(this::setHeader);
 
   @Override
   public UsageDefinition define() {
@@ -74,17 +75,21 @@ public class SetHeader implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = 0;
-      for (String name : columns) {
-        if (idx < row.width()) {
-          row.setColumn(idx, name.trim());
-        }
-        idx++;
-      }
+      layouts.apply(row);
     }
     return rows;
   }
 
+  private void setHeader(Row row) {
+    int idx = 0;
+    for (String name : columns) {
+      if (idx < row.width()) {
+        row.setColumn(idx, name.trim());
+      }
+      idx++;
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
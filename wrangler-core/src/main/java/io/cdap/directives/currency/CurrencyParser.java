@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.currency;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Locale;
+
+/**
+ * Parses currency amounts of a locale. Instances are immutable and can be shared between threads.
+ *
+ * <p>Amounts written in the plain layout of the locale, such as <code>$1,234.56</code> or
+ * <code>(1.234,56 €)</code>, are parsed directly from the characters without allocating. Anything else is parsed
+ * by a {@link DecimalFormat} of the locale, of which every thread keeps its own copy, so the results are always
+ * those of the {@link DecimalFormat}.</p>
+ */
+final class CurrencyParser {
+  // Powers of ten that are exact as doubles.
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  // Largest unscaled value whose conversion to double is exact.
+  private static final long MAX_EXACT = 1L << 53;
+  // Returned by the fast path for the values it does not handle.
+  private static final double NOT_PARSED = Double.NaN;
+
+  private final ThreadLocal<DecimalFormat> formats;
+  // Whether the layout of the locale is simple enough for the fast path.
+  private final boolean fast;
+  private final String positivePrefix;
+  private final String positiveSuffix;
+  private final String negativePrefix;
+  private final String negativeSuffix;
+  private final char grouping;
+  private final char decimal;
+  private final boolean groupingUsed;
+
+  CurrencyParser(Locale locale) {
+    DecimalFormat format = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+    format.setParseBigDecimal(true);
+    this.formats = ThreadLocal.withInitial(() -> (DecimalFormat) format.clone());
+
+    DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+    this.positivePrefix = format.getPositivePrefix();
+    this.positiveSuffix = format.getPositiveSuffix();
+    this.negativePrefix = format.getNegativePrefix();
+    this.negativeSuffix = format.getNegativeSuffix();
+    this.grouping = symbols.getGroupingSeparator();
+    this.decimal = symbols.getMonetaryDecimalSeparator();
+    this.groupingUsed = format.isGroupingUsed();
+    this.fast = format.getMultiplier() == 1 && symbols.getZeroDigit() == '0' && grouping != decimal
+      && !Character.isDigit(grouping) && !Character.isDigit(decimal);
+  }
+
+  /**
+   * Parses an amount.
+   *
+   * @param value to be parsed.
+   * @return the amount.
+   * @throws ParseException if the value is not an amount of the locale.
+   */
+  double parse(String value) throws ParseException {
+    if (fast) {
+      double amount = parseLayout(value);
+      if (!Double.isNaN(amount)) {
+        return amount;
+      }
+    }
+    return ((BigDecimal) formats.get().parse(value)).doubleValue();
+  }
+
+  /**
+   * Parses an amount in the plain layout of the locale: the prefix, digits with grouping separators between them,
+   * optionally the decimal separator and more digits, and the suffix.
+   *
+   * @return the amount, or {@link #NOT_PARSED} if the value is not in the plain layout.
+   */
+  private double parseLayout(String value) {
+    boolean positive = value.startsWith(positivePrefix);
+    boolean negative = value.startsWith(negativePrefix);
+    if (positive && negative) {
+      if (positivePrefix.length() == negativePrefix.length()) {
+        // Only the suffix tells the sign.
+        return NOT_PARSED;
+      }
+      // The longest prefix wins.
+      positive = positivePrefix.length() > negativePrefix.length();
+    } else if (!positive && !negative) {
+      return NOT_PARSED;
+    }
+    String suffix = positive ? positiveSuffix : negativeSuffix;
+    int start = positive ? positivePrefix.length() : negativePrefix.length();
+    int end = value.length() - suffix.length();
+    if (end <= start || !value.endsWith(suffix)) {
+      return NOT_PARSED;
+    }
+
+    long unscaled = 0;
+    int digits = 0;
+    int scale = -1;
+    for (int i = start; i < end; i++) {
+      char c = value.charAt(i);
+      if (c >= '0' && c <= '9') {
+        unscaled = unscaled * 10 + (c - '0');
+        if (++digits > 18) {
+          return NOT_PARSED;
+        }
+        if (scale >= 0) {
+          scale++;
+        }
+      } else if (c == decimal && scale < 0) {
+        scale = 0;
+      } else if (c == grouping && groupingUsed && scale < 0 && i > start && i + 1 < end
+        && isDigit(value.charAt(i - 1)) && isDigit(value.charAt(i + 1))) {
+        continue;
+      } else {
+        return NOT_PARSED;
+      }
+    }
+    if (digits == 0 || unscaled >= MAX_EXACT || scale >= POWERS_OF_TEN.length) {
+      return NOT_PARSED;
+    }
+    if (unscaled == 0) {
+      return 0.0;
+    }
+    double amount = scale > 0 ? unscaled / POWERS_OF_TEN[scale] : unscaled;
+    return positive ? amount : -amount;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -52,7 +52,8 @@ public class FormatAsCurrency implements Directive, Lineage {
   private String source;
   private String destination;
   private String locale;
-  private NumberFormat format;
+  // Every thread formats with its own copy, as formats are not thread safe.
+  private ThreadLocal<NumberFormat> format;
   private Locale lcl;
 
   @Override
@@ -76,7 +77,8 @@ public class FormatAsCurrency implements Directive, Lineage {
     }
 
     this.lcl = LocaleUtils.toLocale(locale);
-    this.format = NumberFormat.getCurrencyInstance(lcl);
+    NumberFormat prototype = NumberFormat.getCurrencyInstance(lcl);
+    this.format = ThreadLocal.withInitial(() -> (NumberFormat) prototype.clone());
   }
 
   @Override
@@ -95,7 +97,7 @@ public class FormatAsCurrency implements Directive, Lineage {
           continue;
         }
         Double value = (Double) object;
-        String format = this.format.format(value);
+        String format = this.format.get().format(value);
         row.addOrSet(destination, format);
       }
     }
@@ -36,9 +36,6 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import org.apache.commons.lang3.LocaleUtils;
 
-import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Locale;
@@ -55,7 +52,7 @@ public class ParseAsCurrency implements Directive, Lineage {
   private String source;
   private String destination;
   private String locale;
-  private NumberFormat fmt;
+  private CurrencyParser parser;
   private Locale lcl;
 
   @Override
@@ -79,8 +76,7 @@ public class ParseAsCurrency implements Directive, Lineage {
     }
 
     this.lcl = LocaleUtils.toLocale(locale);
-    this.fmt = NumberFormat.getCurrencyInstance(lcl);
-    ((DecimalFormat) this.fmt).setParseBigDecimal(true);
+    this.parser = new CurrencyParser(lcl);
   }
 
   @Override
@@ -103,8 +99,7 @@ public class ParseAsCurrency implements Directive, Lineage {
           continue;
         }
         try {
-          BigDecimal number = (BigDecimal) fmt.parse(value);
-          row.addOrSet(destination, number.doubleValue());
+          row.addOrSet(destination, parser.parse(value));
         } catch (ParseException e) {
           throw new ErrorRowException(NAME, e.getMessage(), 1);
         }
@@ -47,7 +47,7 @@ import java.util.List;
 public class CatalogLookup implements Directive, Lineage {
   public static final String NAME = "catalog-lookup";
   // StaticCatalog that holds the ICD code and their descriptions
-  private StaticCatalog catalog;
+  private ICDCatalog catalog;
 
   // Catalog name -- normalized for column name
   private String name;
@@ -96,13 +96,7 @@ public class CatalogLookup implements Directive, Lineage {
       if (idx != -1) {
         Object object = row.getValue(idx);
         if (object != null && object instanceof String) {
-          String code = (String) object;
-          StaticCatalog.Entry value = catalog.lookup(code);
-          if (value != null) {
-            row.add(generatedColumn, value.getDescription());
-          } else {
-            row.add(generatedColumn, null);
-          }
+          row.add(generatedColumn, catalog.getDescription((String) object));
         } else {
           row.add(generatedColumn, null);
         }
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.parser;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * Learns which machine formats the dates of a column are written in, so that they can be parsed without natural
+ * language processing.
+ *
+ * <p>Every value of the sample is parsed by natural language processing as usual, and also with each of a set of
+ * well known formats. A format is learned if it parsed at least one sampled value to exactly the same date, and
+ * never to a different one. Once the sample is complete, values are parsed with the learned formats, the most
+ * frequent first, and only values that none of them parses are left to natural language processing.</p>
+ *
+ * <p>Dates are truncated to seconds, as natural language processing ignores fractions of seconds. Like
+ * directives, a learner is not thread safe.</p>
+ */
+final class DateFormatLearner {
+  private static final List<Format> FORMATS = Collections.unmodifiableList(Arrays.asList(
+    new Format("iso-offset", pattern("uuuu-MM-dd'T'HH:mm:ssXXX"), true),
+    new Format("iso-offset-basic", pattern("uuuu-MM-dd'T'HH:mm:ssxx"), true),
+    new Format("iso-local", pattern("uuuu-MM-dd'T'HH:mm:ss"), false),
+    new Format("iso-space", pattern("uuuu-MM-dd HH:mm:ss"), false),
+    new Format("iso-space-fraction", new DateTimeFormatterBuilder()
+      .appendPattern("uuuu-MM-dd HH:mm:ss")
+      .appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, true)
+      .toFormatter(Locale.ENGLISH)
+      .withResolverStyle(ResolverStyle.STRICT), false),
+    new Format("iso-space-minutes", pattern("uuuu-MM-dd HH:mm"), false),
+    new Format("slash-ymd", pattern("uuuu/MM/dd HH:mm:ss"), false),
+    new Format("slash-mdy", pattern("M/d/uuuu H:mm:ss"), false),
+    new Format("slash-mdy-minutes", pattern("M/d/uuuu H:mm"), false),
+    new Format("month-day-year", pattern("MMM d, uuuu h:mm:ss a"), false),
+    new Format("rfc-1123", DateTimeFormatter.RFC_1123_DATE_TIME, true)
+  ));
+
+  private final ZoneId zone;
+  private final int sampleSize;
+  // Values sampled so far.
+  private int sampled;
+  // Values of the sample each format agreed on, or -1 once it disagreed.
+  private final int[] agreements = new int[FORMATS.size()];
+  // Formats learned from the sample, most frequent first, or null while sampling.
+  private List<Format> learned;
+
+  DateFormatLearner(ZoneId zone, int sampleSize) {
+    this.zone = zone;
+    this.sampleSize = sampleSize;
+  }
+
+  /**
+   * @return true if values are still being sampled, and have to be parsed by natural language processing and then
+   * passed to {@link #sample(String, ZonedDateTime)}.
+   */
+  boolean isSampling() {
+    return learned == null;
+  }
+
+  /**
+   * Checks the formats against a sampled value.
+   *
+   * @param value that was sampled.
+   * @param date the value was parsed to by natural language processing, or null if it wasn't parsed to exactly
+   * one date.
+   */
+  void sample(String value, @Nullable ZonedDateTime date) {
+    for (int i = 0; i < agreements.length; i++) {
+      if (agreements[i] < 0) {
+        continue;
+      }
+      ZonedDateTime parsed = FORMATS.get(i).parse(value, zone);
+      if (parsed != null) {
+        if (parsed.equals(date)) {
+          agreements[i]++;
+        } else {
+          agreements[i] = -1;
+        }
+      }
+    }
+    if (++sampled >= sampleSize) {
+      List<Integer> indexes = new ArrayList<>();
+      for (int i = 0; i < agreements.length; i++) {
+        if (agreements[i] > 0) {
+          indexes.add(i);
+        }
+      }
+      indexes.sort(Comparator.comparingInt((Integer i) -> agreements[i]).reversed());
+      List<Format> formats = new ArrayList<>();
+      for (int i : indexes) {
+        formats.add(FORMATS.get(i));
+      }
+      learned = formats;
+    }
+  }
+
+  /**
+   * @return formats learned from the sample, most frequent first, empty while sampling.
+   */
+  List<Format> getLearned() {
+    return learned == null ? Collections.emptyList() : learned;
+  }
+
+  /**
+   * A well known date format.
+   */
+  static final class Format {
+    private final String name;
+    private final DateTimeFormatter formatter;
+    // Whether the format includes the zone or offset, otherwise dates are in the zone of the directive.
+    private final boolean zoned;
+
+    Format(String name, DateTimeFormatter formatter, boolean zoned) {
+      this.name = name;
+      this.formatter = formatter;
+      this.zoned = zoned;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    /**
+     * @return the date of the value truncated to seconds, in the given zone, or null if the value isn't in
+     * this format.
+     */
+    @Nullable
+    ZonedDateTime parse(String value, ZoneId zone) {
+      try {
+        TemporalAccessor temporal = formatter.parse(value);
+        // Like natural language processing, local times that occur twice when clocks are set back are taken as
+        // the later of the two.
+        ZonedDateTime date = zoned
+          ? ZonedDateTime.from(temporal)
+          : LocalDateTime.from(temporal).atZone(zone).withLaterOffsetAtOverlap();
+        return date.truncatedTo(ChronoUnit.SECONDS).withZoneSameInstant(zone);
+      } catch (DateTimeException e) {
+        return null;
+      }
+    }
+  }
+
+  private static DateTimeFormatter pattern(String pattern) {
+    return DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH).withResolverStyle(ResolverStyle.STRICT);
+  }
+}
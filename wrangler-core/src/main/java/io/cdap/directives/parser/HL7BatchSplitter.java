@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Many;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A directive for splitting HL7 V2 batch files into one {@link Row} per message.
+ */
+@Plugin(type = Directive.TYPE)
+@Name(HL7BatchSplitter.NAME)
+@Categories(categories = { "parser", "hl7"})
+@Description("Splits HL7 V2 batch files in <column> into one row per message, copies the rest of the columns.")
+public class HL7BatchSplitter implements Directive, Lineage {
+  public static final String NAME = "split-hl7-batch";
+  private String column;
+
+  @Override
+  public UsageDefinition define() {
+    UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
+    builder.define("column", TokenType.COLUMN_NAME);
+    return builder.build();
+  }
+
+  @Override
+  public void initialize(Arguments args) throws DirectiveParseException {
+    column = ((ColumnName) args.value("column")).value();
+  }
+
+  @Override
+  public void destroy() {
+    // no-op
+  }
+
+  @Override
+  public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    List<Row> results = new ArrayList<>();
+    for (Row row : rows) {
+      int idx = row.find(column);
+      if (idx == -1) {
+        results.add(row);
+        continue;
+      }
+
+      Object object = row.getValue(idx);
+      if (object == null) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' has null value. It should be a non-null 'String'.", column));
+      }
+      if (!(object instanceof String)) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String'.",
+                              column, object.getClass().getSimpleName()));
+      }
+
+      Iterator<String> messages = HL7Tokenizer.messages((String) object);
+      while (messages.hasNext()) {
+        Row message = new Row(row);
+        message.setValue(idx, messages.next());
+        results.add(message);
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public Mutation lineage() {
+    return Mutation.builder()
+      .readable("Split HL7 batches in column '%s' into one row per message", column)
+      .relation(Many.columns(column), Many.columns(column))
+      .build();
+  }
+}
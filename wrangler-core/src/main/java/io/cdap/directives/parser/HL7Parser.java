@@ -50,6 +50,7 @@ import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Numeric;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
@@ -63,19 +64,24 @@ import java.util.List;
 @Name("parse-as-hl7")
 @Categories(categories = { "parser", "hl7"})
 @Description("Parses <column> for Health Level 7 Version 2 (HL7 V2) messages; <depth> indicates at which point " +
-  "JSON object enumeration terminates.")
+  "JSON object enumeration terminates. Mode 'tokenize' parses segments without building the HAPI message model.")
 public class HL7Parser implements Directive, Lineage {
   public static final String NAME = "parse-as-hl7";
+  private static final String MODEL = "model";
+  private static final String TOKENIZE = "tokenize";
   private String column;
   private HapiContext context;
   private Parser parser;
   private int depth;
+  // Tokenizes segments instead of parsing messages into the HAPI model.
+  private boolean tokenize;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("depth", TokenType.NUMERIC, Optional.TRUE);
+    builder.define("mode", TokenType.IDENTIFIER, Optional.TRUE);
     return builder.build();
   }
 
@@ -87,11 +93,20 @@ public class HL7Parser implements Directive, Lineage {
     } else {
       this.depth = Integer.MAX_VALUE;
     }
-    context = new DefaultHapiContext();
-    context.setValidationContext(new NoValidation());
-    ModelClassFactory modelClassFactory = new GenericModelClassFactory();
-    parser = new PipeParser(modelClassFactory);
-    parser.getParserConfiguration().setAllowUnknownVersions(true);
+    String mode = args.contains("mode") ? ((Identifier) args.value("mode")).value() : MODEL;
+    if (!MODEL.equalsIgnoreCase(mode) && !TOKENIZE.equalsIgnoreCase(mode)) {
+      throw new DirectiveParseException(
+        NAME, String.format("Mode '%s' is not supported. Supported modes are '%s' and '%s'.", mode, MODEL, TOKENIZE)
+      );
+    }
+    tokenize = TOKENIZE.equalsIgnoreCase(mode);
+    if (!tokenize) {
+      context = new DefaultHapiContext();
+      context.setValidationContext(new NoValidation());
+      ModelClassFactory modelClassFactory = new GenericModelClassFactory();
+      parser = new PipeParser(modelClassFactory);
+      parser.getParserConfiguration().setAllowUnknownVersions(true);
+    }
   }
 
   @Override
@@ -121,8 +136,10 @@ public class HL7Parser implements Directive, Lineage {
             );
           }
 
-          // Handling the first parsing on HL7 message
-          if (object instanceof String) {
+          if (object instanceof String && tokenize) {
+            JsParser.jsonFlatten(HL7Tokenizer.tokenize((String) object), column + "_hl7", 1, depth, row);
+          } else if (object instanceof String) {
+            // Handling the first parsing on HL7 message
             Message message = parser.parse((String) object);
             HL7MessageVisitor visitor = new HL7MessageVisitor(row, column + "_hl7", depth);
             MessageVisitors.visit(message,
@@ -135,7 +152,7 @@ public class HL7Parser implements Directive, Lineage {
           }
 
         }
-      } catch (HL7Exception e) {
+      } catch (HL7Exception | IllegalArgumentException e) {
         throw new DirectiveExecutionException(NAME, e.getMessage(), e);
       }
     }
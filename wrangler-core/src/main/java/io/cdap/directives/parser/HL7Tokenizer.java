@@ -0,0 +1,350 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Tokenizes HL7 V2 messages at the segment level, without building the HAPI object model.
+ *
+ * <p>A message is turned into a {@link JsonObject} of segments keyed by segment name, in the layout produced by
+ * parsing with HAPI: fields are keyed by their position, fields with components become objects of their
+ * components, and empty fields and components are left out. In addition, subcomponents become objects, field
+ * repetitions become arrays, and every repeat of a segment is kept in an array. The delimiters are taken from
+ * the {@code MSH} segment of each message and segments may be separated by carriage returns, line feeds or
+ * both.</p>
+ *
+ * <p>Batch files are split into messages by {@link #messages(String)}, which skips the file and batch header
+ * and trailer segments and finds one message at a time.</p>
+ */
+final class HL7Tokenizer {
+  private static final String[] ENVELOPE = { "MSH", "FHS", "BHS", "BTS", "FTS" };
+
+  private final char field;
+  private final char escape;
+  // Delimiters of repetitions, components and subcomponents, outermost first.
+  private final char[] delimiters;
+
+  private HL7Tokenizer(char field, char component, char repetition, char escape, char subcomponent) {
+    this.field = field;
+    this.escape = escape;
+    this.delimiters = new char[] { repetition, component, subcomponent };
+  }
+
+  /**
+   * Tokenizes a single HL7 V2 message.
+   *
+   * @param message to tokenize, starting with its {@code MSH} segment.
+   * @return segments of the message keyed by segment name.
+   * @throws IllegalArgumentException if the message does not start with an {@code MSH} segment that defines
+   * the delimiters.
+   */
+  static JsonObject tokenize(String message) {
+    int start = 0;
+    while (start < message.length() && Character.isWhitespace(message.charAt(start))) {
+      start++;
+    }
+    if (!message.startsWith("MSH", start) || message.length() < start + 8) {
+      throw new IllegalArgumentException(
+        "HL7 message should start with an 'MSH' segment that defines the field and encoding characters.");
+    }
+    HL7Tokenizer tokenizer = new HL7Tokenizer(message.charAt(start + 3), message.charAt(start + 4),
+                                              message.charAt(start + 5), message.charAt(start + 6),
+                                              message.charAt(start + 7));
+    JsonObject segments = new JsonObject();
+    int position = start;
+    while (position < message.length()) {
+      int end = lineEnd(message, position);
+      if (end > position) {
+        tokenizer.segment(message, position, end, segments);
+      }
+      position = end + 1;
+    }
+    return segments;
+  }
+
+  /**
+   * Splits HL7 V2 batch text into messages as they are read. Each message starts with an {@code MSH} segment and
+   * ends before the next message, batch or file segment. Anything before the first {@code MSH} segment, such as
+   * the {@code FHS} and {@code BHS} headers, is skipped. Text that holds a single message yields that message.
+   *
+   * @param batch text of the batch.
+   * @return messages of the batch, with segments separated by carriage returns.
+   */
+  static Iterator<String> messages(String batch) {
+    return new Messages(batch);
+  }
+
+  private void segment(String text, int from, int to, JsonObject segments) {
+    int nameEnd = indexOf(text, field, from, to);
+    String name = text.substring(from, nameEnd);
+    JsonObject segment = new JsonObject();
+    int number = 1;
+    int position = nameEnd + 1;
+    if ("MSH".equals(name)) {
+      // The field separator is the first field of the header and the encoding characters are the second.
+      int encodingEnd = indexOf(text, field, position, to);
+      segment.addProperty("1", String.valueOf(field));
+      if (encodingEnd > position) {
+        segment.addProperty("2", text.substring(position, encodingEnd));
+      }
+      number = 3;
+      position = encodingEnd + 1;
+    }
+    while (position <= to) {
+      int end = indexOf(text, field, position, to);
+      JsonElement value = element(text, position, end, 0);
+      if (value != null) {
+        segment.add(Integer.toString(number), value);
+      }
+      number++;
+      position = end + 1;
+    }
+    if (segment.entrySet().isEmpty()) {
+      return;
+    }
+
+    JsonElement existing = segments.get(name);
+    if (existing == null) {
+      segments.add(name, segment);
+    } else if (existing.isJsonArray()) {
+      existing.getAsJsonArray().add(segment);
+    } else {
+      JsonArray repeats = new JsonArray();
+      repeats.add(existing);
+      repeats.add(segment);
+      segments.add(name, repeats);
+    }
+  }
+
+  /**
+   * Tokenizes the text between {@code from} and {@code to} at the given level of delimiters.
+   *
+   * @return the value, or null if it is empty.
+   */
+  private JsonElement element(String text, int from, int to, int level) {
+    if (from == to) {
+      return null;
+    }
+    if (level == delimiters.length) {
+      return new JsonPrimitive(unescape(text, from, to));
+    }
+
+    int end = indexOf(text, delimiters[level], from, to);
+    if (end == to) {
+      JsonElement value = element(text, from, to, level + 1);
+      if (level == 1 && value != null && value.isJsonObject()) {
+        // Subcomponents without components belong to the first component.
+        JsonObject components = new JsonObject();
+        components.add("1", value);
+        return components;
+      }
+      return value;
+    }
+
+    JsonArray repetitions = new JsonArray();
+    JsonObject parts = new JsonObject();
+    int number = 1;
+    int position = from;
+    while (true) {
+      JsonElement value = element(text, position, end, level + 1);
+      if (value != null) {
+        if (level == 0) {
+          repetitions.add(value);
+        } else {
+          parts.add(Integer.toString(number), value);
+        }
+      }
+      if (end == to) {
+        break;
+      }
+      number++;
+      position = end + 1;
+      end = indexOf(text, delimiters[level], position, to);
+    }
+
+    if (level > 0) {
+      return parts.entrySet().isEmpty() ? null : parts;
+    }
+    switch (repetitions.size()) {
+      case 0:
+        return null;
+      case 1:
+        return repetitions.get(0);
+      default:
+        return repetitions;
+    }
+  }
+
+  /**
+   * Replaces the escape sequences of delimiters with the delimiters. Other escape sequences, such as formatting
+   * or hexadecimal data, are kept as they are.
+   */
+  private String unescape(String text, int from, int to) {
+    int next = indexOf(text, escape, from, to);
+    if (next == to) {
+      return text.substring(from, to);
+    }
+    StringBuilder value = new StringBuilder(to - from);
+    int position = from;
+    while (next < to) {
+      int close = indexOf(text, escape, next + 1, to);
+      if (close == to) {
+        break;
+      }
+      value.append(text, position, next);
+      char delimiter = close == next + 2 ? delimiter(text.charAt(next + 1)) : 0;
+      if (delimiter != 0) {
+        value.append(delimiter);
+      } else {
+        value.append(text, next, close + 1);
+      }
+      position = close + 1;
+      next = indexOf(text, escape, position, to);
+    }
+    return value.append(text, position, to).toString();
+  }
+
+  private char delimiter(char code) {
+    switch (code) {
+      case 'F':
+        return field;
+      case 'S':
+        return delimiters[1];
+      case 'T':
+        return delimiters[2];
+      case 'R':
+        return delimiters[0];
+      case 'E':
+        return escape;
+      default:
+        return 0;
+    }
+  }
+
+  private static int indexOf(String text, char c, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (text.charAt(i) == c) {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  private static int lineEnd(String text, int from) {
+    for (int i = from; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\r' || c == '\n') {
+        return i;
+      }
+    }
+    return text.length();
+  }
+
+  /**
+   * Finds messages of a batch one at a time.
+   */
+  private static final class Messages implements Iterator<String> {
+    private final String batch;
+    private int position;
+    private String next;
+
+    private Messages(String batch) {
+      this.batch = batch;
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public String next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      String message = next;
+      advance();
+      return message;
+    }
+
+    private void advance() {
+      int start = -1;
+      int end = -1;
+      // Set once the segments are separated by something other than a single carriage return.
+      boolean lineFeeds = false;
+      while (position < batch.length()) {
+        int lineStart = position;
+        int lineEnd = lineEnd(batch, lineStart);
+        if (lineEnd > lineStart) {
+          String envelope = envelope(lineStart, lineEnd);
+          if (start >= 0 && envelope != null) {
+            break;
+          }
+          if (start < 0 && "MSH".equals(envelope)) {
+            start = lineStart;
+          }
+          if (start >= 0) {
+            lineFeeds |= end >= 0 && (lineStart - end > 1 || batch.charAt(end) != '\r');
+            end = lineEnd;
+          }
+        }
+        position = lineEnd + 1;
+      }
+      if (start < 0) {
+        next = null;
+        return;
+      }
+      next = lineFeeds ? segments(start, end) : batch.substring(start, end);
+    }
+
+    private String segments(int from, int to) {
+      StringBuilder message = new StringBuilder(to - from);
+      int lineStart = from;
+      while (lineStart < to) {
+        int lineEnd = lineEnd(batch, lineStart);
+        if (lineEnd > lineStart) {
+          if (message.length() > 0) {
+            message.append('\r');
+          }
+          message.append(batch, lineStart, lineEnd);
+        }
+        lineStart = lineEnd + 1;
+      }
+      return message.toString();
+    }
+
+    private String envelope(int from, int to) {
+      if (to - from < 3 || (to - from > 3 && Character.isLetterOrDigit(batch.charAt(from + 3)))) {
+        return null;
+      }
+      for (String name : ENVELOPE) {
+        if (batch.startsWith(name, from)) {
+          return name;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -130,10 +130,13 @@ public class JsParser implements Directive, Lineage {
             } else if (element instanceof JsonArray) {
               JsonArray array = element.getAsJsonArray();
               if (array.size() > 0) {
+                // Rows created for the elements share the columns of the template and only copy the values.
+                Row template = new Row(row).add(column, null);
+                int last = template.width() - 1;
                 for (int i = 0; i < array.size(); ++i) {
                   JsonElement object = array.get(i);
-                  Row newRow = new Row(row);
-                  newRow.add(column, getValue(object));
+                  Row newRow = new Row(template);
+                  newRow.setValue(last, getValue(object));
                   results.add(newRow);
                 }
               } else {
@@ -40,6 +40,7 @@ import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.utils.JsonDocumentCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -105,6 +106,11 @@ public class JsPath implements Directive, Lineage {
         );
       }
 
+      // Directives and functions working on the same column text share a single parse of it. The json provider
+      // hands out copies of the elements it reads, so the shared tree never ends up in the row.
+      if (value instanceof String && !((String) value).isEmpty()) {
+        value = JsonDocumentCache.parse((String) value);
+      }
       JsonElement element = parser.parse(value).read(path);
       Object val = JsParser.getValue(element);
 
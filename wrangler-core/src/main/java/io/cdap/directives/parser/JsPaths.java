@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.parser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.spi.json.GsonJsonProvider;
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.ColumnNameList;
+import io.cdap.wrangler.api.parser.TextList;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.utils.JsonDocumentCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * A Json Path Extractor Stage that evaluates multiple json path expressions against a column of the {@link Row}.
+ *
+ * <p>The document is parsed once for all of the expressions. Expressions that only select children by name or
+ * by array index are evaluated together in a single walk of the document; all other expressions are evaluated
+ * by the json path engine, exactly as the <code>json-path</code> directive does.</p>
+ */
+@Plugin(type = Directive.TYPE)
+@Name(JsPaths.NAME)
+@Categories(categories = { "parser", "json"})
+@Description("Parses multiple JSON elements using DSL (JSON path expressions) in a single pass.")
+public class JsPaths implements Directive, Lineage {
+  public static final String NAME = "json-paths";
+  private final GsonJsonProvider provider = new GsonJsonProvider();
+  private String src;
+  private List<String> destinations;
+  private List<String> paths;
+  private JsonPath[] compiled;
+  private ParseContext parser;
+  // Trie of the expressions that can be evaluated by walking the document.
+  private Node root;
+
+  @Override
+  public UsageDefinition define() {
+    UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
+    builder.define("source", TokenType.COLUMN_NAME);
+    builder.define("destinations", TokenType.COLUMN_NAME_LIST);
+    builder.define("json-paths", TokenType.TEXT_LIST);
+    return builder.build();
+  }
+
+  @Override
+  public void initialize(Arguments args) throws DirectiveParseException {
+    this.src = ((ColumnName) args.value("source")).value();
+    this.destinations = ((ColumnNameList) args.value("destinations")).value();
+    this.paths = ((TextList) args.value("json-paths")).value();
+    if (destinations.size() != paths.size()) {
+      throw new DirectiveParseException(
+        NAME, String.format("Number of destination columns (%d) does not match the number of json paths (%d).",
+                            destinations.size(), paths.size()));
+    }
+
+    this.compiled = new JsonPath[paths.size()];
+    this.root = new Node(false);
+    for (int i = 0; i < paths.size(); ++i) {
+      String path = paths.get(i);
+      try {
+        compiled[i] = JsonPath.compile(path);
+      } catch (InvalidPathException e) {
+        throw new DirectiveParseException(
+          NAME, String.format("'%s' is not a valid json path. %s", path, e.getMessage()), e);
+      }
+      List<Object> segments = segments(path);
+      if (segments != null) {
+        root.add(segments, 0, i);
+      }
+    }
+    this.parser = JsonPath.using(JsPath.GSON_CONFIGURATION);
+  }
+
+  @Override
+  public void destroy() {
+    // no-op
+  }
+
+  @Override
+  public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    List<Row> results = new ArrayList<>();
+    for (Row row : rows) {
+      Object value = row.getValue(src);
+      if (value == null) {
+        for (String dest : destinations) {
+          set(row, dest, null);
+        }
+        results.add(row);
+        continue;
+      }
+
+      if (!(value instanceof String ||
+        value instanceof JsonObject ||
+        value instanceof JsonArray)) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' is of invalid type '%s'. It should be of type 'String' " +
+                                "or 'JsonObject' or 'JsonArray'.", src, value.getClass().getSimpleName())
+        );
+      }
+
+      // The shared tree never ends up in the row, both the walk and the engine hand out copies of the elements.
+      if (value instanceof String && !((String) value).isEmpty()) {
+        value = JsonDocumentCache.parse((String) value);
+      }
+
+      JsonElement[] elements = new JsonElement[compiled.length];
+      if (value instanceof JsonElement) {
+        root.evaluate((JsonElement) value, elements);
+      }
+
+      DocumentContext document = null;
+      for (int i = 0; i < compiled.length; ++i) {
+        Object element = elements[i];
+        if (element == null) {
+          if (document == null) {
+            document = parser.parse(value);
+          }
+          element = document.read(compiled[i]);
+        }
+        // Path functions, such as length(), return plain values.
+        Object val = element instanceof JsonElement ? JsParser.getValue((JsonElement) element) : element;
+        set(row, destinations.get(i), val);
+      }
+      results.add(row);
+    }
+
+    return results;
+  }
+
+  @Override
+  public Mutation lineage() {
+    Mutation.Builder builder = Mutation.builder()
+      .readable("Extracted values from column '%s' represented as Json to destination columns '%s' using paths '%s'",
+                src, destinations, paths);
+    for (String dest : destinations) {
+      builder.conditional(src, dest);
+    }
+    return builder.build();
+  }
+
+  private static void set(Row row, String column, @Nullable Object value) {
+    // If destination is already present add it, else set the value.
+    int pos = row.find(column);
+    if (pos == -1) {
+      row.add(column, value);
+    } else {
+      row.setValue(pos, value);
+    }
+  }
+
+  /**
+   * Splits a json path into its segments when it only selects children by name or by index, such as
+   * <code>$.name.first</code>, <code>$['name']</code> or <code>$.numbers[2]</code>. A segment is either
+   * a {@link String} property name or an {@link Integer} array index.
+   *
+   * @return list of segments, or null if the path uses any other part of the json path syntax.
+   */
+  @Nullable
+  static List<Object> segments(String path) {
+    if (!path.startsWith("$")) {
+      return null;
+    }
+    List<Object> segments = new ArrayList<>();
+    int pos = 1;
+    int length = path.length();
+    while (pos < length) {
+      char ch = path.charAt(pos);
+      if (ch == '.') {
+        int start = ++pos;
+        while (pos < length && isNameChar(path.charAt(pos))) {
+          pos++;
+        }
+        if (pos == start) {
+          return null;
+        }
+        segments.add(path.substring(start, pos));
+      } else if (ch == '[' && pos + 1 < length && path.charAt(pos + 1) == '\'') {
+        int start = pos + 2;
+        int end = path.indexOf('\'', start);
+        if (end <= start || !path.startsWith("]", end + 1)) {
+          return null;
+        }
+        String name = path.substring(start, end);
+        if (name.indexOf('\\') >= 0 || name.indexOf(',') >= 0) {
+          return null;
+        }
+        segments.add(name);
+        pos = end + 2;
+      } else if (ch == '[') {
+        int start = ++pos;
+        while (pos < length && pos - start < 9 && Character.isDigit(path.charAt(pos))) {
+          pos++;
+        }
+        if (pos == start || pos >= length || path.charAt(pos) != ']') {
+          return null;
+        }
+        segments.add(Integer.parseInt(path.substring(start, pos)));
+        pos++;
+      } else {
+        return null;
+      }
+    }
+    return segments;
+  }
+
+  private static boolean isNameChar(char ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_' || ch == '-';
+  }
+
+  /**
+   * A node of the trie of json path segments. Paths ending at a node are resolved to the element the walk
+   * reached, converted the same way the json path engine converts its results.
+   */
+  private final class Node {
+    // True if the node is reached by a property name; the engine unwraps values read from properties.
+    private final boolean property;
+    private final Map<String, Node> properties = new HashMap<>();
+    private final Map<Integer, Node> indexes = new HashMap<>();
+    private final List<Integer> outputs = new ArrayList<>();
+
+    Node(boolean property) {
+      this.property = property;
+    }
+
+    void add(List<Object> segments, int depth, int output) {
+      if (depth == segments.size()) {
+        outputs.add(output);
+        return;
+      }
+      Object segment = segments.get(depth);
+      Node child;
+      if (segment instanceof String) {
+        child = properties.computeIfAbsent((String) segment, k -> new Node(true));
+      } else {
+        child = indexes.computeIfAbsent((Integer) segment, k -> new Node(false));
+      }
+      child.add(segments, depth + 1, output);
+    }
+
+    /**
+     * Walks the element, storing the result of every path found in the document. Paths that can't be
+     * resolved are left null, and are evaluated by the json path engine so that it reports them.
+     */
+    void evaluate(JsonElement element, JsonElement[] results) {
+      for (int output : outputs) {
+        // The engine returns a copy of the selected element, created by its json provider.
+        JsonArray holder = new JsonArray();
+        provider.setArrayIndex(holder, 0, property ? provider.unwrap(element) : element);
+        results[output] = holder.get(0);
+      }
+      if (!properties.isEmpty() && element.isJsonObject()) {
+        JsonObject object = element.getAsJsonObject();
+        for (Map.Entry<String, Node> entry : properties.entrySet()) {
+          JsonElement child = object.get(entry.getKey());
+          if (child != null) {
+            entry.getValue().evaluate(child, results);
+          }
+        }
+      }
+      if (!indexes.isEmpty() && element.isJsonArray()) {
+        JsonArray array = element.getAsJsonArray();
+        for (Map.Entry<Integer, Node> entry : indexes.entrySet()) {
+          if (entry.getKey() < array.size()) {
+            entry.getValue().evaluate(array.get(entry.getKey()), results);
+          }
+        }
+      }
+    }
+  }
+}
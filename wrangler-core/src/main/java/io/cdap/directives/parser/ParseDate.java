@@ -42,9 +42,15 @@ import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import javax.annotation.Nullable;
 
 /**
  * A Executor to parse date.
+ *
+ * <p>The formats of the first values are learned by a {@link DateFormatLearner}, and later values written in one of
+ * the learned formats are parsed without natural language processing. The number of values parsed with each
+ * learned format, and with natural language processing, are emitted as metrics. As the formats are learned from
+ * the rows processed before, separate instances of the directive cannot process separate parts of the input.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name("parse-as-date")
@@ -53,8 +59,16 @@ import java.util.TimeZone;
   "automatically identifying the format (expensive in terms of time consumed).")
 public class ParseDate implements Directive, Lineage {
   public static final String NAME = "parse-as-date";
+  // Prefix of the metrics counting the values parsed with each format.
+  static final String METRIC_PREFIX = "parse.date.";
+  // Name of the metric counting the values parsed by natural language processing.
+  static final String NATURAL_METRIC = METRIC_PREFIX + "natural";
+  // Number of values the formats are learned from.
+  private static final int SAMPLE_SIZE = 100;
   private String column;
   private TimeZone timezone;
+  private Parser parser;
+  private DateFormatLearner learner;
 
   @Override
   public UsageDefinition define() {
@@ -72,6 +86,8 @@ public class ParseDate implements Directive, Lineage {
     } else {
       this.timezone = TimeZone.getTimeZone("UTC");
     }
+    this.parser = new Parser(timezone);
+    this.learner = new DateFormatLearner(timezone.toZoneId(), SAMPLE_SIZE);
   }
 
   @Override
@@ -90,6 +106,9 @@ public class ParseDate implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException, ErrorRowException {
+    // Values parsed with each learned format, and by natural language processing.
+    int[] parsed = null;
+    int natural = 0;
     for (Row row : rows) {
       int idx = row.find(column);
       if (idx != -1) {
@@ -100,16 +119,34 @@ public class ParseDate implements Directive, Lineage {
           continue;
         }
         if (object instanceof String) {
-          Parser parser = new Parser(timezone);
-          List<DateGroup> groups = parser.parse((String) object);
+          String value = (String) object;
+          List<DateFormatLearner.Format> formats = learner.getLearned();
+          ZonedDateTime date = null;
+          for (int i = 0; i < formats.size() && date == null; i++) {
+            date = formats.get(i).parse(value, timezone.toZoneId());
+            if (date != null) {
+              parsed = parsed == null ? new int[formats.size()] : parsed;
+              parsed[i]++;
+            }
+          }
+          if (date != null) {
+            row.add(column + "_1", date);
+            continue;
+          }
+
+          natural++;
+          List<DateGroup> groups = parser.parse(value);
           int i = 1;
           for (DateGroup group : groups) {
             List<Date> dates = group.getDates();
-            for (Date date : dates) {
-              row.add(String.format("%s_%d", column, i), date.toInstant().atZone(timezone.toZoneId()));
+            for (Date d : dates) {
+              row.add(column + "_" + i, d.toInstant().atZone(timezone.toZoneId()));
             }
             i++;
           }
+          if (learner.isSampling()) {
+            learner.sample(value, single(groups));
+          }
         } else {
           throw new ErrorRowException(
             NAME, String.format("Column '%s' is of invalid type '%s'. It should be of type 'String'.",
@@ -117,6 +154,28 @@ public class ParseDate implements Directive, Lineage {
         }
       }
     }
+    if (context != null && context.getMetrics() != null) {
+      List<DateFormatLearner.Format> formats = learner.getLearned();
+      for (int i = 0; parsed != null && i < parsed.length; i++) {
+        if (parsed[i] > 0) {
+          context.getMetrics().count(METRIC_PREFIX + formats.get(i).getName(), parsed[i]);
+        }
+      }
+      if (natural > 0) {
+        context.getMetrics().count(NATURAL_METRIC, natural);
+      }
+    }
     return rows;
   }
+
+  /**
+   * @return the only date of the groups, or null if there isn't exactly one.
+   */
+  @Nullable
+  private ZonedDateTime single(List<DateGroup> groups) {
+    if (groups.size() != 1 || groups.get(0).getDates().size() != 1) {
+      return null;
+    }
+    return groups.get(0).getDates().get(0).toInstant().atZone(timezone.toZoneId());
+  }
 }
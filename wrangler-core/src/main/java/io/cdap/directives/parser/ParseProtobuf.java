@@ -21,6 +21,8 @@ import com.github.rholder.retry.Retryer;
 import com.github.rholder.retry.RetryerBuilder;
 import com.github.rholder.retry.StopStrategies;
 import com.github.rholder.retry.WaitStrategies;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
@@ -52,6 +54,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -59,6 +62,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * A step to parse Protobuf encoded memory representations.
+ *
+ * <p>Decoders of a given schema version are retrieved once per class loader and shared by all the instances of
+ * this directive. At most 64 of them are kept, and the least recently used are evicted past that. The latest version
+ * of a schema is retrieved by each instance, as it may change.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name("parse-as-protobuf")
@@ -67,6 +74,11 @@ import java.util.concurrent.TimeUnit;
 public class ParseProtobuf implements Directive, Lineage {
   public static final String NAME = "parse-as-protobuf";
   private static final Logger LOG = LoggerFactory.getLogger(ParseProtobuf.class);
+  // Decoders of schema versions kept by the class loader.
+  private static final int MAX_DECODERS = 64;
+  // Decoders retrieved so far, by namespace, schema id, version and record name.
+  private static final Cache<List<Object>, Decoder<Row>> DECODERS =
+    CacheBuilder.newBuilder().maximumSize(MAX_DECODERS).build();
   private String column;
   private String schemaId;
   private String recordName;
@@ -108,43 +120,21 @@ public class ParseProtobuf implements Directive, Lineage {
     List<Row> results = new ArrayList<>();
 
     if (!decoderInitialized) {
-      // Retryer callable, that allows this step attempt to connect to schema registry service
-      // before giving up.
-      Callable<Decoder<Row>> decoderCallable = new Callable<Decoder<Row>>() {
-        @Override
-        public Decoder<Row> call() throws Exception {
-          client = SchemaRegistryClient.getInstance(context);
-          byte[] bytes;
-          if (version != -1) {
-            bytes = client.getSchema(context.getNamespace(), schemaId, version);
-          } else {
-            bytes = client.getSchema(context.getNamespace(), schemaId);
-          }
-
-          return new ProtobufDecoderUsingDescriptor(bytes, recordName);
-        }
-      };
-
-      // Retryer that retries when there is connection issue or any request / response
-      // issue. It would exponentially back-off till wait time of 10 seconds is reached
-      // for 5 attempts.
-      Retryer<Decoder<Row>> retryer = RetryerBuilder.<Decoder<Row>>newBuilder()
-        .retryIfExceptionOfType(IOException.class)
-        .retryIfExceptionOfType(RestClientException.class)
-        .withWaitStrategy(WaitStrategies.exponentialWait(10, TimeUnit.SECONDS))
-        .withStopStrategy(StopStrategies.stopAfterAttempt(5))
-        .build();
-
-      try {
-        decoder = retryer.call(decoderCallable);
+      if (version == -1) {
+        decoder = retrieveDecoder(context);
+      } else {
+        List<Object> key = Arrays.asList(context.getNamespace(), schemaId, version, recordName);
+        decoder = DECODERS.getIfPresent(key);
         if (decoder == null) {
-          throw new DirectiveExecutionException(NAME, "Unsupported protobuf decoder type.");
+          // Retrieved outside of the cache, so that the registry is not called while holding its locks.
+          Decoder<Row> retrieved = retrieveDecoder(context);
+          decoder = DECODERS.asMap().putIfAbsent(key, retrieved);
+          if (decoder == null) {
+            decoder = retrieved;
+          }
         }
-        decoderInitialized = true;
-      } catch (ExecutionException | RetryException e) {
-        throw new DirectiveExecutionException(
-          NAME, String.format("Unable to retrieve protobuf descriptor from schema registry. %s", e.getMessage()), e);
       }
+      decoderInitialized = true;
     }
 
     try {
@@ -167,6 +157,46 @@ public class ParseProtobuf implements Directive, Lineage {
     return results;
   }
 
+  private Decoder<Row> retrieveDecoder(final ExecutorContext context) throws DirectiveExecutionException {
+    // Retryer callable, that allows this step attempt to connect to schema registry service
+    // before giving up.
+    Callable<Decoder<Row>> decoderCallable = new Callable<Decoder<Row>>() {
+      @Override
+      public Decoder<Row> call() throws Exception {
+        client = SchemaRegistryClient.getInstance(context);
+        byte[] bytes;
+        if (version != -1) {
+          bytes = client.getSchema(context.getNamespace(), schemaId, version);
+        } else {
+          bytes = client.getSchema(context.getNamespace(), schemaId);
+        }
+
+        return new ProtobufDecoderUsingDescriptor(bytes, recordName);
+      }
+    };
+
+    // Retryer that retries when there is connection issue or any request / response
+    // issue. It would exponentially back-off till wait time of 10 seconds is reached
+    // for 5 attempts.
+    Retryer<Decoder<Row>> retryer = RetryerBuilder.<Decoder<Row>>newBuilder()
+      .retryIfExceptionOfType(IOException.class)
+      .retryIfExceptionOfType(RestClientException.class)
+      .withWaitStrategy(WaitStrategies.exponentialWait(10, TimeUnit.SECONDS))
+      .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+      .build();
+
+    try {
+      Decoder<Row> decoder = retryer.call(decoderCallable);
+      if (decoder == null) {
+        throw new DirectiveExecutionException(NAME, "Unsupported protobuf decoder type.");
+      }
+      return decoder;
+    } catch (ExecutionException | RetryException e) {
+      throw new DirectiveExecutionException(
+        NAME, String.format("Unable to retrieve protobuf descriptor from schema registry. %s", e.getMessage()), e);
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -54,7 +54,9 @@ import java.util.TimeZone;
 public class ParseSimpleDate implements Directive, Lineage {
   public static final String NAME = "parse-as-simple-date";
   private String column;
-  private SimpleDateFormat formatter;
+  private String format;
+  // Every thread parses with its own copy, as formats are not thread safe.
+  private ThreadLocal<SimpleDateFormat> formatter;
 
   @Override
   public UsageDefinition define() {
@@ -67,12 +69,13 @@ public class ParseSimpleDate implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
-    String format = ((Text) args.value("format")).value();
-    this.formatter = new SimpleDateFormat(format);
+    this.format = ((Text) args.value("format")).value();
+    SimpleDateFormat prototype = new SimpleDateFormat(format);
     // CDAP-19615 Use pure Gregorian Calendar to avoid Julian date precision loss
     GregorianCalendar gc = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
     gc.setGregorianChange(new Date(Long.MIN_VALUE));
-    formatter.setCalendar(gc);
+    prototype.setCalendar(gc);
+    this.formatter = ThreadLocal.withInitial(() -> (SimpleDateFormat) prototype.clone());
   }
 
   @Override
@@ -98,13 +101,13 @@ public class ParseSimpleDate implements Directive, Lineage {
             // ZonedDateTime requires presence of Zone and Time components in the pattern and object to be parsed.
             // For example if the pattern is yyyy-mm-dd, ZonedDateTime object can not be created and the call to
             // ZonedDateTime.parse("2018-12-21", formatter) will throw DateTimeParseException
-            Date date = formatter.parse(object.toString());
+            Date date = formatter.get().parse(object.toString());
             ZonedDateTime zonedDateTime = ZonedDateTime.from(date.toInstant()
                                                                .atZone(ZoneId.ofOffset("UTC", ZoneOffset.UTC)));
             row.setValue(idx, zonedDateTime);
           } catch (ParseException e) {
             throw new ErrorRowException(
-              NAME, String.format("Failed to parse '%s' with pattern '%s'", object, formatter.toPattern()), 1);
+              NAME, String.format("Failed to parse '%s' with pattern '%s'", object, format), 1);
           }
         } else {
           throw new ErrorRowException(
@@ -119,7 +122,7 @@ public class ParseSimpleDate implements Directive, Lineage {
   @Override
   public Mutation lineage() {
     return Mutation.builder()
-      .readable("Parsed column '%s' as date using user specified format '%s'", column, formatter.toPattern())
+      .readable("Parsed column '%s' as date using user specified format '%s'", column, format)
       .relation(column, column)
       .build();
   }
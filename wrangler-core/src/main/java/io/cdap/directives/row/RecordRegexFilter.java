@@ -24,6 +24,7 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -33,11 +34,12 @@ import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.regex.Regex;
+import io.cdap.wrangler.regex.RegexSelection;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * A Wrangle step for filtering rows that match the pattern specified on the column.
@@ -49,17 +51,20 @@ import java.util.regex.Pattern;
 public class RecordRegexFilter implements Directive, Lineage {
   public static final String NAME = "filter-by-regex";
   private String column;
-  private Pattern pattern;
+  private String regex;
+  private RegexSelection<Regex> selection;
+  private Regex pattern;
   private boolean matched = false;
 
-  // filter-by-regex if-matched :column 'expression'
-  // filter-by-regex if-not-matched :column 'expression'
+  // filter-by-regex if-matched :column 'expression' [engine]
+  // filter-by-regex if-not-matched :column 'expression' [engine]
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("match-type", TokenType.IDENTIFIER);
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("regex", TokenType.TEXT);
+    builder.define("engine", TokenType.IDENTIFIER, Optional.TRUE);
     return builder.build();
   }
 
@@ -75,11 +80,12 @@ public class RecordRegexFilter implements Directive, Lineage {
         NAME, "Match type specified is not 'if-matched' or 'if-not-matched'");
     }
     column = ((ColumnName) args.value("column")).value();
-    String regex = ((Text) args.value("regex")).value();
+    regex = ((Text) args.value("regex")).value();
+    String engine = args.contains("engine") ? ((Identifier) args.value("engine")).value() : null;
     if (!regex.equalsIgnoreCase("null") && !regex.isEmpty()) {
-      pattern = Pattern.compile(regex);
+      selection = RegexSelection.create(NAME, engine, e -> e.compile(regex));
     } else {
-      pattern = null;
+      selection = null;
     }
   }
 
@@ -91,9 +97,10 @@ public class RecordRegexFilter implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
-    if (pattern == null) {
+    if (selection == null) {
       return rows;
     }
+    pattern = selection.get(context);
     for (Row row : rows) {
       int idx = row.find(column);
       if (idx != -1) {
@@ -135,13 +142,13 @@ public class RecordRegexFilter implements Directive, Lineage {
   public Mutation lineage() {
     return Mutation.builder()
       .readable("Filtered column '%s' based on whether the expression '%s' %s ",
-                column, pattern, matched ? "matched" : "not matched")
+                column, selection == null ? null : regex, matched ? "matched" : "not matched")
       .relation(column, column)
       .build();
   }
 
   private boolean matchPattern(String value) {
-    boolean matches = pattern.matcher(value).matches(); // pattern.matcher(value).matches();
+    boolean matches = pattern.matches(value);
     if (!matched) {
       matches = !matches;
     }
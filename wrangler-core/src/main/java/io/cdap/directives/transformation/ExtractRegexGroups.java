@@ -24,19 +24,23 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.regex.Regex;
+import io.cdap.wrangler.regex.RegexMatcher;
+import io.cdap.wrangler.regex.RegexSelection;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A directive extracts regex groups into separate columns.
@@ -47,15 +51,20 @@ import java.util.regex.Pattern;
 @Description("Extracts data from a regex group into its own column.")
 public class ExtractRegexGroups implements Directive, Lineage {
   public static final String NAME = "extract-regex-groups";
+  // Number of matches for which the names of the output columns are kept.
+  private static final int MAX_CACHED_MATCHES = 64;
   private String column;
   private String regex;
-  private Pattern pattern;
+  private RegexSelection<Regex> pattern;
+  // Names of the output columns, by match and by group. Replaced, never modified, when it grows.
+  private volatile String[][] names;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("regex", TokenType.TEXT);
+    builder.define("engine", TokenType.IDENTIFIER, Optional.TRUE);
     return builder.build();
   }
 
@@ -63,7 +72,9 @@ public class ExtractRegexGroups implements Directive, Lineage {
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
     this.regex = ((Text) args.value("regex")).value();
-    pattern = Pattern.compile(regex);
+    String engine = args.contains("engine") ? ((Identifier) args.value("engine")).value() : null;
+    this.pattern = RegexSelection.create(NAME, engine, e -> e.compile(regex));
+    this.names = new String[0][];
   }
 
   @Override
@@ -74,16 +85,19 @@ public class ExtractRegexGroups implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException {
+    Regex compiled = pattern.get(context);
+    int groups = compiled.groupCount();
     for (Row row : rows) {
       int idx = row.find(column);
       if (idx != -1) {
         Object value = row.getValue(idx);
         if (value != null && value instanceof String) {
-          Matcher matcher = pattern.matcher((String) value);
+          RegexMatcher matcher = compiled.matcher((String) value);
           int count = 1;
           while (matcher.find()) {
-            for (int i = 1; i <= matcher.groupCount(); i++) {
-              row.add(String.format("%s_%d_%d", column, count, i), matcher.group(i));
+            String[] columns = names(count, groups);
+            for (int i = 1; i <= groups; i++) {
+              row.add(columns[i - 1], matcher.group(i));
             }
             count++;
           }
@@ -93,6 +107,26 @@ public class ExtractRegexGroups implements Directive, Lineage {
     return rows;
   }
 
+  /**
+   * @return names of the columns of the groups of the given match.
+   */
+  private String[] names(int count, int groups) {
+    String[][] cached = names;
+    if (count <= cached.length) {
+      return cached[count - 1];
+    }
+    String[] columns = new String[groups];
+    for (int i = 1; i <= groups; i++) {
+      columns[i - 1] = column + "_" + count + "_" + i;
+    }
+    if (count == cached.length + 1 && count <= MAX_CACHED_MATCHES) {
+      String[][] grown = Arrays.copyOf(cached, count);
+      grown[count - 1] = columns;
+      names = grown;
+    }
+    return columns;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -24,19 +24,25 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnNameList;
+import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.regex.RegexEngines;
+import io.cdap.wrangler.regex.RegexSelection;
 import org.unix4j.Unix4j;
 import org.unix4j.builder.Unix4jCommandBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
 
 /**
  * A directive for 'find-and-replace' transformations on the column.
@@ -49,13 +55,14 @@ public class FindAndReplace implements Directive, Lineage {
   public static final String NAME = "find-and-replace";
   private String pattern;
   private List<String> columns;
-
+  private RegexSelection<UnaryOperator<String>> script;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("column", TokenType.COLUMN_NAME_LIST);
     builder.define("pattern", TokenType.TEXT);
+    builder.define("engine", TokenType.IDENTIFIER, Optional.TRUE);
     return builder.build();
   }
 
@@ -63,6 +70,14 @@ public class FindAndReplace implements Directive, Lineage {
   public void initialize(Arguments args) throws DirectiveParseException {
     this.columns = ((ColumnNameList) args.value("column")).value();
     this.pattern = ((Text) args.value("pattern")).value();
+    String engine = args.contains("engine") ? ((Identifier) args.value("engine")).value() : null;
+    this.script = RegexSelection.create(NAME, engine, e -> {
+      if (e == RegexEngines.JAVA) {
+        // Any sed script, with the regex of unix4j.
+        return this::sed;
+      }
+      return SedSubstitution.parse(pattern, e)::apply;
+    });
   }
 
   @Override
@@ -73,6 +88,7 @@ public class FindAndReplace implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
+    UnaryOperator<String> sed = script.get(context);
     for (Row row : rows) {
       for (String column : columns) {
         int idx = row.find(column);
@@ -81,10 +97,9 @@ public class FindAndReplace implements Directive, Lineage {
           // Operates only on String types.
           try {
             if (v instanceof String) {
-              String value = (String) v; // Safely converts to String.
-              Unix4jCommandBuilder builder = Unix4j.echo(value).sed(pattern);
-              if (builder.toExitValue() == 0) {
-                row.setValue(idx, builder.toStringResult());
+              String value = sed.apply((String) v);
+              if (value != null) {
+                row.setValue(idx, value);
               }
             }
           } catch (Exception e) {
@@ -97,6 +112,12 @@ public class FindAndReplace implements Directive, Lineage {
     return results;
   }
 
+  @Nullable
+  private String sed(String value) {
+    Unix4jCommandBuilder builder = Unix4j.echo(value).sed(pattern);
+    return builder.toExitValue() == 0 ? builder.toStringResult() : null;
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
@@ -31,6 +31,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
 
 import java.util.List;
 
@@ -41,7 +42,7 @@ import java.util.List;
 @Name(LeftTrim.NAME)
 @Categories(categories = { "transform"})
 @Description("Trimming whitespace from left side of a string.")
-public class LeftTrim implements Directive, Lineage {
+public class LeftTrim implements Directive, Lineage, StringTransform {
   public static final String NAME = "ltrim";
   // Columns of the column to be upper-cased
   private String col;
@@ -72,7 +73,7 @@ public class LeftTrim implements Directive, Lineage {
         if (object instanceof String) {
           if (object != null) {
             String value = (String) object;
-            row.setValue(idx, Trimmer.ltrim(value));
+            row.setValue(idx, apply(value));
           }
         }
       }
@@ -80,6 +81,16 @@ public class LeftTrim implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public String getColumn() {
+    return col;
+  }
+
+  @Override
+  public String apply(String value) {
+    return Trimmer.ltrim(value);
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
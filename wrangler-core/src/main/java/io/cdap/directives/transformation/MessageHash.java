@@ -33,12 +33,11 @@ import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Bool;
-import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.ColumnNameList;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
@@ -107,14 +106,18 @@ public class MessageHash implements Directive, Lineage {
   private static final String HASH_ALGORITHM_METRIC_NAME = "wrangler.hash-algo.count";
   private static final int HASH_ALGORITHM_COUNT = 1;
   private static final String HASH_ALGORITHM_ENTITY_NAME = "directive-hash-algo";
-  private String column;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  // Strings are encoded to UTF-8 in chunks of this many bytes before being digested.
+  private static final int BUFFER_SIZE = 4096;
+  private List<String> columns;
   private boolean encode;
   private MessageDigest digest;
+  private ThreadLocal<Hasher> hashers;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
-    builder.define("column", TokenType.COLUMN_NAME);
+    builder.define("column", TokenType.COLUMN_NAME_LIST);
     builder.define("algorithm", TokenType.TEXT);
     builder.define("encode", TokenType.BOOLEAN, Optional.TRUE);
     return builder.build();
@@ -122,7 +125,7 @@ public class MessageHash implements Directive, Lineage {
 
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
-    this.column = ((ColumnName) args.value("column")).value();
+    this.columns = ((ColumnNameList) args.value("column")).value();
     Text algorithm = args.value("algorithm");
     if (!MessageHash.isValid(algorithm.value())) {
       throw new DirectiveParseException(
@@ -139,6 +142,8 @@ public class MessageHash implements Directive, Lineage {
     if (args.contains("encode")) {
       this.encode = ((Bool) args.value("encode")).value();
     }
+    // Digests are stateful, so every thread executing the directive hashes with its own copy.
+    this.hashers = ThreadLocal.withInitial(() -> new Hasher(copyDigest()));
   }
 
   @Override
@@ -148,10 +153,10 @@ public class MessageHash implements Directive, Lineage {
 
   @Override
   public Mutation lineage() {
-    return Mutation.builder()
-      .readable("Anonymized the column '%s'", column)
-      .relation(column, column)
-      .build();
+    Mutation.Builder builder = Mutation.builder()
+      .readable("Anonymized the column(s) '%s'", columns);
+    columns.forEach(column -> builder.relation(column, column));
+    return builder.build();
   }
 
   public static boolean isValid(String algorithm) {
@@ -160,9 +165,13 @@ public class MessageHash implements Directive, Lineage {
 
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    Hasher hasher = hashers.get();
     for (Row row : rows) {
-      int idx = row.find(column);
-      if (idx != -1) {
+      for (String column : columns) {
+        int idx = row.find(column);
+        if (idx == -1) {
+          throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", column));
+        }
         Object object = row.getValue(idx);
 
         if (object == null) {
@@ -171,29 +180,22 @@ public class MessageHash implements Directive, Lineage {
                                 column));
         }
 
-        byte[] message;
+        byte[] hashed;
         if (object instanceof String) {
-          message = ((String) object).getBytes(StandardCharsets.UTF_8);
+          hashed = hasher.hash((String) object);
         } else if (object instanceof byte[]) {
-          message = ((byte[]) object);
+          hashed = hasher.hash((byte[]) object);
         } else {
           throw new DirectiveExecutionException(
             NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String' or 'byte array'.",
                                 column, object.getClass().getSimpleName()));
         }
 
-        digest.update(message);
-        byte[] hashed = digest.digest();
-
         if (encode) {
-          // hex with left zero padding:
-          String hasedHex = String.format("%064x", new java.math.BigInteger(1, hashed));
-          row.addOrSet(column, hasedHex);
+          row.setValue(idx, hasher.hex(hashed));
         } else {
-          row.addOrSet(column, hashed);
+          row.setValue(idx, hashed);
         }
-      } else {
-        throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", column));
       }
     }
     return rows;
@@ -205,4 +207,84 @@ public class MessageHash implements Directive, Lineage {
       new EntityCountMetric(HASH_ALGORITHM_METRIC_NAME, HASH_ALGORITHM_ENTITY_NAME,
                                digest.getAlgorithm(), HASH_ALGORITHM_COUNT));
   }
+
+  private MessageDigest copyDigest() {
+    try {
+      return (MessageDigest) digest.clone();
+    } catch (CloneNotSupportedException e) {
+      try {
+        return MessageDigest.getInstance(digest.getAlgorithm(), digest.getProvider());
+      } catch (NoSuchAlgorithmException ex) {
+        // Cannot happen, as the algorithm was already found with the same provider.
+        throw new IllegalStateException(ex);
+      }
+    }
+  }
+
+  /**
+   * A digest and the buffers used to hash values on a single thread.
+   */
+  private static final class Hasher {
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private char[] hex = new char[0];
+
+    private Hasher(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    private byte[] hash(byte[] value) {
+      return digest.digest(value);
+    }
+
+    /**
+     * Hashes the UTF-8 encoding of the string, encoding it into the buffer a chunk at a time. Unpaired surrogates
+     * are encoded as '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    private byte[] hash(String value) {
+      int length = value.length();
+      int size = 0;
+      for (int i = 0; i < length; i++) {
+        if (size > BUFFER_SIZE - 4) {
+          digest.update(buffer, 0, size);
+          size = 0;
+        }
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          buffer[size++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[size++] = (byte) (0xc0 | (c >> 6));
+          buffer[size++] = (byte) (0x80 | (c & 0x3f));
+        } else if (!Character.isSurrogate(c)) {
+          buffer[size++] = (byte) (0xe0 | (c >> 12));
+          buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          buffer[size++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          buffer[size++] = (byte) (0xf0 | (codePoint >> 18));
+          buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          buffer[size++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else {
+          buffer[size++] = '?';
+        }
+      }
+      digest.update(buffer, 0, size);
+      return digest.digest();
+    }
+
+    /**
+     * @return the lower case hex encoding of all the bytes of the digest.
+     */
+    private String hex(byte[] hashed) {
+      if (hex.length < hashed.length * 2) {
+        hex = new char[hashed.length * 2];
+      }
+      for (int i = 0; i < hashed.length; i++) {
+        hex[2 * i] = HEX_DIGITS[(hashed[i] >> 4) & 0xf];
+        hex[2 * i + 1] = HEX_DIGITS[hashed[i] & 0xf];
+      }
+      return new String(hex, 0, hashed.length * 2);
+    }
+  }
 }
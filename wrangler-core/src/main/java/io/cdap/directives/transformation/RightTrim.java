@@ -31,6 +31,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
 
 import java.util.List;
 
@@ -42,7 +43,7 @@ import java.util.List;
 @Name(RightTrim.NAME)
 @Categories(categories = { "transform"})
 @Description("Trimming whitespace from right side of a string.")
-public class RightTrim implements Directive, Lineage {
+public class RightTrim implements Directive, Lineage, StringTransform {
   public static final String NAME = "rtrim";
   // Columns of the column to be upper-cased
   private String column;
@@ -73,7 +74,7 @@ public class RightTrim implements Directive, Lineage {
         if (object instanceof String) {
           if (object != null) {
             String value = (String) object;
-            row.setValue(idx, Trimmer.rtrim(value));
+            row.setValue(idx, apply(value));
           }
         }
       }
@@ -81,6 +82,16 @@ public class RightTrim implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public String getColumn() {
+    return column;
+  }
+
+  @Override
+  public String apply(String value) {
+    return Trimmer.rtrim(value);
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.transformation;
+
+import io.cdap.wrangler.regex.Regex;
+import io.cdap.wrangler.regex.RegexEngine;
+import io.cdap.wrangler.regex.RegexMatcher;
+
+/**
+ * A sed substitute command, <code>s/regex/replacement/flags</code>, evaluated with a {@link RegexEngine}.
+ *
+ * <p>The script is interpreted the same way the sed implementation of unix4j interprets it: the character
+ * following <code>s</code> is the delimiter, the regex and the replacement are used as is, without removing
+ * escapes of the delimiter, and the flags are any of <code>g</code>, <code>p</code> and <code>I</code>, optionally
+ * preceded by the occurrence to replace. The whole value is a single line of input.</p>
+ */
+final class SedSubstitution {
+  private final Regex regex;
+  private final String replacement;
+  private final int occurrence;
+  private final boolean global;
+
+  private SedSubstitution(Regex regex, String replacement, int occurrence, boolean global) {
+    this.regex = regex;
+    this.replacement = replacement;
+    this.occurrence = occurrence;
+    this.global = global;
+  }
+
+  /**
+   * Parses a substitute command.
+   *
+   * @param script of the command.
+   * @param engine compiling the regex of the command.
+   * @return the command.
+   * @throws IllegalArgumentException if the script is not a valid substitute command, or its regex can't be
+   *   compiled by the engine.
+   */
+  static SedSubstitution parse(String script, RegexEngine engine) {
+    int start = firstNonWhitespace(script, 0);
+    if (start == script.length() || script.charAt(start) != 's') {
+      throw new IllegalArgumentException("Only the substitute command is supported: " + script);
+    }
+    int delimiter = start + 1;
+    int mid = nextDelimiter(script, delimiter);
+    int end = nextDelimiter(script, mid);
+    if (mid < 0 || end < 0) {
+      throw new IllegalArgumentException("Invalid substitute command: " + script);
+    }
+
+    int flagsEnd = firstWhitespace(script, end + 1);
+    int last = script.length();
+    while (last > 0 && Character.isWhitespace(script.charAt(last - 1))) {
+      last--;
+    }
+    if (flagsEnd < last) {
+      throw new IllegalArgumentException("Extra characters after the substitute command: " + script);
+    }
+    boolean global = false;
+    boolean ignoreCase = false;
+    int index = flagsEnd - 1;
+    for (; index > end; --index) {
+      char flag = script.charAt(index);
+      if (flag == 'g') {
+        global = true;
+      } else if (flag == 'I') {
+        ignoreCase = true;
+      } else if (flag != 'p') {
+        break;
+      }
+    }
+    int occurrence = 0;
+    if (index > end) {
+      try {
+        occurrence = Integer.parseInt(script.substring(end + 1, index + 1));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid substitute flags: " + script, e);
+      }
+      if (occurrence <= 0) {
+        throw new IllegalArgumentException("Invalid occurrence index " + occurrence + ": " + script);
+      }
+    }
+
+    String regex = script.substring(delimiter + 1, mid);
+    return new SedSubstitution(engine.compile(ignoreCase ? "(?i)" + regex : regex),
+                               script.substring(mid + 1, end), occurrence, global);
+  }
+
+  /**
+   * Applies the substitution.
+   *
+   * @return the value with the matches replaced, or the value itself if nothing matched.
+   */
+  String apply(String value) {
+    RegexMatcher matcher = regex.matcher(value);
+    if (!matcher.find()) {
+      return value;
+    }
+    StringBuffer changed = new StringBuffer();
+    boolean matches = true;
+    if (occurrence > 0) {
+      for (int current = 1; matches && current < occurrence; ++current) {
+        matches = matcher.find();
+      }
+      if (matches) {
+        matcher.appendReplacement(changed, replacement);
+        matches = global && matcher.find();
+      }
+    }
+    while (matches) {
+      matcher.appendReplacement(changed, replacement);
+      matches = global && matcher.find();
+    }
+    matcher.appendTail(changed);
+    return changed.toString();
+  }
+
+  private static int nextDelimiter(String script, int previous) {
+    if (previous < 0 || previous >= script.length()) {
+      return -1;
+    }
+    char delimiter = script.charAt(previous);
+    if (delimiter == '\\') {
+      throw new IllegalArgumentException("Invalid delimiter '\\': " + script);
+    }
+    int index = previous;
+    do {
+      index = script.indexOf(delimiter, index + 1);
+    } while (index >= 0 && isEscaped(script, index));
+    return index;
+  }
+
+  private static boolean isEscaped(String script, int index) {
+    int backslashes = 0;
+    for (int i = index - 1; i >= 0 && script.charAt(i) == '\\'; --i) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  private static int firstNonWhitespace(String script, int start) {
+    int index = start;
+    while (index < script.length() && Character.isWhitespace(script.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static int firstWhitespace(String script, int start) {
+    int index = start;
+    while (index < script.length() && !Character.isWhitespace(script.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+}
@@ -25,12 +25,16 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.Identifier;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.regex.Regex;
+import io.cdap.wrangler.regex.RegexSelection;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +53,7 @@ public class Split implements Directive {
   private String col;
 
   private String delimiter;
+  private RegexSelection<Regex> pattern;
 
   // Destination column names
   private String firstColumnName, secondColumnName;
@@ -60,6 +65,7 @@ public class Split implements Directive {
     builder.define("delimiter", TokenType.TEXT);
     builder.define("column1", TokenType.COLUMN_NAME);
     builder.define("column2", TokenType.COLUMN_NAME);
+    builder.define("engine", TokenType.IDENTIFIER, Optional.TRUE);
     return builder.build();
   }
 
@@ -69,6 +75,8 @@ public class Split implements Directive {
     this.delimiter = ((Text) args.value("delimiter")).value();
     this.firstColumnName = ((ColumnName) args.value("column1")).value();
     this.secondColumnName = ((ColumnName) args.value("column2")).value();
+    String engine = args.contains("engine") ? ((Identifier) args.value("engine")).value() : null;
+    this.pattern = RegexSelection.create(NAME, engine, e -> e.compile(delimiter));
   }
 
   @Override
@@ -79,12 +87,13 @@ public class Split implements Directive {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
+    Regex regex = pattern.get(context);
     for (Row row : rows) {
       int idx = row.find(col);
       if (idx != -1) {
         String val = (String) row.getValue(idx);
         if (val != null) {
-          String[] parts = val.split(delimiter, 2);
+          String[] parts = regex.split(val, 2);
           if (Strings.isNullOrEmpty(parts[0])) {
             row.add(firstColumnName, parts[1]);
             row.add(secondColumnName, null);
@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.transformation;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.annotations.Categories;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.parser.Bool;
+import io.cdap.wrangler.api.parser.ColumnNameList;
+import io.cdap.wrangler.api.parser.Text;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.utils.TermDictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A directive that replaces all the terms of a dictionary in the values of columns, in a single pass over each
+ * value.
+ *
+ * <p>The dictionary is read from a local file when the directive is initialized, and compiled into a
+ * {@link TermDictionary}. This replaces long chains of 'find-and-replace' directives that each scan the value
+ * again.</p>
+ *
+ * <p>As recipes are written by users, dictionaries can only be read from the directories that the operator lists
+ * in the {@link #DICTIONARY_DIRS_PROPERTY} system property. URLs are not accepted.</p>
+ */
+@Plugin(type = Directive.TYPE)
+@Name(Standardize.NAME)
+@Categories(categories = { "transform"})
+@Description("Replaces the terms of a dictionary in column values in a single pass.")
+public class Standardize implements Directive, Lineage {
+  public static final String NAME = "standardize";
+
+  /**
+   * System property with the directories dictionaries can be read from, separated by the path separator.
+   */
+  public static final String DICTIONARY_DIRS_PROPERTY = "wrangler.dictionary.dirs";
+
+  // Schemes of URLs, with at least two letters so that windows drive letters are not taken as schemes.
+  private static final Pattern SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]+:");
+
+  private List<String> columns;
+  private String source;
+  private TermDictionary dictionary;
+
+  @Override
+  public UsageDefinition define() {
+    UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
+    builder.define("column", TokenType.COLUMN_NAME_LIST);
+    builder.define("dictionary", TokenType.TEXT);
+    builder.define("whole-word", TokenType.BOOLEAN, Optional.TRUE);
+    builder.define("ignore-case", TokenType.BOOLEAN, Optional.TRUE);
+    return builder.build();
+  }
+
+  @Override
+  public void initialize(Arguments args) throws DirectiveParseException {
+    this.columns = ((ColumnNameList) args.value("column")).value();
+    this.source = ((Text) args.value("dictionary")).value();
+    boolean wholeWord = !args.contains("whole-word") || ((Bool) args.value("whole-word")).value();
+    boolean ignoreCase = args.contains("ignore-case") && ((Bool) args.value("ignore-case")).value();
+    Path path = resolve(source);
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      this.dictionary = new TermDictionary(TermDictionary.read(reader), wholeWord, ignoreCase);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new DirectiveParseException(
+        NAME, String.format("Unable to load dictionary '%s'. %s", source, e.getMessage()), e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // no-op
+  }
+
+  @Override
+  public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    for (Row row : rows) {
+      for (String column : columns) {
+        int idx = row.find(column);
+        if (idx != -1) {
+          Object value = row.getValue(idx);
+          // Operates only on String types.
+          if (value instanceof String) {
+            row.setValue(idx, dictionary.replace((String) value));
+          }
+        }
+      }
+    }
+    return rows;
+  }
+
+  @Override
+  public Mutation lineage() {
+    Mutation.Builder builder = Mutation.builder()
+      .readable("Standardized the values of '%s' using dictionary '%s'", columns, source);
+    columns.forEach(column -> builder.relation(column, column));
+    return builder.build();
+  }
+
+  /**
+   * Resolves the path of a dictionary within the directories allowed by the {@link #DICTIONARY_DIRS_PROPERTY}
+   * system property. Relative paths are resolved against each of the directories in turn.
+   *
+   * @return the real path of the dictionary.
+   * @throws DirectiveParseException if the dictionary is a URL, or is not a file in one of the directories.
+   */
+  private static Path resolve(String source) throws DirectiveParseException {
+    if (SCHEME.matcher(source).find()) {
+      throw new DirectiveParseException(
+        NAME, String.format("Dictionary '%s' should be the path of a local file, URLs are not supported.", source));
+    }
+    String dirs = System.getProperty(DICTIONARY_DIRS_PROPERTY, "");
+    try {
+      Path path = Paths.get(source);
+      for (String dir : dirs.split(Pattern.quote(File.pathSeparator))) {
+        if (dir.trim().isEmpty() || !Files.isDirectory(Paths.get(dir.trim()))) {
+          continue;
+        }
+        Path root = Paths.get(dir.trim()).toRealPath();
+        Path candidate = root.resolve(path).normalize();
+        // The real path follows symbolic links, which must not lead out of the directory either.
+        if (candidate.startsWith(root) && Files.isRegularFile(candidate)
+          && candidate.toRealPath().startsWith(root)) {
+          return candidate.toRealPath();
+        }
+      }
+    } catch (IOException | InvalidPathException e) {
+      throw new DirectiveParseException(
+        NAME, String.format("Unable to load dictionary '%s'. %s", source, e.getMessage()), e);
+    }
+    throw new DirectiveParseException(
+      NAME, String.format("Dictionary '%s' is not a file in the directories allowed by the '%s' system property.",
+                          source, DICTIONARY_DIRS_PROPERTY));
+  }
+}
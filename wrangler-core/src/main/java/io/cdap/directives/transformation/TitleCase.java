@@ -31,6 +31,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
 import org.apache.commons.lang.WordUtils;
 
 import java.util.List;
@@ -42,7 +43,7 @@ import java.util.List;
 @Name(TitleCase.NAME)
 @Categories(categories = { "transform"})
 @Description("Changes the column values to title case.")
-public class TitleCase implements Directive, Lineage {
+public class TitleCase implements Directive, Lineage, StringTransform {
   public static final String NAME = "titlecase";
   private String column;
 
@@ -72,7 +73,7 @@ public class TitleCase implements Directive, Lineage {
         if (object instanceof String) {
           if (object != null) {
             String value = (String) object;
-            row.setValue(idx, WordUtils.capitalizeFully(value));
+            row.setValue(idx, apply(value));
           }
         }
       }
@@ -80,6 +81,16 @@ public class TitleCase implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public String getColumn() {
+    return column;
+  }
+
+  @Override
+  public String apply(String value) {
+    return WordUtils.capitalizeFully(value);
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
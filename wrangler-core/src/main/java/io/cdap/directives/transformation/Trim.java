@@ -32,6 +32,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
 
 import java.util.List;
 
@@ -42,7 +43,7 @@ import java.util.List;
 @Name(Trim.NAME)
 @Categories(categories = { "transform"})
 @Description("Trimming whitespace from both sides of a string.")
-public class Trim implements Directive, Lineage {
+public class Trim implements Directive, Lineage, StringTransform {
   public static final String NAME = "trim";
   // Columns of the column to be upper-cased
   private String column;
@@ -73,7 +74,7 @@ public class Trim implements Directive, Lineage {
         if (object instanceof String) {
           if (object != null) {
             String value = (String) object;
-            row.setValue(idx, Trimmer.trim(value));
+            row.setValue(idx, apply(value));
           }
         }
       }
@@ -81,6 +82,16 @@ public class Trim implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public String getColumn() {
+    return column;
+  }
+
+  @Override
+  public String apply(String value) {
+    return Trimmer.trim(value);
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -31,6 +31,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
 
 import java.util.List;
 
@@ -41,7 +42,7 @@ import java.util.List;
 @Name(Upper.NAME)
 @Categories(categories = { "transform"})
 @Description("Changes the column values to uppercase.")
-public class Upper implements Directive, Lineage {
+public class Upper implements Directive, Lineage, StringTransform {
   public static final String NAME = "uppercase";
   // Columns of the column to be upper-cased
   private String column;
@@ -72,7 +73,7 @@ public class Upper implements Directive, Lineage {
         if (object instanceof String) {
           if (object != null) {
             String value = (String) object;
-            row.setValue(idx, value.toUpperCase());
+            row.setValue(idx, apply(value));
           }
         }
       }
@@ -80,6 +81,16 @@ public class Upper implements Directive, Lineage {
     return rows;
   }
 
+  @Override
+  public String getColumn() {
+    return column;
+  }
+
+  @Override
+  public String apply(String value) {
+    return value.toUpperCase();
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.writer;
+
+import com.google.gson.Gson;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes values of a {@link io.cdap.wrangler.api.Row} as CSV or JSON text straight into a reusable
+ * {@link StringBuilder}. Numbers and booleans are appended as primitives, so no intermediate strings are created
+ * for them.
+ */
+final class ValueWriter {
+  private static final int INITIAL_CAPACITY = 256;
+  // Builders that grew larger than this while writing a big record are not kept around.
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+  private static final char QUOTE = '"';
+  private static final char DELIMITER = ',';
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  // Escapes for the characters below 128, matching the HTML safe escaping done by Gson.
+  private static final String[] JSON_ESCAPES = new String[128];
+
+  static {
+    for (int c = 0; c < 0x20; c++) {
+      JSON_ESCAPES[c] = String.format("\\u%04x", c);
+    }
+    JSON_ESCAPES['"'] = "\\\"";
+    JSON_ESCAPES['\\'] = "\\\\";
+    JSON_ESCAPES['\t'] = "\\t";
+    JSON_ESCAPES['\b'] = "\\b";
+    JSON_ESCAPES['\n'] = "\\n";
+    JSON_ESCAPES['\r'] = "\\r";
+    JSON_ESCAPES['\f'] = "\\f";
+    JSON_ESCAPES['<'] = "\\u003c";
+    JSON_ESCAPES['>'] = "\\u003e";
+    JSON_ESCAPES['&'] = "\\u0026";
+    JSON_ESCAPES['='] = "\\u003d";
+    JSON_ESCAPES['\''] = "\\u0027";
+  }
+
+  private ValueWriter() {
+    // no-op
+  }
+
+  /**
+   * @return an empty builder for the calling thread.
+   */
+  static StringBuilder builder(ThreadLocal<StringBuilder> builders) {
+    StringBuilder builder = builders.get();
+    if (builder == null || builder.capacity() > MAX_RETAINED_CAPACITY) {
+      builder = new StringBuilder(INITIAL_CAPACITY);
+      builders.set(builder);
+    }
+    builder.setLength(0);
+    return builder;
+  }
+
+  /**
+   * Appends a value as a field of a CSV record, quoting it the same way as the default format of
+   * {@link org.apache.commons.csv.CSVFormat} does. Null values are written as empty fields.
+   *
+   * @param first true if the value is the first field of the record.
+   */
+  static void appendCsv(StringBuilder builder, @Nullable Object value, boolean first) {
+    if (!first) {
+      builder.append(DELIMITER);
+    }
+    if (value == null) {
+      return;
+    }
+    if (value instanceof CharSequence) {
+      CharSequence text = (CharSequence) value;
+      if (needsQuotes(text, 0, text.length(), first)) {
+        appendQuoted(builder, text);
+      } else {
+        builder.append(text);
+      }
+      return;
+    }
+    int start = builder.length();
+    appendPrimitive(builder, value);
+    if (needsQuotes(builder, start, builder.length(), first)) {
+      String text = builder.substring(start);
+      builder.setLength(start);
+      appendQuoted(builder, text);
+    }
+  }
+
+  /**
+   * Appends a value as JSON. Strings, numbers, booleans and characters are written directly, any other value is
+   * serialized with the {@link Gson} instance.
+   */
+  static void appendJson(StringBuilder builder, @Nullable Object value, Gson gson) {
+    if (value == null) {
+      builder.append("null");
+    } else if (value instanceof String) {
+      appendJsonString(builder, (String) value);
+    } else if (value instanceof Character) {
+      appendJsonString(builder, String.valueOf((char) (Character) value));
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+      || value instanceof Boolean) {
+      appendPrimitive(builder, value);
+    } else if ((value instanceof Double && Double.isFinite((Double) value))
+      || (value instanceof Float && Float.isFinite((Float) value))) {
+      appendPrimitive(builder, value);
+    } else {
+      // Also rejects non finite numbers like Gson does.
+      builder.append(gson.toJson(value));
+    }
+  }
+
+  /**
+   * Appends a string as a quoted and escaped JSON string.
+   */
+  static void appendJsonString(StringBuilder builder, String text) {
+    builder.append(QUOTE);
+    int last = 0;
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      String escape;
+      if (c < 128) {
+        escape = JSON_ESCAPES[c];
+        if (escape == null) {
+          continue;
+        }
+      } else if (c == '\u2028' || c == '\u2029') {
+        escape = null;
+      } else {
+        continue;
+      }
+      builder.append(text, last, i);
+      if (escape == null) {
+        builder.append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xf]).append(HEX[(c >> 4) & 0xf])
+          .append(HEX[c & 0xf]);
+      } else {
+        builder.append(escape);
+      }
+      last = i + 1;
+    }
+    builder.append(text, last, length).append(QUOTE);
+  }
+
+  private static void appendPrimitive(StringBuilder builder, Object value) {
+    if (value instanceof Integer) {
+      builder.append((int) (Integer) value);
+    } else if (value instanceof Long) {
+      builder.append((long) (Long) value);
+    } else if (value instanceof Double) {
+      builder.append((double) (Double) value);
+    } else if (value instanceof Float) {
+      builder.append((float) (Float) value);
+    } else if (value instanceof Short) {
+      builder.append((short) (Short) value);
+    } else if (value instanceof Byte) {
+      builder.append((byte) (Byte) value);
+    } else if (value instanceof Boolean) {
+      builder.append((boolean) (Boolean) value);
+    } else if (value instanceof Character) {
+      builder.append((char) (Character) value);
+    } else {
+      builder.append(value);
+    }
+  }
+
+  /**
+   * Decides whether a CSV field needs quotes, following the minimal quote mode of commons-csv.
+   */
+  private static boolean needsQuotes(CharSequence text, int start, int end, boolean first) {
+    if (start == end) {
+      // An empty first field is quoted, otherwise a record with a single empty field would be an empty line.
+      return first;
+    }
+    char c = text.charAt(start);
+    if (first && (c < '0' || (c > '9' && c < 'A') || (c > 'Z' && c < 'a') || c > 'z')) {
+      return true;
+    }
+    if (c <= '#') {
+      return true;
+    }
+    for (int i = start; i < end; i++) {
+      c = text.charAt(i);
+      if (c == '\n' || c == '\r' || c == QUOTE || c == DELIMITER) {
+        return true;
+      }
+    }
+    return text.charAt(end - 1) <= ' ';
+  }
+
+  private static void appendQuoted(StringBuilder builder, CharSequence text) {
+    builder.append(QUOTE);
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == QUOTE) {
+        builder.append(QUOTE);
+      }
+      builder.append(c);
+    }
+    builder.append(QUOTE);
+  }
+}
@@ -32,14 +32,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 
-import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.List;
 
 /**
@@ -52,6 +45,7 @@ import java.util.List;
 public class WriteAsCSV implements Directive, Lineage {
   public static final String NAME = "write-as-csv";
   private String column;
+  private ThreadLocal<StringBuilder> builders;
 
   @Override
   public UsageDefinition define() {
@@ -63,6 +57,7 @@ public class WriteAsCSV implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.builders = new ThreadLocal<>();
   }
 
   @Override
@@ -73,23 +68,11 @@ public class WriteAsCSV implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      try {
-        final ByteArrayOutputStream bOut = new ByteArrayOutputStream();
-        try (Writer out = new BufferedWriter(new OutputStreamWriter(bOut))) {
-          CSVPrinter csvPrinter = new CSVPrinter(out, CSVFormat.DEFAULT);
-
-          for (int i = 0; i < row.width(); ++i) {
-            csvPrinter.print(row.getValue(i));
-          }
-          csvPrinter.flush();
-          csvPrinter.close();
-        } catch (Exception e) {
-          bOut.close();
-        }
-        row.add(column, bOut.toString());
-      } catch (IOException e) {
-        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+      StringBuilder builder = ValueWriter.builder(builders);
+      for (int i = 0; i < row.width(); ++i) {
+        ValueWriter.appendCsv(builder, row.getValue(i), i == 0);
       }
+      row.add(column, builder.toString());
     }
     return rows;
   }
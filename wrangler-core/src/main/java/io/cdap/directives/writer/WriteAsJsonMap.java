@@ -25,7 +25,6 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
-import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -35,9 +34,7 @@ import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A step to write the record fields as JSON.
@@ -50,6 +47,7 @@ public class WriteAsJsonMap implements Directive, Lineage {
   public static final String NAME = "write-as-json-map";
   private String column;
   private Gson gson;
+  private ThreadLocal<StringBuilder> builders;
 
   @Override
   public UsageDefinition define() {
@@ -62,6 +60,7 @@ public class WriteAsJsonMap implements Directive, Lineage {
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
     this.gson = new Gson();
+    this.builders = new ThreadLocal<>();
   }
 
   @Override
@@ -72,11 +71,23 @@ public class WriteAsJsonMap implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      Map<String, Object> toJson = new HashMap<>();
-      for (Pair<String, Object> entry : row.getFields()) {
-        toJson.put(entry.getFirst(), entry.getSecond());
+      StringBuilder builder = ValueWriter.builder(builders).append('{');
+      boolean first = true;
+      for (int i = 0; i < row.width(); i++) {
+        Object value = row.getValue(i);
+        // Like Gson does for maps, columns with null values are left out.
+        if (value == null) {
+          continue;
+        }
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        ValueWriter.appendJsonString(builder, row.getColumn(i));
+        builder.append(':');
+        ValueWriter.appendJson(builder, value, gson);
       }
-      row.addOrSet(column, gson.toJson(toJson));
+      row.addOrSet(column, builder.append('}').toString());
     }
     return rows;
   }
@@ -0,0 +1,612 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.XML;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Converts a XML document to a {@link JsonObject} in a single pass over its text, following the rules of
+ * {@link XML#toJSONObject(String, boolean)}: attributes and child elements become the fields of the object of
+ * an element, repeated names are collected in arrays, text goes in the 'content' field and an element holding
+ * only text is replaced by its text. Values are converted with {@link XML#stringToValue(String)} unless strings
+ * are kept.
+ *
+ * <p>The document is tokenized with the same lenient rules as org.json, but the Gson tree is built directly
+ * instead of going through a JSONObject tree and its JSON text. The fields of every object are ordered the way
+ * the hash map of a JSONObject iterates them, so the flattened columns keep their order.</p>
+ */
+final class XmlToJsonConverter {
+  private static final Character LT = '<';
+  private static final Character GT = '>';
+  private static final Character SLASH = '/';
+  private static final Character EQ = '=';
+  private static final Character BANG = '!';
+  private static final Character QUEST = '?';
+  private static final String CONTENT = "content";
+
+  private final String xml;
+  private final boolean keepStrings;
+  private final StringBuilder buffer = new StringBuilder();
+  private final StringBuilder entity = new StringBuilder();
+  private int pos;
+  // Whether the last call to next() consumed a character, so that back() can return it.
+  private boolean consumed;
+
+  private XmlToJsonConverter(String xml, boolean keepStrings) {
+    this.xml = xml;
+    this.keepStrings = keepStrings;
+  }
+
+  /**
+   * Converts the XML document.
+   *
+   * @param xml document to convert.
+   * @param keepStrings true to keep all the values as strings, false to convert numbers, booleans and null.
+   * @return object holding the top level elements of the document.
+   * @throws JSONException if the document is malformed.
+   */
+  static JsonObject convert(String xml, boolean keepStrings) throws JSONException {
+    XmlToJsonConverter converter = new XmlToJsonConverter(xml, keepStrings);
+    Element root = new Element();
+    while (converter.more()) {
+      converter.skipPast("<");
+      if (converter.more()) {
+        converter.parse(root, null);
+      }
+    }
+    return root.toJson();
+  }
+
+  /**
+   * Parses the markup following a '<', adding the element, text or CDATA found to the context.
+   *
+   * @param name name of the element the markup is in, null at the top level.
+   * @return true if the markup closes the element.
+   */
+  private boolean parse(Element context, @Nullable String name) throws JSONException {
+    Object token = nextToken();
+    if (token == BANG) {
+      char c = next();
+      if (c == '-') {
+        if (next() == '-') {
+          skipPast("-->");
+          return false;
+        }
+        back();
+      } else if (c == '[') {
+        token = nextToken();
+        if ("CDATA".equals(token) && next() == '[') {
+          String cdata = nextCDATA();
+          if (!cdata.isEmpty()) {
+            context.accumulate(CONTENT, new JsonPrimitive(cdata));
+          }
+          return false;
+        }
+        throw syntaxError("Expected 'CDATA['");
+      }
+      // Skips declarations such as DOCTYPE, which may nest other declarations.
+      int depth = 1;
+      do {
+        token = nextMeta();
+        if (token == LT) {
+          depth++;
+        } else if (token == GT) {
+          depth--;
+        }
+      } while (depth > 0);
+      return false;
+    }
+    if (token == QUEST) {
+      skipPast("?>");
+      return false;
+    }
+    if (token == SLASH) {
+      token = nextToken();
+      if (name == null) {
+        throw syntaxError("Mismatched close tag " + token);
+      }
+      if (!token.equals(name)) {
+        throw syntaxError("Mismatched " + name + " and " + token);
+      }
+      if (nextToken() != GT) {
+        throw syntaxError("Misshaped close tag");
+      }
+      return true;
+    }
+    if (token instanceof Character) {
+      throw syntaxError("Misshaped tag");
+    }
+
+    String tagName = (String) token;
+    Element element = new Element();
+    token = null;
+    while (true) {
+      if (token == null) {
+        token = nextToken();
+      }
+      if (!(token instanceof String)) {
+        break;
+      }
+      String attribute = (String) token;
+      token = nextToken();
+      if (token == EQ) {
+        token = nextToken();
+        if (!(token instanceof String)) {
+          throw syntaxError("Missing value");
+        }
+        element.accumulate(attribute, value((String) token));
+        token = null;
+      } else {
+        element.accumulate(attribute, new JsonPrimitive(""));
+      }
+    }
+
+    if (token == SLASH) {
+      if (nextToken() != GT) {
+        throw syntaxError("Misshaped tag");
+      }
+      context.accumulate(tagName, element.isEmpty() ? new JsonPrimitive("") : element.toJson());
+      return false;
+    }
+    if (token != GT) {
+      throw syntaxError("Misshaped tag");
+    }
+    while (true) {
+      token = nextContent();
+      if (token == null) {
+        throw syntaxError("Unclosed tag " + tagName);
+      }
+      if (token instanceof String) {
+        String text = (String) token;
+        if (!text.isEmpty()) {
+          element.accumulate(CONTENT, value(text));
+        }
+      } else if (parse(element, tagName)) {
+        break;
+      }
+    }
+    if (element.isEmpty()) {
+      context.accumulate(tagName, new JsonPrimitive(""));
+    } else if (element.size() == 1 && element.get(CONTENT) != null) {
+      context.accumulate(tagName, element.get(CONTENT));
+    } else {
+      context.accumulate(tagName, element.toJson());
+    }
+    return false;
+  }
+
+  private JsonElement value(String text) {
+    if (keepStrings) {
+      return new JsonPrimitive(text);
+    }
+    Object value = XML.stringToValue(text);
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    }
+    if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    }
+    if (value instanceof Number) {
+      // Numbers are kept as the text org.json writes them in, like Gson does when parsing JSON. Gson reads
+      // integral numbers as longs, which turns a negative zero into zero.
+      String number = JSONObject.numberToString((Number) value);
+      return new JsonPrimitive(new LazilyParsedNumber("-0".equals(number) ? "0" : number));
+    }
+    return JsonNull.INSTANCE;
+  }
+
+  private boolean more() {
+    return pos < xml.length() && xml.charAt(pos) != 0;
+  }
+
+  /**
+   * @return the next character, or 0 at the end of the document.
+   */
+  private char next() {
+    if (pos >= xml.length()) {
+      consumed = false;
+      return 0;
+    }
+    consumed = true;
+    return xml.charAt(pos++);
+  }
+
+  private void back() {
+    if (consumed) {
+      pos--;
+      consumed = false;
+    }
+  }
+
+  private void skipPast(String to) {
+    int index = xml.indexOf(to, pos);
+    pos = index < 0 ? xml.length() : index + to.length();
+  }
+
+  private String nextCDATA() throws JSONException {
+    int end = xml.indexOf("]]>", pos);
+    if (end < 0) {
+      pos = xml.length();
+      throw syntaxError("Unclosed CDATA");
+    }
+    String cdata = xml.substring(pos, end);
+    pos = end + 3;
+    return cdata;
+  }
+
+  /**
+   * @return the text up to the next markup, trimmed, {@link #LT} if markup comes first, or null at the end of
+   * the document.
+   */
+  @Nullable
+  private Object nextContent() throws JSONException {
+    char c;
+    do {
+      c = next();
+    } while (Character.isWhitespace(c));
+    if (c == 0) {
+      return null;
+    }
+    if (c == '<') {
+      return LT;
+    }
+    buffer.setLength(0);
+    while (c != 0) {
+      if (c == '<') {
+        back();
+        break;
+      }
+      if (c == '&') {
+        appendEntity(buffer);
+      } else {
+        buffer.append(c);
+      }
+      c = next();
+    }
+    int start = 0;
+    int end = buffer.length();
+    while (start < end && buffer.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && buffer.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return buffer.substring(start, end);
+  }
+
+  private void appendEntity(StringBuilder target) throws JSONException {
+    entity.setLength(0);
+    char c;
+    while (Character.isLetterOrDigit(c = next()) || c == '#') {
+      entity.append(Character.toLowerCase(c));
+    }
+    if (c != ';') {
+      throw syntaxError("Missing ';' in XML entity: &" + entity);
+    }
+    if (entity.length() == 0) {
+      return;
+    }
+    if (entity.charAt(0) == '#') {
+      try {
+        target.appendCodePoint(entity.length() > 1 && entity.charAt(1) == 'x'
+                                 ? Integer.parseInt(entity.substring(2), 16)
+                                 : Integer.parseInt(entity.substring(1)));
+      } catch (IllegalArgumentException e) {
+        throw syntaxError("Invalid character reference in XML entity: &" + entity + ";");
+      }
+      return;
+    }
+    String name = entity.toString();
+    switch (name) {
+      case "amp":
+        target.append('&');
+        break;
+      case "apos":
+        target.append('\'');
+        break;
+      case "gt":
+        target.append('>');
+        break;
+      case "lt":
+        target.append('<');
+        break;
+      case "quot":
+        target.append('"');
+        break;
+      default:
+        target.append('&').append(name).append(';');
+    }
+  }
+
+  /**
+   * @return the next token within a tag: a name or quoted string, or one of the characters '>', '/', '=', '!'
+   * and '?'.
+   */
+  private Object nextToken() throws JSONException {
+    char c;
+    do {
+      c = next();
+    } while (Character.isWhitespace(c));
+    switch (c) {
+      case 0:
+        throw syntaxError("Misshaped element");
+      case '<':
+        throw syntaxError("Misplaced '<'");
+      case '>':
+        return GT;
+      case '/':
+        return SLASH;
+      case '=':
+        return EQ;
+      case '!':
+        return BANG;
+      case '?':
+        return QUEST;
+      case '"':
+      case '\'':
+        return nextString(c);
+      default:
+        int start = pos - 1;
+        while (true) {
+          c = next();
+          if (c == 0 || Character.isWhitespace(c)) {
+            return xml.substring(start, consumed ? pos - 1 : pos);
+          }
+          switch (c) {
+            case '!':
+            case '/':
+            case '=':
+            case '>':
+            case '?':
+            case '[':
+            case ']':
+              back();
+              return xml.substring(start, pos);
+            case '"':
+            case '\'':
+            case '<':
+              throw syntaxError("Bad character in a name");
+            default:
+          }
+        }
+    }
+  }
+
+  private String nextString(char quote) throws JSONException {
+    buffer.setLength(0);
+    while (true) {
+      char c = next();
+      if (c == 0) {
+        throw syntaxError("Unterminated string");
+      }
+      if (c == quote) {
+        return buffer.toString();
+      }
+      if (c == '&') {
+        appendEntity(buffer);
+      } else {
+        buffer.append(c);
+      }
+    }
+  }
+
+  /**
+   * @return the next token within a declaration, where only the characters '<' and '>' matter.
+   */
+  private Object nextMeta() throws JSONException {
+    char c;
+    do {
+      c = next();
+    } while (Character.isWhitespace(c));
+    switch (c) {
+      case 0:
+        throw syntaxError("Misshaped meta tag");
+      case '<':
+        return LT;
+      case '>':
+        return GT;
+      case '/':
+        return SLASH;
+      case '=':
+        return EQ;
+      case '!':
+        return BANG;
+      case '?':
+        return QUEST;
+      case '"':
+      case '\'':
+        char quote = c;
+        do {
+          c = next();
+          if (c == 0) {
+            throw syntaxError("Unterminated string");
+          }
+        } while (c != quote);
+        return Boolean.TRUE;
+      default:
+        while (!Character.isWhitespace(c = next())) {
+          switch (c) {
+            case 0:
+            case '!':
+            case '"':
+            case '\'':
+            case '/':
+            case '<':
+            case '=':
+            case '>':
+            case '?':
+              back();
+              return Boolean.TRUE;
+            default:
+          }
+        }
+        return Boolean.TRUE;
+    }
+  }
+
+  /**
+   * Creates an exception with the position in the document, in the format of org.json.
+   */
+  private JSONException syntaxError(String message) {
+    long character = 1;
+    long characterPreviousLine = 0;
+    long line = 1;
+    char previous = 0;
+    for (int i = 0; i < pos; i++) {
+      char c = xml.charAt(i);
+      if (c == '\r') {
+        line++;
+        characterPreviousLine = character;
+        character = 0;
+      } else if (c == '\n') {
+        if (previous != '\r') {
+          line++;
+          characterPreviousLine = character;
+        }
+        character = 0;
+      } else {
+        character++;
+      }
+      previous = c;
+    }
+    return new JSONException(String.format("%s at %d [character %d line %d]", message, pos, character, line));
+  }
+
+  /**
+   * Fields of an element being parsed, in insertion order. Elements have few fields, so they are kept in arrays
+   * and only indexed by name once there are many.
+   */
+  private static final class Element {
+    private static final int INDEX_THRESHOLD = 8;
+
+    private String[] keys;
+    private JsonElement[] values;
+    private int size;
+    private Map<String, Integer> index;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    @Nullable
+    JsonElement get(String key) {
+      int i = indexOf(key);
+      return i < 0 ? null : values[i];
+    }
+
+    /**
+     * Adds the value to the field, turning the field into an array if it already has a value.
+     */
+    void accumulate(String key, JsonElement value) {
+      int i = indexOf(key);
+      if (i < 0) {
+        if (value.isJsonArray()) {
+          JsonArray array = new JsonArray();
+          array.add(value);
+          value = array;
+        }
+        add(key, value);
+      } else if (values[i].isJsonArray()) {
+        values[i].getAsJsonArray().add(value);
+      } else {
+        JsonArray array = new JsonArray();
+        array.add(values[i]);
+        array.add(value);
+        values[i] = array;
+      }
+    }
+
+    private int indexOf(String key) {
+      if (index != null) {
+        Integer i = index.get(key);
+        return i == null ? -1 : i;
+      }
+      for (int i = 0; i < size; i++) {
+        if (keys[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void add(String key, JsonElement value) {
+      if (keys == null) {
+        keys = new String[2];
+        values = new JsonElement[2];
+      } else if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      keys[size] = key;
+      values[size] = value;
+      if (index != null) {
+        index.put(key, size);
+      } else if (size == INDEX_THRESHOLD) {
+        index = new HashMap<>();
+        for (int i = 0; i <= size; i++) {
+          index.put(keys[i], i);
+        }
+      }
+      size++;
+    }
+
+    /**
+     * @return the fields as an object, in the iteration order of a {@link HashMap} holding them.
+     */
+    JsonObject toJson() {
+      JsonObject object = new JsonObject();
+      if (size < 2) {
+        for (int i = 0; i < size; i++) {
+          object.add(keys[i], values[i]);
+        }
+        return object;
+      }
+      int capacity = 16;
+      while (size > capacity / 4 * 3) {
+        capacity <<= 1;
+      }
+      // Sorts by bucket, keeping the insertion order within a bucket.
+      long[] order = new long[size];
+      for (int i = 0; i < size; i++) {
+        int hash = keys[i].hashCode();
+        order[i] = ((long) ((hash ^ (hash >>> 16)) & (capacity - 1)) << 32) | i;
+      }
+      Arrays.sort(order);
+      for (long entry : order) {
+        object.add(keys[(int) entry], values[(int) entry]);
+      }
+      return object;
+    }
+  }
+}
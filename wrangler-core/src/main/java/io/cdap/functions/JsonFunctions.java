@@ -22,7 +22,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import com.jayway.jsonpath.Configuration;
@@ -31,6 +30,7 @@ import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.GsonJsonProvider;
 import com.jayway.jsonpath.spi.mapper.GsonMappingProvider;
+import io.cdap.wrangler.utils.JsonDocumentCache;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -51,7 +51,6 @@ public final class JsonFunctions {
     .options(Option.SUPPRESS_EXCEPTIONS)
     .build();
 
-  private static final JsonParser PARSER = new JsonParser();
   private static final Gson GSON = new GsonBuilder().serializeNulls().create();
 
   private JsonFunctions() {
@@ -59,13 +58,13 @@ public final class JsonFunctions {
 
   @Deprecated
   public static JsonElement select(String json, String path, String ...paths) {
-    JsonElement element = PARSER.parse(json);
+    JsonElement element = JsonDocumentCache.parse(json);
     return select(element, path, paths);
   }
 
   @Deprecated
   public static JsonElement select(String json, boolean toLower, String path, String ...paths) {
-    JsonElement element = PARSER.parse(json);
+    JsonElement element = JsonDocumentCache.parse(json);
     return select(element, toLower, path, paths);
   }
 
@@ -94,7 +93,7 @@ public final class JsonFunctions {
 
   @Deprecated
   public static JsonElement drop(String json, String field, String ... fields) {
-    JsonElement element = PARSER.parse(json);
+    JsonElement element = JsonDocumentCache.parseCopy(json);
     return drop(element, field, fields);
   }
 
@@ -220,11 +219,10 @@ public final class JsonFunctions {
    */
   @Deprecated
   public static JsonElement parse(String json, boolean toLower) {
-    JsonElement element = PARSER.parse(json);
     if (toLower) {
-      element = keysToLower(element);
+      return keysToLower(JsonDocumentCache.parse(json));
     }
-    return element;
+    return JsonDocumentCache.parseCopy(json);
   }
 
   /**
@@ -235,8 +233,7 @@ public final class JsonFunctions {
    */
   public static JsonElement Parse(String json) {
     try {
-      JsonElement element = PARSER.parse(json);
-      return element;
+      return JsonDocumentCache.parseCopy(json);
     } catch (JsonSyntaxException e) {
       return JsonNull.INSTANCE;
     }
@@ -250,7 +247,7 @@ public final class JsonFunctions {
    */
   public static boolean IsValid(String json) {
     try {
-      PARSER.parse(json);
+      JsonDocumentCache.parse(json);
       return true;
     } catch (JsonSyntaxException e) {
       return false;
@@ -0,0 +1,370 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.codec;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import io.cdap.wrangler.api.Row;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Plan for decoding the protobuf messages of a descriptor straight from the wire into {@link Row} columns.
+ *
+ * <p>A plan maps field numbers to slots and computes the column name of every field once. Decoding reads the
+ * fields of a message into the slots of a value array, with the same rules as {@link DynamicMessage}: a
+ * singular field keeps its last value, singular messages are merged, setting a member of a oneof clears the
+ * others, and proto3 scalars set to their default are absent. The values are then added to the row in field
+ * number order, as {@link DynamicMessage#getAllFields()} lists them, with the fields of nested messages added
+ * as columns prefixed by the name of their field.</p>
+ *
+ * <p>Plans of nested messages are created when first used, so that recursive messages are supported. Plans
+ * can be shared by threads.</p>
+ */
+final class DescriptorPlan {
+  // Same nesting limit as CodedInputStream applies when parsing messages.
+  private static final int RECURSION_LIMIT = 100;
+  // Field numbers up to this one are looked up in an array, larger ones in a map.
+  private static final int MAX_INDEXED_NUMBER = 1024;
+
+  // Fields in field number order, each indexed by its slot.
+  private final FieldPlan[] fields;
+  private final FieldPlan[] byNumber;
+  private final Map<Integer, FieldPlan> byLargeNumber = new HashMap<>();
+  // Entries of map fields start with the default key and value, as DynamicMessage creates them.
+  private final boolean mapEntry;
+
+  /**
+   * @param descriptor of the messages to decode.
+   * @param prefix of the column names, or null for top level messages.
+   */
+  DescriptorPlan(Descriptors.Descriptor descriptor, @Nullable String prefix) {
+    List<Descriptors.FieldDescriptor> descriptors = new ArrayList<>(descriptor.getFields());
+    descriptors.sort(Comparator.comparingInt(Descriptors.FieldDescriptor::getNumber));
+    this.mapEntry = descriptor.getOptions().getMapEntry();
+    this.fields = new FieldPlan[descriptors.size()];
+    for (int slot = 0; slot < fields.length; slot++) {
+      Descriptors.FieldDescriptor field = descriptors.get(slot);
+      String column = prefix == null ? field.getName() : prefix + "_" + field.getName();
+      fields[slot] = new FieldPlan(field, slot, column.intern());
+    }
+
+    int largest = 0;
+    for (FieldPlan field : fields) {
+      if (field.number <= MAX_INDEXED_NUMBER) {
+        largest = Math.max(largest, field.number);
+      } else {
+        byLargeNumber.put(field.number, field);
+      }
+    }
+    this.byNumber = new FieldPlan[largest + 1];
+    for (FieldPlan field : fields) {
+      if (field.number <= MAX_INDEXED_NUMBER) {
+        byNumber[field.number] = field;
+      }
+      if (field.descriptor.getContainingOneof() != null) {
+        field.siblings = siblings(field.descriptor.getContainingOneof(), field);
+      }
+    }
+  }
+
+  /**
+   * Decodes a message and adds its fields to the row.
+   *
+   * @param bytes of the message.
+   * @param row to add the fields to.
+   * @throws InvalidProtocolBufferException if the bytes are not a valid message.
+   * @throws DecoderException if required fields are missing.
+   */
+  void decode(byte[] bytes, Row row) throws IOException, DecoderException {
+    CodedInputStream input = CodedInputStream.newInstance(bytes);
+    Object[] values = newValues();
+    merge(input, values, 0);
+    input.checkLastTagWas(0);
+    add(values, row);
+  }
+
+  private Object[] newValues() {
+    Object[] values = new Object[fields.length];
+    if (mapEntry) {
+      for (FieldPlan field : fields) {
+        if (field.type != Descriptors.FieldDescriptor.Type.MESSAGE) {
+          values[field.slot] = field.descriptor.getDefaultValue();
+        }
+      }
+    }
+    return values;
+  }
+
+  private int[] siblings(Descriptors.OneofDescriptor oneof, FieldPlan member) {
+    int[] slots = new int[oneof.getFieldCount() - 1];
+    int count = 0;
+    for (FieldPlan field : fields) {
+      if (field != member && field.descriptor.getContainingOneof() == oneof) {
+        slots[count++] = field.slot;
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * Reads fields into the values until the end of the message or group.
+   */
+  private void merge(CodedInputStream input, Object[] values, int depth) throws IOException {
+    while (true) {
+      int tag = input.readTag();
+      if (tag == 0) {
+        return;
+      }
+      int number = WireFormat.getTagFieldNumber(tag);
+      FieldPlan field = number < byNumber.length ? byNumber[number] : byLargeNumber.get(number);
+      if (field == null || !field.read(input, WireFormat.getTagWireType(tag), values, depth)) {
+        // Unknown fields and fields with an unexpected wire type are skipped, as are their values.
+        if (!input.skipField(tag)) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the values to the row, flattening nested messages.
+   */
+  private void add(Object[] values, Row row) throws DecoderException {
+    for (FieldPlan field : fields) {
+      Object value = values[field.slot];
+      if (value != null) {
+        field.add(value, row);
+      } else if (field.descriptor.isRequired()) {
+        throw new DecoderException(String.format("Message missing required field '%s'.", field.column));
+      }
+    }
+  }
+
+  /**
+   * Decoding plan of a single field.
+   */
+  private static final class FieldPlan {
+    private final Descriptors.FieldDescriptor descriptor;
+    private final Descriptors.FieldDescriptor.Type type;
+    private final int number;
+    private final int slot;
+    private final String column;
+    private final int wireType;
+    // Packable fields are repeated scalars, that can also be written packed in a length delimited record.
+    private final boolean packable;
+    // Proto3 scalars without presence are absent when set to their default.
+    private final boolean absentWhenDefault;
+    // Slots of the other members of the oneof of the field, if any.
+    private int[] siblings = new int[0];
+    // Plan of the messages of the field, created when first used.
+    private volatile DescriptorPlan message;
+
+    private FieldPlan(Descriptors.FieldDescriptor descriptor, int slot, String column) {
+      this.descriptor = descriptor;
+      this.type = descriptor.getType();
+      this.number = descriptor.getNumber();
+      this.slot = slot;
+      this.column = column;
+      this.wireType = descriptor.getLiteType().getWireType();
+      this.packable = descriptor.isRepeated() && wireType != WireFormat.WIRETYPE_LENGTH_DELIMITED
+        && wireType != WireFormat.WIRETYPE_START_GROUP;
+      this.absentWhenDefault = descriptor.getFile().getSyntax() == Descriptors.FileDescriptor.Syntax.PROTO3
+        && !descriptor.isRepeated() && descriptor.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE
+        && descriptor.getContainingOneof() == null;
+    }
+
+    /**
+     * Reads a value of the field.
+     *
+     * @return false if the value has an unexpected wire type and was not read.
+     */
+    boolean read(CodedInputStream input, int wireType, Object[] values, int depth) throws IOException {
+      if (wireType == this.wireType) {
+        if (type == Descriptors.FieldDescriptor.Type.MESSAGE || type == Descriptors.FieldDescriptor.Type.GROUP) {
+          readMessage(input, values, depth);
+        } else {
+          set(values, readValue(input));
+        }
+        return true;
+      }
+      if (packable && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+        int limit = input.pushLimit(input.readRawVarint32());
+        while (input.getBytesUntilLimit() > 0) {
+          set(values, readValue(input));
+        }
+        input.popLimit(limit);
+        return true;
+      }
+      return false;
+    }
+
+    private void readMessage(CodedInputStream input, Object[] values, int depth) throws IOException {
+      if (depth >= RECURSION_LIMIT) {
+        throw new InvalidProtocolBufferException("Protocol message had too many levels of nesting.");
+      }
+      DescriptorPlan plan = message();
+      Object[] nested;
+      if (descriptor.isRepeated()) {
+        nested = plan.newValues();
+        list(values).add(nested);
+      } else {
+        clearSiblings(values);
+        nested = (Object[]) values[slot];
+        if (nested == null) {
+          nested = plan.newValues();
+          values[slot] = nested;
+        }
+      }
+
+      if (type == Descriptors.FieldDescriptor.Type.GROUP) {
+        plan.merge(input, nested, depth + 1);
+        input.checkLastTagWas((number << 3) | WireFormat.WIRETYPE_END_GROUP);
+      } else {
+        int limit = input.pushLimit(input.readRawVarint32());
+        plan.merge(input, nested, depth + 1);
+        input.checkLastTagWas(0);
+        input.popLimit(limit);
+      }
+    }
+
+    /**
+     * @return the value read, or null for proto2 enum numbers that are not defined.
+     */
+    @Nullable
+    private Object readValue(CodedInputStream input) throws IOException {
+      switch (type) {
+        case DOUBLE:
+          return input.readDouble();
+        case FLOAT:
+          return input.readFloat();
+        case INT64:
+          return input.readInt64();
+        case UINT64:
+          return input.readUInt64();
+        case INT32:
+          return input.readInt32();
+        case FIXED64:
+          return input.readFixed64();
+        case FIXED32:
+          return input.readFixed32();
+        case BOOL:
+          return input.readBool();
+        case STRING:
+          return descriptor.needsUtf8Check() ? input.readStringRequireUtf8() : input.readString();
+        case BYTES:
+          return input.readBytes();
+        case UINT32:
+          return input.readUInt32();
+        case SFIXED32:
+          return input.readSFixed32();
+        case SFIXED64:
+          return input.readSFixed64();
+        case SINT32:
+          return input.readSInt32();
+        case SINT64:
+          return input.readSInt64();
+        case ENUM:
+          int value = input.readEnum();
+          if (descriptor.getFile().getSyntax() == Descriptors.FileDescriptor.Syntax.PROTO3) {
+            return descriptor.getEnumType().findValueByNumberCreatingIfUnknown(value);
+          }
+          return descriptor.getEnumType().findValueByNumber(value);
+        default:
+          throw new IllegalStateException("Unexpected protobuf field type " + type);
+      }
+    }
+
+    private void set(Object[] values, @Nullable Object value) {
+      if (value == null) {
+        return;
+      }
+      if (descriptor.isRepeated()) {
+        list(values).add(value);
+        return;
+      }
+      clearSiblings(values);
+      values[slot] = absentWhenDefault && value.equals(descriptor.getDefaultValue()) ? null : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> list(Object[] values) {
+      List<Object> list = (List<Object>) values[slot];
+      if (list == null) {
+        list = new ArrayList<>();
+        values[slot] = list;
+      }
+      return list;
+    }
+
+    private void clearSiblings(Object[] values) {
+      for (int sibling : siblings) {
+        values[sibling] = null;
+      }
+    }
+
+    private DescriptorPlan message() {
+      DescriptorPlan plan = message;
+      if (plan == null) {
+        // Plans are immutable, so that threads creating one at the same time may keep either.
+        plan = new DescriptorPlan(descriptor.getMessageType(), column);
+        message = plan;
+      }
+      return plan;
+    }
+
+    void add(Object value, Row row) throws DecoderException {
+      switch (type) {
+        case MESSAGE:
+        case GROUP:
+          if (descriptor.isRepeated()) {
+            for (Object nested : (List<?>) value) {
+              message().add((Object[]) nested, row);
+            }
+          } else {
+            message().add((Object[]) value, row);
+          }
+          break;
+
+        case ENUM:
+          if (descriptor.isRepeated()) {
+            List<String> names = new ArrayList<>();
+            for (Object enumValue : (List<?>) value) {
+              names.add(((Descriptors.EnumValueDescriptor) enumValue).getName());
+            }
+            row.add(column, names);
+          } else {
+            row.add(column, ((Descriptors.EnumValueDescriptor) value).getName());
+          }
+          break;
+
+        default:
+          row.add(column, value);
+          break;
+      }
+    }
+  }
+}
@@ -16,75 +16,50 @@
 
 package io.cdap.wrangler.codec;
 
-import com.google.gson.Gson;
 import com.google.protobuf.DescriptorProtos;
 import com.google.protobuf.Descriptors;
-import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
-import com.google.protobuf.Message;
 import io.cdap.wrangler.api.Row;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This class {@link ProtobufDecoderUsingDescriptor} decodes a byte array of Protobuf
  * Records into the {@link Row} structure.
+ *
+ * <p>Records are decoded straight from the wire by a {@link DescriptorPlan} prepared once for the
+ * descriptor, without building a {@link com.google.protobuf.DynamicMessage}. Decoders can be shared
+ * by threads.</p>
  */
 public class ProtobufDecoderUsingDescriptor implements Decoder<Row> {
-  private final Gson gson;
-  private final Descriptors.Descriptor descriptor;
-
+  private final DescriptorPlan plan;
 
   public ProtobufDecoderUsingDescriptor(byte[] bytes, String name)
     throws InvalidProtocolBufferException, Descriptors.DescriptorValidationException {
-    this.gson = new Gson();
     DescriptorProtos.FileDescriptorSet fileDescriptorSet = DescriptorProtos.FileDescriptorSet.parseFrom(bytes);
     DescriptorProtos.FileDescriptorProto fileProto = fileDescriptorSet.getFile(0);
     Descriptors.FileDescriptor fileDescriptor =
       Descriptors.FileDescriptor.buildFrom(fileProto, new Descriptors.FileDescriptor[0]);
-    descriptor = fileDescriptor.findMessageTypeByName(name);
+    Descriptors.Descriptor descriptor = fileDescriptor.findMessageTypeByName(name);
+    if (descriptor == null) {
+      throw new IllegalArgumentException(
+        String.format("Message type '%s' is not defined in the protobuf descriptor.", name));
+    }
+    plan = new DescriptorPlan(descriptor, null);
   }
 
   @Override
   public List<Row> decode(byte[] bytes) throws DecoderException {
     List<Row> rows = new ArrayList<>();
     try {
-      DynamicMessage message = DynamicMessage.parseFrom(descriptor, bytes);
       Row row = new Row();
-      decodeMessage(message, row, null);
+      plan.decode(bytes, row);
       rows.add(row);
-    } catch (InvalidProtocolBufferException e) {
+    } catch (IOException e) {
       throw new DecoderException(e.getMessage());
     }
     return rows;
   }
-
-  private void decodeMessage(Message message, Row row, String root) {
-    for (Map.Entry<Descriptors.FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
-      String name = field.getKey().getName();
-      String fullName = String.format("%s", name);
-      if (root != null) {
-        fullName = String.format("%s_%s", root, name);
-      }
-      Descriptors.FieldDescriptor.Type type = field.getKey().getType();
-      Object value = field.getValue();
-      switch(type) {
-        case MESSAGE:
-          for (Message msg : (List<Message>) value) {
-            decodeMessage(msg, row, fullName);
-          }
-          break;
-
-        case ENUM:
-          row.add(fullName, ((Descriptors.EnumValueDescriptor) value).getName());
-          break;
-
-        default:
-          row.add(fullName, value);
-          break;
-      }
-    }
-  }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import com.google.common.collect.ImmutableSet;
+import io.cdap.directives.column.ChangeColCaseNames;
+import io.cdap.directives.column.CleanseColumnNames;
+import io.cdap.directives.column.ColumnsReplace;
+import io.cdap.directives.column.Copy;
+import io.cdap.directives.column.Drop;
+import io.cdap.directives.column.Keep;
+import io.cdap.directives.column.Merge;
+import io.cdap.directives.column.Rename;
+import io.cdap.directives.column.SetType;
+import io.cdap.directives.column.SplitToColumns;
+import io.cdap.directives.column.Swap;
+import io.cdap.directives.currency.FormatAsCurrency;
+import io.cdap.directives.currency.ParseAsCurrency;
+import io.cdap.directives.date.DiffDate;
+import io.cdap.directives.date.FormatDate;
+import io.cdap.directives.datetime.DateTimeToTimeStamp;
+import io.cdap.directives.datetime.FormatDateTime;
+import io.cdap.directives.datetime.TimestampToDateTime;
+import io.cdap.directives.external.InvokeHttp;
+import io.cdap.directives.lookup.CatalogLookup;
+import io.cdap.directives.parser.JsParser;
+import io.cdap.directives.parser.JsPath;
+import io.cdap.directives.parser.ParseDateTime;
+import io.cdap.directives.parser.ParseSimpleDate;
+import io.cdap.directives.parser.ParseTimestamp;
+import io.cdap.directives.row.Flatten;
+import io.cdap.directives.row.RecordMissingOrNullFilter;
+import io.cdap.directives.row.SplitToRows;
+import io.cdap.directives.transformation.CharacterCut;
+import io.cdap.directives.transformation.Decode;
+import io.cdap.directives.transformation.Encode;
+import io.cdap.directives.transformation.FillNullOrEmpty;
+import io.cdap.directives.transformation.GenerateUUID;
+import io.cdap.directives.transformation.IndexSplit;
+import io.cdap.directives.transformation.MaskNumber;
+import io.cdap.directives.transformation.MaskShuffle;
+import io.cdap.directives.transformation.MessageHash;
+import io.cdap.directives.transformation.Quantization;
+import io.cdap.directives.transformation.SplitEmail;
+import io.cdap.directives.transformation.SplitURL;
+import io.cdap.directives.transformation.TextDistanceMeasure;
+import io.cdap.directives.transformation.TextMetricMeasure;
+import io.cdap.directives.transformation.UrlDecode;
+import io.cdap.directives.transformation.UrlEncode;
+import io.cdap.directives.xml.XmlToJson;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.optimizer.StringTransform;
+
+import java.util.Set;
+
+/**
+ * Traits of directives that decide how they can be scheduled by an executor.
+ */
+public final class DirectiveTraits {
+  // System directives that keep no state across rows and don't read the context when executing. Directives that
+  // select their regex engine from the properties of the context, such as find-and-replace, are left out.
+  private static final Set<Class<? extends Directive>> ROW_INDEPENDENT =
+    ImmutableSet.<Class<? extends Directive>>builder()
+      .add(MessageHash.class, Encode.class, Decode.class, UrlEncode.class, UrlDecode.class, FillNullOrEmpty.class)
+      .add(MaskNumber.class, MaskShuffle.class, CharacterCut.class, Quantization.class)
+      .add(SplitEmail.class, SplitURL.class, GenerateUUID.class)
+      .add(IndexSplit.class, TextDistanceMeasure.class, TextMetricMeasure.class)
+      .add(Rename.class, Copy.class, Drop.class, Swap.class, Merge.class, SetType.class, SplitToColumns.class)
+      .add(Keep.class, CleanseColumnNames.class, ChangeColCaseNames.class, ColumnsReplace.class)
+      .add(JsParser.class, JsPath.class, XmlToJson.class)
+      .add(ParseSimpleDate.class, ParseTimestamp.class, ParseDateTime.class)
+      .add(FormatDate.class, DiffDate.class, FormatDateTime.class, DateTimeToTimeStamp.class, TimestampToDateTime.class)
+      .add(ParseAsCurrency.class, FormatAsCurrency.class, CatalogLookup.class, InvokeHttp.class)
+      .add(Flatten.class, SplitToRows.class, RecordMissingOrNullFilter.class)
+      .build();
+
+  /**
+   * Checks whether the directive processes every row on its own, independently of the rows processed before
+   * it, and without reading the {@link io.cdap.wrangler.api.ExecutorContext} it is executed with. Such
+   * directives can run on a different thread than the other directives of the recipe, and separate instances
+   * of them, executed with separate contexts, can process separate parts of the input.
+   *
+   * @param directive to check.
+   * @return true if the directive is known to be row independent, false if it is not or not known.
+   */
+  public static boolean isRowIndependent(Directive directive) {
+    return directive instanceof StringTransform || ROW_INDEPENDENT.contains(directive.getClass());
+  }
+
+  private DirectiveTraits() {
+    // no-op
+  }
+}
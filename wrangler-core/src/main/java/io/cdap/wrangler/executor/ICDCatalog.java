@@ -23,8 +23,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
 
 /**
  * Class for loading and managing ICD codes.
@@ -33,14 +39,22 @@ import java.util.Map;
  *   icd10cm_code_2016.txt contains all ICD-10-CM (diagnosis) codes valid for FY2016.
  *   icd9cm_code_2015.txt contains ICD-9-CM (diagnosis) codes valid till FY2015
  * </p>
+ * <p>
+ *   Every catalog is loaded once per class loader, the first time it is configured, and is shared by all the
+ *   instances afterwards. Codes are kept in a sorted array with the descriptions in a parallel array, so looking up
+ *   a description is a binary search that does not allocate.
+ * </p>
  */
 public final class ICDCatalog implements StaticCatalog {
 
+  // Catalogs loaded so far, by name.
+  private static final ConcurrentMap<String, Codes> CATALOGS = new ConcurrentHashMap<>();
+
   // Type of ICD code 9 or 10 {2016,2017}.
   private final String name;
 
-  // Map to store mapping from code to description.
-  private Map<String, ICDCode> lookupTable = new HashMap<>();
+  // Codes of the catalog, shared with all the other instances of the same catalog.
+  private transient Codes codes;
 
   /**
    * Single ICD entry
@@ -67,29 +81,18 @@ public final class ICDCatalog implements StaticCatalog {
   }
 
   /**
-   * Configures the ICD StaticCatalog by loading the appropriate stream.
+   * Configures the ICD StaticCatalog by loading the appropriate stream, unless the catalog was already loaded.
    *
    * @return true if successfully configured, else false.
    */
   @Override
   public boolean configure() {
-    String filename = String.format("%s_cm_codes.txt", name);
-    InputStream in = ICDCatalog.class.getClassLoader().getResourceAsStream(filename);
-    if (in == null) {
-      return false;
-    }
-    InputStreamReader isr = new InputStreamReader(in);
-    try (BufferedReader reader = new BufferedReader(isr)) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        String code = line.substring(0, 7).trim();
-        String description = line.substring(8).trim();
-        lookupTable.put(code, new ICDCode(description));
-      }
-    } catch (IOException e) {
+    try {
+      codes = CATALOGS.computeIfAbsent(name, ICDCatalog::load);
+    } catch (UncheckedIOException e) {
       return false;
     }
-    return true;
+    return codes != null;
   }
 
   /**
@@ -100,7 +103,23 @@ public final class ICDCatalog implements StaticCatalog {
    */
   @Override
   public StaticCatalog.Entry lookup(String code)  {
-    return lookupTable.get(code);
+    String description = getDescription(code);
+    return description == null ? null : new ICDCode(description);
+  }
+
+  /**
+   * Looks up the description of a ICD Code in the catalog, without creating an entry.
+   *
+   * @param code to be looked up.
+   * @return description of the code if found, else null.
+   */
+  @Nullable
+  public String getDescription(String code) {
+    if (codes == null && !configure()) {
+      return null;
+    }
+    int index = Arrays.binarySearch(codes.codes, code);
+    return index < 0 ? null : codes.descriptions[index];
   }
 
   /**
@@ -110,4 +129,50 @@ public final class ICDCatalog implements StaticCatalog {
   public String getCatalog() {
     return name;
   }
+
+  /**
+   * Reads the codes of the catalog from its resource.
+   *
+   * @return the codes, or null if there is no resource for the catalog.
+   */
+  @Nullable
+  private static Codes load(String name) {
+    String filename = String.format("%s_cm_codes.txt", name);
+    InputStream in = ICDCatalog.class.getClassLoader().getResourceAsStream(filename);
+    if (in == null) {
+      return null;
+    }
+    // Sorts the codes while reading them, the last description of a code repeated in the file wins.
+    Map<String, String> sorted = new TreeMap<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // Codes are padded to a fixed width that differs between the ICD-9 and ICD-10 files, and have no spaces.
+        line = line.trim();
+        int end = 0;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+          end++;
+        }
+        if (end > 0) {
+          sorted.put(line.substring(0, end), line.substring(end).trim());
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new Codes(sorted.keySet().toArray(new String[0]), sorted.values().toArray(new String[0]));
+  }
+
+  /**
+   * Sorted codes of a catalog and their descriptions.
+   */
+  private static final class Codes {
+    private final String[] codes;
+    private final String[] descriptions;
+
+    private Codes(String[] codes, String[] descriptions) {
+      this.codes = codes;
+      this.descriptions = descriptions;
+    }
+  }
 }
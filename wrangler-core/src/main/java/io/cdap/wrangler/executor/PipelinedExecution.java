@@ -0,0 +1,359 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.ErrorRecord;
+import io.cdap.wrangler.api.ErrorRowException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.ReportErrorAndProceed;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.api.UncheckedRecipeException;
+import io.cdap.wrangler.schema.DirectiveOutputSchemaGenerator;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Executes the directives of a recipe as a pipeline of stages, each stage running a contiguous range of
+ * directives on its own thread. Stages are connected by bounded queues, so that a slow stage applies
+ * backpressure on the stages before it. Rows are passed between the stages in batches, and the output is
+ * yielded in the order of the input.
+ *
+ * <p>Directives may depend on state shared through the {@link ExecutorContext}, such as transient variables
+ * which are reset for every input row. Only the directives known to be row independent, as defined by
+ * {@link DirectiveTraits}, are allowed to run in a stage other than the first one, every other directive is
+ * pinned to the first stage together with the directives before it.</p>
+ *
+ * <p>The input iterator is consumed by the thread of the first stage, not by the thread iterating over the
+ * output, so it must not depend on the thread it is called from. The stages run until the input is exhausted, a
+ * directive fails, or they are cancelled with {@link Stages#cancel()}. The stages only hold on to the output
+ * iterator weakly, so if it is abandoned before the input is exhausted, a stage waiting for room in a full queue
+ * stops once the iterator is garbage collected.</p>
+ */
+final class PipelinedExecution implements Iterator<Row> {
+  // Number of batches that can be waiting between two stages.
+  private static final int QUEUE_CAPACITY = 4;
+  // Interval at which a stage waiting for room in a queue checks whether it should stop.
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  private final Stages stages;
+  private final ErrorRecordCollector collector;
+  private final BlockingQueue<Batch> output;
+  private Iterator<Row> rows = Collections.emptyIterator();
+  private boolean finished;
+
+  /**
+   * A row of the input along with the rows produced from it so far.
+   */
+  private static final class Unit {
+    private final int index;
+    private final Row input;
+    private List<Row> rows;
+    private ErrorRecord error;
+
+    private Unit(int index, Row input) {
+      this.index = index;
+      this.input = input;
+    }
+  }
+
+  /**
+   * A batch of units passed between two stages. The last batch carries no unit, and the failure if any.
+   */
+  private static final class Batch {
+    private final List<Unit> units;
+    private final Throwable failure;
+
+    private Batch(List<Unit> units, @Nullable Throwable failure) {
+      this.units = units;
+      this.failure = failure;
+    }
+
+    private boolean isLast() {
+      return units.isEmpty();
+    }
+  }
+
+  /**
+   * Computes where the directives are split into stages.
+   *
+   * @param directives of the recipe.
+   * @param stages maximum number of stages.
+   * @return the index of the first directive of every stage but the first one, empty if the directives can't be
+   * split.
+   */
+  static List<Integer> split(List<Directive> directives, int stages) {
+    // Directives up to the last one that uses the context are pinned to the first stage.
+    int pinned = 0;
+    for (int i = 0; i < directives.size(); ++i) {
+      if (!DirectiveTraits.isRowIndependent(directives.get(i))) {
+        pinned = i + 1;
+      }
+    }
+    // The first stage runs the pinned directives, or a share of all the directives if none is pinned.
+    List<Integer> boundaries = new ArrayList<>();
+    if (pinned == 0) {
+      int count = Math.min(stages, directives.size());
+      for (int i = 1; i < count; ++i) {
+        boundaries.add((int) ((long) directives.size() * i / count));
+      }
+    } else {
+      int free = directives.size() - pinned;
+      int count = Math.min(stages - 1, free);
+      for (int i = 0; i < count; ++i) {
+        boundaries.add(pinned + (int) ((long) free * i / count));
+      }
+    }
+    return boundaries;
+  }
+
+  PipelinedExecution(List<Directive> directives, List<Integer> boundaries, Iterator<Row> input, int batchSize,
+                     @Nullable ExecutorContext context,
+                     @Nullable List<DirectiveOutputSchemaGenerator> outputSchemaGenerators,
+                     ErrorRecordCollector collector) {
+    this.collector = collector;
+    this.stages = new Stages(this, directives, context, outputSchemaGenerators);
+    this.output = stages.start(boundaries, input, batchSize);
+  }
+
+  /**
+   * @return the stages producing the output, to cancel them.
+   */
+  Stages getStages() {
+    return stages;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!rows.hasNext() && !finished) {
+      Batch batch;
+      try {
+        batch = output.take();
+      } catch (InterruptedException e) {
+        stages.cancel();
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the pipeline output", e);
+      }
+      if (batch.isLast()) {
+        finished = true;
+        if (batch.failure != null) {
+          stages.cancel();
+          throwFailure(batch.failure);
+        }
+        break;
+      }
+      List<Row> results = new ArrayList<>();
+      for (Unit unit : batch.units) {
+        if (unit.error != null) {
+          collector.add(unit.error);
+        } else {
+          results.addAll(unit.rows);
+        }
+      }
+      rows = results.iterator();
+    }
+    return rows.hasNext();
+  }
+
+  @Override
+  public Row next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return rows.next();
+  }
+
+  private static void throwFailure(Throwable failure) {
+    if (failure instanceof RecipeException) {
+      throw new UncheckedRecipeException((RecipeException) failure);
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    throw new IllegalStateException(failure);
+  }
+
+  /**
+   * The threads of the stages. They don't reference the {@link PipelinedExecution} consuming their output, so that
+   * it can be garbage collected when it is abandoned.
+   */
+  static final class Stages {
+    private final WeakReference<PipelinedExecution> owner;
+    private final List<Directive> directives;
+    private final ExecutorContext context;
+    private final List<DirectiveOutputSchemaGenerator> outputSchemaGenerators;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    private Stages(PipelinedExecution owner, List<Directive> directives, @Nullable ExecutorContext context,
+                   @Nullable List<DirectiveOutputSchemaGenerator> outputSchemaGenerators) {
+      this.owner = new WeakReference<>(owner);
+      this.directives = directives;
+      this.context = context;
+      this.outputSchemaGenerators = outputSchemaGenerators;
+    }
+
+    /**
+     * Starts the threads of the stages.
+     *
+     * @return the queue the last stage writes its output to.
+     */
+    private BlockingQueue<Batch> start(List<Integer> boundaries, Iterator<Row> input, int batchSize) {
+      List<Integer> starts = new ArrayList<>();
+      starts.add(0);
+      starts.addAll(boundaries);
+      starts.add(directives.size());
+
+      BlockingQueue<Batch> upstream = null;
+      for (int stage = 0; stage < starts.size() - 1; ++stage) {
+        BlockingQueue<Batch> downstream = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        int from = starts.get(stage);
+        int to = starts.get(stage + 1);
+        Runnable runnable = stage == 0 ?
+          () -> runFirstStage(input, batchSize, to, downstream) :
+          runStage(upstream, from, to, downstream);
+        Thread thread = new Thread(runnable, "wrangler-pipeline-stage-" + stage);
+        thread.setDaemon(true);
+        threads.add(thread);
+        upstream = downstream;
+      }
+      for (Thread thread : threads) {
+        thread.start();
+      }
+      return upstream;
+    }
+
+    /**
+     * Stops all the stages. Rows that have not been consumed yet are discarded.
+     */
+    void cancel() {
+      cancelled = true;
+      for (Thread thread : threads) {
+        thread.interrupt();
+      }
+    }
+
+    private void runFirstStage(Iterator<Row> input, int batchSize, int to, BlockingQueue<Batch> downstream) {
+      int index = 0;
+      try {
+        while (!cancelled && input.hasNext()) {
+          List<Unit> units = new ArrayList<>(batchSize);
+          while (units.size() < batchSize && input.hasNext()) {
+            Unit unit = new Unit(index++, input.next());
+            // Resets the scope of local variable.
+            if (context != null) {
+              context.getTransientStore().reset(TransientVariableScope.LOCAL);
+            }
+            unit.rows = new ArrayList<>(1);
+            unit.rows.add(unit.input);
+            execute(unit, 0, to);
+            units.add(unit);
+          }
+          put(downstream, new Batch(units, null));
+        }
+        put(downstream, new Batch(Collections.emptyList(), null));
+      } catch (Throwable t) {
+        put(downstream, new Batch(Collections.emptyList(), t));
+      }
+    }
+
+    private Runnable runStage(BlockingQueue<Batch> upstream, int from, int to, BlockingQueue<Batch> downstream) {
+      return () -> {
+        try {
+          while (!cancelled) {
+            Batch batch = upstream.take();
+            if (!batch.isLast()) {
+              for (Unit unit : batch.units) {
+                execute(unit, from, to);
+              }
+            }
+            put(downstream, batch);
+            if (batch.isLast()) {
+              return;
+            }
+          }
+        } catch (InterruptedException e) {
+          // Cancelled, nothing to do.
+        } catch (Throwable t) {
+          put(downstream, new Batch(Collections.emptyList(), t));
+        }
+      };
+    }
+
+    /**
+     * Executes the directives in the range on the rows of the unit, the same way
+     * {@link RecipePipelineExecutor#execute(List)} does.
+     */
+    private void execute(Unit unit, int from, int to) throws RecipeException {
+      if (unit.error != null || unit.rows.isEmpty()) {
+        return;
+      }
+      int directiveIndex = from;
+      try {
+        List<Row> cumulativeRows = unit.rows;
+        while (directiveIndex < to) {
+          cumulativeRows = directives.get(directiveIndex).execute(cumulativeRows, context);
+          directiveIndex++;
+          if (cumulativeRows.size() < 1) {
+            break;
+          }
+          if (outputSchemaGenerators != null) {
+            outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
+          }
+        }
+        unit.rows = cumulativeRows;
+      } catch (ReportErrorAndProceed e) {
+        unit.error = new ErrorRecord(unit.input, String.format("%s (ecode: %d)", e.getMessage(), e.getCode()),
+                                     e.getCode(), true);
+        unit.rows = Collections.emptyList();
+      } catch (ErrorRowException e) {
+        unit.error = new ErrorRecord(unit.input, e.getMessage(), e.getCode(), e.isShownInWrangler());
+        unit.rows = Collections.emptyList();
+      } catch (DirectiveExecutionException e) {
+        throw new RecipeException(e.getMessage(), e, unit.index, directiveIndex + 1);
+      }
+    }
+
+    private void put(BlockingQueue<Batch> queue, Batch batch) {
+      try {
+        while (!cancelled && !queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          // Nobody will make room in the queue once the output iterator is garbage collected.
+          if (owner.get() == null) {
+            cancel();
+          }
+        }
+      } catch (InterruptedException e) {
+        // Cancelled, nothing to do.
+      }
+    }
+  }
+}
@@ -18,18 +18,23 @@ package io.cdap.wrangler.executor;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.BatchingIterator;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ErrorRecord;
 import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.Executor;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Finishable;
+import io.cdap.wrangler.api.RecipeCancelledException;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.ReportErrorAndProceed;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.api.UncheckedRecipeException;
+import io.cdap.wrangler.metrics.DirectiveMetrics;
 import io.cdap.wrangler.schema.DirectiveOutputSchemaGenerator;
 import io.cdap.wrangler.schema.DirectiveSchemaResolutionContext;
 import io.cdap.wrangler.schema.TransientStoreKeys;
@@ -40,6 +45,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import javax.annotation.Nullable;
 
@@ -49,6 +56,8 @@ import javax.annotation.Nullable;
 public final class RecipePipelineExecutor implements RecipePipeline<Row, StructuredRecord, ErrorRecord> {
 
   private static final Logger LOG = LoggerFactory.getLogger(RecipePipelineExecutor.class);
+  // Number of input rows after which the directive metrics are emitted.
+  private static final int METRICS_EMIT_INTERVAL = 10000;
 
   private final ErrorRecordCollector collector = new ErrorRecordCollector();
   private final RecordConvertor convertor = new RecordConvertor();
@@ -56,20 +65,95 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
   private final RecipeParser recipeParser;
   private final ExecutorContext context;
   private List<Directive> directives;
+  private int metricsSampleInterval;
+  private DirectiveMetrics metrics;
+  private int rowsSinceEmit;
+  private int pipelineStages = 1;
+  private List<Integer> stageBoundaries;
+  // Stages of the last pipelined execution, only held on to for cancelling them.
+  private PipelinedExecution.Stages pipelined;
+  private volatile boolean cancelled;
 
   public RecipePipelineExecutor(RecipeParser recipeParser, @Nullable ExecutorContext context) {
     this.context = context;
     this.recipeParser = recipeParser;
   }
 
+  /**
+   * Enables the collection of per directive metrics. The metrics are periodically emitted through the
+   * {@link ExecutorContext} and when the pipeline is closed.
+   *
+   * @param sampleInterval latency and allocations are measured once every sampleInterval rows.
+   */
+  public void enableDirectiveMetrics(int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("Sample interval must be at least 1, found " + sampleInterval);
+    }
+    this.metricsSampleInterval = sampleInterval;
+  }
+
+  /**
+   * Enables the execution of the directives as a pipeline of stages running on separate threads, when executing
+   * more than one row at a time. Directives that may depend on the state shared through the
+   * {@link ExecutorContext} are all run by the first stage. Pipelining is not used while directive metrics are
+   * collected, or when the recipe contains a {@link Finishable} directive.
+   *
+   * <p>When pipelined, the input of {@link #execute(Iterator, int)} is consumed on the thread of the first stage.
+   * The stages are stopped by {@link #close()}, or shortly after the output iterator is abandoned and garbage
+   * collected.</p>
+   *
+   * @param stages maximum number of stages, 1 to execute all the directives on the calling thread.
+   */
+  public void enablePipelining(int stages) {
+    if (stages < 1) {
+      throw new IllegalArgumentException("Number of stages must be at least 1, found " + stages);
+    }
+    this.pipelineStages = stages;
+    this.stageBoundaries = null;
+  }
+
+  /**
+   * @return the metrics collected for the directives since they were last emitted, or null if the collection
+   * is not enabled or no row has been processed yet.
+   */
+  @Nullable
+  public DirectiveMetrics getDirectiveMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Requests the execution in progress, and every later one, to stop. Cancellation is cooperative: it is checked
+   * before every row and batch, so a directive already executing a row is not interrupted. The execution then
+   * fails with a {@link RecipeCancelledException}. This method can be called from any thread.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * @return whether {@link #cancel()} was called.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
   /**
    * Invokes each directives destroy method to perform any cleanup required by each individual directive.
    */
   @Override
   public void close() {
+    if (pipelined != null) {
+      pipelined.cancel();
+      pipelined = null;
+    }
     if (directives == null) {
       return;
     }
+    try {
+      emitDirectiveMetrics();
+    } catch (Throwable t) {
+      LOG.warn("Failed to emit directive metrics.", t);
+    }
     for (Directive directive : directives) {
       try {
         directive.destroy();
@@ -104,25 +188,101 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
   @Override
   public List<Row> execute(List<Row> rows) throws RecipeException {
     List<Directive> directives = getDirectives();
-    List<String> messages = new ArrayList<>();
+    if (rows.size() > 1 && !getStageBoundaries(directives).isEmpty()) {
+      List<Row> results = new ArrayList<>();
+      try {
+        execute(rows.iterator(), DEFAULT_BATCH_SIZE).forEachRemaining(results::add);
+      } catch (UncheckedRecipeException e) {
+        throw e.getCause();
+      }
+      return results;
+    }
+    Schema inputSchema = getInputSchema();
+    List<DirectiveOutputSchemaGenerator> outputSchemaGenerators = getOutputSchemaGenerators(directives, inputSchema);
+    collector.reset();
     List<Row> results = new ArrayList<>();
-    int i = 0;
-    int directiveIndex = 0;
-    // Initialize schema with input schema from TransientStore if running in service env (design-time) / testing env
-    boolean schemaManagementEnabled = context != null && context.isSchemaManagementEnabled();
-    Schema inputSchema = schemaManagementEnabled ?
-      context.getTransientStore().get(TransientStoreKeys.INPUT_SCHEMA) : null;
+    execute(directives, 0, rows, 0, outputSchemaGenerators, results);
+    finish(directives, rows.size(), outputSchemaGenerators, results);
+    setOutputSchema(inputSchema, outputSchemaGenerators);
+    return results;
+  }
 
-    List<DirectiveOutputSchemaGenerator> outputSchemaGenerators = new ArrayList<>();
-    if (schemaManagementEnabled && inputSchema != null) {
-      for (Directive directive : directives) {
-        outputSchemaGenerators.add(new DirectiveOutputSchemaGenerator(directive, generator));
+  /**
+   * Executes the pipeline lazily on the input. {@link #errors()} returns the records that errored out in all the
+   * batches executed so far, and the output schema is generated once the input is exhausted.
+   *
+   * @param input iterator over the input rows.
+   * @param batchSize maximum number of rows pulled from the input at a time.
+   * @return iterator over the output rows.
+   */
+  @Override
+  public Iterator<Row> execute(Iterator<Row> input, int batchSize) throws RecipeException {
+    List<Directive> directives = getDirectives();
+    Schema inputSchema = getInputSchema();
+    List<DirectiveOutputSchemaGenerator> outputSchemaGenerators = getOutputSchemaGenerators(directives, inputSchema);
+    collector.reset();
+    List<Integer> boundaries = getStageBoundaries(directives);
+    if (!boundaries.isEmpty()) {
+      if (pipelined != null) {
+        pipelined.cancel();
       }
+      PipelinedExecution execution = new PipelinedExecution(directives, boundaries, input, batchSize, context,
+                                                            outputSchemaGenerators, collector);
+      pipelined = execution.getStages();
+      // Output is already produced in batches, it is only passed through to generate the schema at the end.
+      return new BatchingIterator<>(execution, batchSize, new BatchingIterator.Processor<Row, Row>() {
+        @Override
+        public List<Row> process(List<Row> batch) throws RecipeException {
+          // The stages are stopped when the pipeline is closed, the consumer only stops pulling their output.
+          checkCancelled(RecipeException.UNKNOWN_INDEX);
+          return batch;
+        }
+
+        @Override
+        public List<Row> finish() throws RecipeException {
+          setOutputSchema(inputSchema, outputSchemaGenerators);
+          return Collections.emptyList();
+        }
+      });
     }
+    return new BatchingIterator<>(input, batchSize, new BatchingIterator.Processor<Row, Row>() {
+      private int offset;
 
+      @Override
+      public List<Row> process(List<Row> batch) throws RecipeException {
+        List<Row> results = new ArrayList<>();
+        execute(directives, 0, batch, offset, outputSchemaGenerators, results);
+        offset += batch.size();
+        return results;
+      }
+
+      @Override
+      public List<Row> finish() throws RecipeException {
+        List<Row> results = new ArrayList<>();
+        RecipePipelineExecutor.this.finish(directives, offset, outputSchemaGenerators, results);
+        setOutputSchema(inputSchema, outputSchemaGenerators);
+        return results;
+      }
+    });
+  }
+
+  /**
+   * Executes the directives on the rows, adding the resulting rows to the results.
+   *
+   * @param from index of the first directive to execute.
+   * @param offset index of the first row in the whole input, used for reporting errors.
+   * @param outputSchemaGenerators generators to update with the output of each directive, null if the schema is
+   *                               not being generated.
+   */
+  private void execute(List<Directive> directives, int from, List<Row> rows, int offset,
+                       @Nullable List<DirectiveOutputSchemaGenerator> outputSchemaGenerators,
+                       List<Row> results) throws RecipeException {
+    List<String> messages = new ArrayList<>();
+    int i = 0;
+    int directiveIndex = 0;
     try {
-      collector.reset();
       while (i < rows.size()) {
+        checkCancelled(offset + i);
         messages.clear();
         // Resets the scope of local variable.
         if (context != null) {
@@ -130,16 +290,21 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
         }
 
         List<Row> cumulativeRows = rows.subList(i, i + 1);
-        directiveIndex = 0;
+        directiveIndex = from;
+        boolean sampled = metrics != null && metrics.sample();
         try {
-          for (Executor<List<Row>, List<Row>> directive : directives) {
+          for (Executor<List<Row>, List<Row>> directive : directives.subList(from, directives.size())) {
             try {
               directiveIndex++;
-              cumulativeRows = directive.execute(cumulativeRows, context);
+              if (metrics == null) {
+                cumulativeRows = directive.execute(cumulativeRows, context);
+              } else {
+                cumulativeRows = executeWithMetrics(directive, directiveIndex - 1, cumulativeRows, sampled);
+              }
               if (cumulativeRows.size() < 1) {
                 break;
               }
-              if (schemaManagementEnabled && inputSchema != null) {
+              if (outputSchemaGenerators != null) {
                 outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
               }
             } catch (ReportErrorAndProceed e) {
@@ -160,14 +325,82 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
         ++i;
       }
     } catch (DirectiveExecutionException e) {
-      throw new RecipeException(e.getMessage(), e, i, directiveIndex);
+      throw new RecipeException(e.getMessage(), e, offset + i, directiveIndex);
+    } finally {
+      if (metrics != null) {
+        rowsSinceEmit += i;
+        if (rowsSinceEmit >= METRICS_EMIT_INTERVAL) {
+          emitDirectiveMetrics();
+        }
+      }
+    }
+  }
+
+  private void checkCancelled(int rowIndex) throws RecipeCancelledException {
+    if (cancelled) {
+      throw new RecipeCancelledException("Execution of the recipe was cancelled", rowIndex);
+    }
+  }
+
+  /**
+   * Executes the rows produced by every {@link Finishable} directive once the input is exhausted through the
+   * directives that follow it, adding the resulting rows to the results.
+   *
+   * @param offset number of rows in the whole input, used for reporting errors.
+   */
+  private void finish(List<Directive> directives, int offset,
+                      @Nullable List<DirectiveOutputSchemaGenerator> outputSchemaGenerators,
+                      List<Row> results) throws RecipeException {
+    for (int i = 0; i < directives.size(); i++) {
+      if (!(directives.get(i) instanceof Finishable)) {
+        continue;
+      }
+      List<Row> rows;
+      try {
+        rows = ((Finishable) directives.get(i)).finish(context);
+      } catch (DirectiveExecutionException e) {
+        throw new RecipeException(e.getMessage(), e, offset, i + 1);
+      }
+      if (rows.isEmpty()) {
+        continue;
+      }
+      if (outputSchemaGenerators != null) {
+        outputSchemaGenerators.get(i).addNewOutputFields(rows);
+      }
+      execute(directives, i + 1, rows, offset, outputSchemaGenerators, results);
+    }
+  }
+
+  /**
+   * @return the input schema from the TransientStore if running in service env (design-time) / testing env with
+   * schema management enabled, null otherwise.
+   */
+  @Nullable
+  private Schema getInputSchema() {
+    boolean schemaManagementEnabled = context != null && context.isSchemaManagementEnabled();
+    return schemaManagementEnabled ? context.getTransientStore().get(TransientStoreKeys.INPUT_SCHEMA) : null;
+  }
+
+  @Nullable
+  private List<DirectiveOutputSchemaGenerator> getOutputSchemaGenerators(List<Directive> directives,
+                                                                         @Nullable Schema inputSchema) {
+    if (inputSchema == null) {
+      return null;
+    }
+    List<DirectiveOutputSchemaGenerator> outputSchemaGenerators = new ArrayList<>();
+    for (Directive directive : directives) {
+      outputSchemaGenerators.add(new DirectiveOutputSchemaGenerator(directive, generator));
     }
-    // Schema generation
-    if (schemaManagementEnabled && inputSchema != null) {
+    return outputSchemaGenerators;
+  }
+
+  private void setOutputSchema(@Nullable Schema inputSchema,
+                               @Nullable List<DirectiveOutputSchemaGenerator> outputSchemaGenerators)
+    throws RecipeException {
+    if (inputSchema != null && outputSchemaGenerators != null) {
       context.getTransientStore().set(TransientVariableScope.GLOBAL, TransientStoreKeys.OUTPUT_SCHEMA,
-                                        getOutputSchema(inputSchema, outputSchemaGenerators));
+                                      getOutputSchema(inputSchema, outputSchemaGenerators));
     }
-    return results;
   }
 
   /**
@@ -180,10 +413,59 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
     return collector.get();
   }
 
+  private List<Row> executeWithMetrics(Executor<List<Row>, List<Row>> directive, int index, List<Row> rows,
+                                       boolean sampled) throws DirectiveExecutionException, ErrorRowException,
+    ReportErrorAndProceed {
+    int rowsIn = rows.size();
+    List<Row> results;
+    try {
+      if (!sampled) {
+        results = directive.execute(rows, context);
+        metrics.record(index, rowsIn, results.size());
+        return results;
+      }
+      int columnsIn = DirectiveMetrics.width(rows);
+      long bytes = DirectiveMetrics.allocatedBytes();
+      long start = System.nanoTime();
+      results = directive.execute(rows, context);
+      long nanos = System.nanoTime() - start;
+      bytes = DirectiveMetrics.allocatedBytes() - bytes;
+      metrics.record(index, rowsIn, results.size(), columnsIn, DirectiveMetrics.width(results), nanos, bytes);
+      return results;
+    } catch (DirectiveExecutionException | ErrorRowException | ReportErrorAndProceed | RuntimeException e) {
+      metrics.error(index);
+      throw e;
+    }
+  }
+
+  private void emitDirectiveMetrics() {
+    rowsSinceEmit = 0;
+    if (metrics != null && context != null && context.getMetrics() != null) {
+      metrics.emit(context.getMetrics());
+    }
+  }
+
+  /**
+   * @return the index of the first directive of every stage but the first one, empty if the directives are
+   * executed on the calling thread.
+   */
+  private List<Integer> getStageBoundaries(List<Directive> directives) {
+    if (pipelineStages < 2 || metrics != null || directives.stream().anyMatch(d -> d instanceof Finishable)) {
+      return Collections.emptyList();
+    }
+    if (stageBoundaries == null) {
+      stageBoundaries = PipelinedExecution.split(directives, pipelineStages);
+    }
+    return stageBoundaries;
+  }
+
   private List<Directive> getDirectives() throws RecipeException {
     if (directives == null) {
       this.directives = recipeParser.parse();
     }
+    if (metrics == null && metricsSampleInterval > 0) {
+      metrics = new DirectiveMetrics(directives, metricsSampleInterval);
+    }
     return directives;
   }
 
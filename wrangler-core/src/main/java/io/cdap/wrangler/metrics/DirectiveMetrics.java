@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.metrics;
+
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.Row;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects execution metrics for each directive of a recipe. Row counts, fan-out and errors are collected for
+ * every execution of a directive, while latency and allocated bytes are only measured on a sample of the
+ * executions and extrapolated to all the executions when the metrics are emitted.
+ *
+ * <p>Metrics are emitted with the same tags as the directive usage metric, under the following names:</p>
+ * <ul>
+ *   <li>{@code wrangler.directive.rows.in} and {@code wrangler.directive.rows.out}: rows consumed and
+ *   produced by the directive.</li>
+ *   <li>{@code wrangler.directive.fanout.pct}: gauge of the rows produced per hundred rows consumed.</li>
+ *   <li>{@code wrangler.directive.errors}: executions that raised an error.</li>
+ *   <li>{@code wrangler.directive.time.ns}: estimated time spent in the directive.</li>
+ *   <li>{@code wrangler.directive.allocated.bytes}: estimated bytes allocated by the directive, when the JVM
+ *   supports measuring thread allocations.</li>
+ *   <li>{@code wrangler.directive.latency.le.<n>}: sampled executions that took at most n nanoseconds, n being
+ *   a power of two. The largest bucket also counts the slower executions.</li>
+ * </ul>
+ *
+ * <p>Instances are not thread safe, each pipeline executor is expected to hold its own.</p>
+ */
+public final class DirectiveMetrics {
+  public static final String METRIC_PREFIX = "wrangler.directive.";
+  public static final String DIRECTIVE_ENTITY_TYPE = "directive";
+
+  // Latencies up to 2^MIN_BUCKET ns fall in the first bucket and above 2^(MIN_BUCKET + BUCKETS - 2) in the last.
+  private static final int MIN_BUCKET = 7;
+  private static final int BUCKETS = 25;
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+  private final List<Stats> stats;
+  private final int sampleInterval;
+  private int untilSample;
+
+  /**
+   * Creates the metrics for the directives of a recipe.
+   *
+   * @param directives of the recipe, in the order of execution.
+   * @param sampleInterval latency and allocations are measured once every sampleInterval rows.
+   */
+  public DirectiveMetrics(List<Directive> directives, int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("Sample interval must be at least 1, found " + sampleInterval);
+    }
+    List<Stats> stats = new ArrayList<>(directives.size());
+    for (Directive directive : directives) {
+      stats.add(new Stats(directive.define().getDirectiveName()));
+    }
+    this.stats = Collections.unmodifiableList(stats);
+    this.sampleInterval = sampleInterval;
+    this.untilSample = 0;
+  }
+
+  /**
+   * Called once per row entering the recipe.
+   *
+   * @return true if latency and allocations should be measured for the row.
+   */
+  public boolean sample() {
+    if (untilSample == 0) {
+      untilSample = sampleInterval - 1;
+      return true;
+    }
+    untilSample--;
+    return false;
+  }
+
+  /**
+   * @return the bytes allocated so far by the current thread, or 0 if not supported by the JVM.
+   */
+  public static long allocatedBytes() {
+    if (!ALLOCATION_SUPPORTED) {
+      return 0L;
+    }
+    return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * @return the number of columns of the widest row in the list.
+   */
+  public static int width(List<Row> rows) {
+    int width = 0;
+    for (Row row : rows) {
+      width = Math.max(width, row.width());
+    }
+    return width;
+  }
+
+  /**
+   * Records an execution of a directive for which latency and allocations were not measured.
+   *
+   * @param index of the directive in the recipe.
+   * @param rowsIn number of rows passed to the directive.
+   * @param rowsOut number of rows returned by the directive.
+   */
+  public void record(int index, int rowsIn, int rowsOut) {
+    Stats stat = stats.get(index);
+    stat.executions++;
+    stat.rowsIn += rowsIn;
+    stat.rowsOut += rowsOut;
+  }
+
+  /**
+   * Records a sampled execution of a directive.
+   *
+   * @param index of the directive in the recipe.
+   * @param rowsIn number of rows passed to the directive.
+   * @param rowsOut number of rows returned by the directive.
+   * @param columnsIn number of columns of the widest row passed to the directive.
+   * @param columnsOut number of columns of the widest row returned by the directive.
+   * @param nanos time spent executing the directive.
+   * @param bytes allocated while executing the directive.
+   */
+  public void record(int index, int rowsIn, int rowsOut, int columnsIn, int columnsOut, long nanos, long bytes) {
+    record(index, rowsIn, rowsOut);
+    Stats stat = stats.get(index);
+    stat.columnsIn = Math.max(stat.columnsIn, columnsIn);
+    stat.columnsOut = Math.max(stat.columnsOut, columnsOut);
+    stat.samples++;
+    stat.sampledNanos += nanos;
+    stat.sampledBytes += bytes;
+    stat.latencies[bucket(nanos)]++;
+  }
+
+  /**
+   * Records an execution of a directive that raised an error.
+   *
+   * @param index of the directive in the recipe.
+   */
+  public void error(int index) {
+    stats.get(index).errors++;
+  }
+
+  /**
+   * @return the metrics collected for each directive since the last time they were emitted, in recipe order.
+   */
+  public List<Stats> getStats() {
+    return stats;
+  }
+
+  /**
+   * Emits the metrics collected since the last call and resets them.
+   *
+   * @param metrics to which the metrics are emitted.
+   */
+  public void emit(Metrics metrics) {
+    for (Stats stat : stats) {
+      if (stat.executions == 0 && stat.errors == 0) {
+        continue;
+      }
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Constants.Tags.APP_ENTITY_TYPE, DIRECTIVE_ENTITY_TYPE);
+      tags.put(Constants.Tags.APP_ENTITY_TYPE_NAME, stat.name);
+      Metrics child = metrics.child(tags);
+      child.countLong(METRIC_PREFIX + "rows.in", stat.rowsIn);
+      child.countLong(METRIC_PREFIX + "rows.out", stat.rowsOut);
+      if (stat.rowsIn > 0) {
+        child.gauge(METRIC_PREFIX + "fanout.pct", stat.rowsOut * 100 / stat.rowsIn);
+      }
+      if (stat.errors > 0) {
+        child.countLong(METRIC_PREFIX + "errors", stat.errors);
+      }
+      if (stat.samples > 0) {
+        child.countLong(METRIC_PREFIX + "time.ns", stat.getEstimatedNanos());
+        if (ALLOCATION_SUPPORTED) {
+          child.countLong(METRIC_PREFIX + "allocated.bytes", stat.getEstimatedBytes());
+        }
+        for (int i = 0; i < BUCKETS; ++i) {
+          if (stat.latencies[i] > 0) {
+            child.countLong(METRIC_PREFIX + "latency.le." + (1L << (MIN_BUCKET + i)), stat.latencies[i]);
+          }
+        }
+      }
+      stat.reset();
+    }
+  }
+
+  private static int bucket(long nanos) {
+    int bits = 64 - Long.numberOfLeadingZeros(Math.max(nanos - 1, 0));
+    return Math.min(Math.max(bits - MIN_BUCKET, 0), BUCKETS - 1);
+  }
+
+  private static boolean isAllocationSupported() {
+    try {
+      if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled();
+      }
+    } catch (Throwable t) {
+      // The com.sun.management API is not available on this JVM.
+    }
+    return false;
+  }
+
+  /**
+   * Metrics collected for a single directive.
+   */
+  public static final class Stats {
+    private final String name;
+    private final long[] latencies = new long[BUCKETS];
+    private long executions;
+    private long samples;
+    private long rowsIn;
+    private long rowsOut;
+    private int columnsIn;
+    private int columnsOut;
+    private long errors;
+    private long sampledNanos;
+    private long sampledBytes;
+
+    private Stats(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getRowsIn() {
+      return rowsIn;
+    }
+
+    public long getRowsOut() {
+      return rowsOut;
+    }
+
+    /**
+     * @return the number of columns of the widest row passed to the directive in a sampled execution.
+     */
+    public int getColumnsIn() {
+      return columnsIn;
+    }
+
+    /**
+     * @return the number of columns of the widest row returned by the directive in a sampled execution.
+     */
+    public int getColumnsOut() {
+      return columnsOut;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getExecutions() {
+      return executions;
+    }
+
+    public long getSamples() {
+      return samples;
+    }
+
+    /**
+     * @return the time spent in the directive, extrapolated from the sampled executions.
+     */
+    public long getEstimatedNanos() {
+      return samples == 0 ? 0L : (long) ((double) sampledNanos * executions / samples);
+    }
+
+    /**
+     * @return the bytes allocated by the directive, extrapolated from the sampled executions.
+     */
+    public long getEstimatedBytes() {
+      return samples == 0 ? 0L : (long) ((double) sampledBytes * executions / samples);
+    }
+
+    private void reset() {
+      executions = samples = rowsIn = rowsOut = errors = sampledNanos = sampledBytes = 0;
+      columnsIn = columnsOut = 0;
+      Arrays.fill(latencies, 0L);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.optimizer;
+
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A directive that applies a sequence of {@link StringTransform} on the same column in a single pass over
+ * the row. This directive is not available in recipes, it is only created by {@link RecipeOptimizer}.
+ */
+final class FusedStringTransform implements Directive, Lineage, StringTransform {
+  static final String NAME = "fused-string-transform";
+  private final String column;
+  private final List<Directive> directives;
+  private final StringTransform[] transforms;
+
+  /**
+   * Fuses the given directives, which are all expected to transform the same column.
+   *
+   * @param directives in the order in which they are applied.
+   */
+  FusedStringTransform(List<Directive> directives) {
+    this.directives = new ArrayList<>();
+    for (Directive directive : directives) {
+      if (directive instanceof FusedStringTransform) {
+        this.directives.addAll(((FusedStringTransform) directive).directives);
+      } else {
+        this.directives.add(directive);
+      }
+    }
+    this.transforms = new StringTransform[this.directives.size()];
+    for (int i = 0; i < transforms.length; ++i) {
+      transforms[i] = (StringTransform) this.directives.get(i);
+    }
+    this.column = transforms[0].getColumn();
+  }
+
+  @Override
+  public UsageDefinition define() {
+    return UsageDefinition.builder(NAME).build();
+  }
+
+  @Override
+  public void initialize(Arguments args) {
+    // no-op, the fused directives are already initialized.
+  }
+
+  @Override
+  public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
+    for (Row row : rows) {
+      int idx = row.find(column);
+      if (idx != -1) {
+        Object object = row.getValue(idx);
+        if (object instanceof String) {
+          row.setValue(idx, apply((String) object));
+        }
+      }
+    }
+    return rows;
+  }
+
+  @Override
+  public void destroy() {
+    for (Directive directive : directives) {
+      directive.destroy();
+    }
+  }
+
+  @Override
+  public String getColumn() {
+    return column;
+  }
+
+  @Override
+  public String apply(String value) {
+    for (StringTransform transform : transforms) {
+      value = transform.apply(value);
+    }
+    return value;
+  }
+
+  /**
+   * @return the directives that have been fused, in the order in which they are applied.
+   */
+  List<Directive> getDirectives() {
+    return directives;
+  }
+
+  @Override
+  public Mutation lineage() {
+    List<String> names = new ArrayList<>();
+    for (Directive directive : directives) {
+      names.add(directive.define().getDirectiveName());
+    }
+    return Mutation.builder()
+      .readable("Applied %s on the values in column '%s'", names, column)
+      .relation(column, column)
+      .build();
+  }
+}
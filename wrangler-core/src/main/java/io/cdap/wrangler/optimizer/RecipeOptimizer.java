@@ -0,0 +1,317 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.optimizer;
+
+import com.google.common.collect.ImmutableSet;
+import io.cdap.directives.column.Copy;
+import io.cdap.directives.column.Drop;
+import io.cdap.directives.column.Merge;
+import io.cdap.directives.column.Rename;
+import io.cdap.directives.column.SetType;
+import io.cdap.directives.column.SplitToColumns;
+import io.cdap.directives.column.Swap;
+import io.cdap.directives.currency.FormatAsCurrency;
+import io.cdap.directives.currency.ParseAsCurrency;
+import io.cdap.directives.date.DiffDate;
+import io.cdap.directives.date.FormatDate;
+import io.cdap.directives.datetime.DateTimeToTimeStamp;
+import io.cdap.directives.datetime.FormatDateTime;
+import io.cdap.directives.datetime.TimestampToDateTime;
+import io.cdap.directives.lookup.CatalogLookup;
+import io.cdap.directives.parser.JsParser;
+import io.cdap.directives.parser.JsPath;
+import io.cdap.directives.parser.ParseDate;
+import io.cdap.directives.parser.ParseDateTime;
+import io.cdap.directives.parser.ParseSimpleDate;
+import io.cdap.directives.parser.ParseTimestamp;
+import io.cdap.directives.row.Flatten;
+import io.cdap.directives.row.RecordConditionFilter;
+import io.cdap.directives.row.RecordMissingOrNullFilter;
+import io.cdap.directives.row.RecordRegexFilter;
+import io.cdap.directives.row.SplitToRows;
+import io.cdap.directives.transformation.CharacterCut;
+import io.cdap.directives.transformation.ColumnExpression;
+import io.cdap.directives.transformation.Decode;
+import io.cdap.directives.transformation.Encode;
+import io.cdap.directives.transformation.ExtractRegexGroups;
+import io.cdap.directives.transformation.FillNullOrEmpty;
+import io.cdap.directives.transformation.FindAndReplace;
+import io.cdap.directives.transformation.GenerateUUID;
+import io.cdap.directives.transformation.LeftTrim;
+import io.cdap.directives.transformation.Lower;
+import io.cdap.directives.transformation.MaskNumber;
+import io.cdap.directives.transformation.MessageHash;
+import io.cdap.directives.transformation.Quantization;
+import io.cdap.directives.transformation.RightTrim;
+import io.cdap.directives.transformation.SplitEmail;
+import io.cdap.directives.transformation.SplitURL;
+import io.cdap.directives.transformation.TextDistanceMeasure;
+import io.cdap.directives.transformation.TextMetricMeasure;
+import io.cdap.directives.transformation.TitleCase;
+import io.cdap.directives.transformation.Trim;
+import io.cdap.directives.transformation.Upper;
+import io.cdap.directives.transformation.UrlDecode;
+import io.cdap.directives.transformation.UrlEncode;
+import io.cdap.directives.xml.XmlToJson;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.lineage.Lineage;
+import io.cdap.wrangler.api.lineage.Mutation;
+import io.cdap.wrangler.api.lineage.Relation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link RecipeParser} that rewrites the directives parsed by another parser into an equivalent, cheaper
+ * sequence of directives. The following rewrites are applied:
+ *
+ * <ul>
+ *   <li>Row filters are moved ahead of the directives that don't touch the columns they inspect, so that
+ *   rows that are going to be filtered out are not transformed first.</li>
+ *   <li>Single column string transformations whose result is dropped by a later directive are removed.</li>
+ *   <li>Consecutive single column string transformations on the same column are fused into a single
+ *   directive that looks up the column once per row.</li>
+ * </ul>
+ *
+ * <p>The columns touched by a directive are derived from its {@link Lineage}. As lineage is not guaranteed
+ * to be complete, only directives that are known to touch nothing beyond their lineage are considered for
+ * reordering, every other directive acts as a barrier.</p>
+ *
+ * <p>As filters may be applied earlier, rows that are filtered out no longer reach the directives that were
+ * previously ahead of the filter, hence errors raised for those rows by those directives are not reported
+ * anymore.</p>
+ */
+public final class RecipeOptimizer implements RecipeParser {
+  private static final Set<Class<? extends Directive>> FILTERS = ImmutableSet.of(
+    RecordConditionFilter.class, RecordRegexFilter.class, RecordMissingOrNullFilter.class
+  );
+
+  // Directives that operate row by row and only touch the columns reported by their lineage.
+  private static final Set<Class<? extends Directive>> REORDERABLE = ImmutableSet.<Class<? extends Directive>>builder()
+    .add(Upper.class, Lower.class, TitleCase.class, Trim.class, LeftTrim.class, RightTrim.class)
+    .add(ColumnExpression.class, MessageHash.class, Encode.class, Decode.class, UrlEncode.class, UrlDecode.class)
+    .add(FillNullOrEmpty.class, FindAndReplace.class, MaskNumber.class, CharacterCut.class, Quantization.class)
+    .add(ExtractRegexGroups.class, SplitEmail.class, SplitURL.class, GenerateUUID.class)
+    .add(TextDistanceMeasure.class, TextMetricMeasure.class)
+    .add(Rename.class, Copy.class, Drop.class, Swap.class, Merge.class, SetType.class, SplitToColumns.class)
+    .add(JsParser.class, JsPath.class, XmlToJson.class)
+    .add(ParseDate.class, ParseSimpleDate.class, ParseTimestamp.class, ParseDateTime.class)
+    .add(FormatDate.class, DiffDate.class, FormatDateTime.class, DateTimeToTimeStamp.class, TimestampToDateTime.class)
+    .add(ParseAsCurrency.class, FormatAsCurrency.class, CatalogLookup.class)
+    .add(Flatten.class, SplitToRows.class, FusedStringTransform.class)
+    .build();
+
+  private final RecipeParser parser;
+
+  public RecipeOptimizer(RecipeParser parser) {
+    this.parser = parser;
+  }
+
+  /**
+   * Parses the recipe using the underlying parser and returns the optimized list of directives.
+   *
+   * @return a list of directives equivalent to the one returned by the underlying parser.
+   * @throws RecipeException thrown by the underlying parser.
+   */
+  @Override
+  public List<Directive> parse() throws RecipeException {
+    return optimize(parser.parse());
+  }
+
+  /**
+   * Optimizes a list of initialized directives. Directives that are removed or fused are destroyed as part of
+   * the optimization.
+   *
+   * @param directives to be optimized.
+   * @return a new list of directives equivalent to the one passed.
+   */
+  public static List<Directive> optimize(List<Directive> directives) {
+    List<Step> steps = new ArrayList<>(directives.size());
+    for (Directive directive : directives) {
+      steps.add(new Step(directive));
+    }
+    pushDownFilters(steps);
+    eliminateDeadTransforms(steps);
+    fuseTransforms(steps);
+
+    List<Directive> optimized = new ArrayList<>(steps.size());
+    for (Step step : steps) {
+      optimized.add(step.directive);
+    }
+    return optimized;
+  }
+
+  /**
+   * Moves every filter ahead of the reorderable directives that don't touch the columns it reads.
+   */
+  private static void pushDownFilters(List<Step> steps) {
+    for (int i = 1; i < steps.size(); ++i) {
+      Step filter = steps.get(i);
+      if (!filter.isFilter()) {
+        continue;
+      }
+      int target = i;
+      while (target > 0) {
+        Step previous = steps.get(target - 1);
+        if (!previous.isReorderable() || conflicts(filter.columns, previous.columns)) {
+          break;
+        }
+        target--;
+      }
+      if (target < i) {
+        steps.remove(i);
+        steps.add(target, filter);
+      }
+    }
+  }
+
+  /**
+   * Removes the string transformations whose result is dropped before being read by any other directive.
+   */
+  private static void eliminateDeadTransforms(List<Step> steps) {
+    for (int i = steps.size() - 1; i >= 0; --i) {
+      Step step = steps.get(i);
+      if (!(step.directive instanceof StringTransform)) {
+        continue;
+      }
+      Set<String> column = ImmutableSet.of(step.column());
+      for (int j = i + 1; j < steps.size(); ++j) {
+        Step next = steps.get(j);
+        if (next.dropped.contains(step.column())) {
+          steps.remove(i);
+          step.directive.destroy();
+          break;
+        }
+        if (!next.isReorderable() || conflicts(column, next.columns) || conflicts(next.columns, column)) {
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Fuses consecutive string transformations that are applied on the same column.
+   */
+  private static void fuseTransforms(List<Step> steps) {
+    int i = 0;
+    while (i < steps.size()) {
+      Step step = steps.get(i);
+      if (!(step.directive instanceof StringTransform)) {
+        i++;
+        continue;
+      }
+      List<Directive> group = new ArrayList<>();
+      group.add(step.directive);
+      int end = i + 1;
+      while (end < steps.size() && steps.get(end).directive instanceof StringTransform
+        && steps.get(end).column().equals(step.column())) {
+        group.add(steps.get(end).directive);
+        end++;
+      }
+      if (group.size() > 1) {
+        steps.subList(i, end).clear();
+        steps.add(i, new Step(new FusedStringTransform(group)));
+      }
+      i++;
+    }
+  }
+
+  /**
+   * Checks whether any of the columns read overlaps with the columns touched. Directives such as
+   * 'split-to-columns' or 'parse-as-json' generate columns prefixed by their source column, so a read of such
+   * a generated column conflicts with the source column as well. Expressions read properties of a column as
+   * dotted variables, such as 'm.k', which read the column 'm'.
+   */
+  private static boolean conflicts(Set<String> read, Set<String> touched) {
+    for (String r : read) {
+      for (String t : touched) {
+        if (r.equals(t) || r.startsWith(t + "_") || r.startsWith(t + ".")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A directive along with the columns it touches, as derived from its lineage.
+   */
+  private static final class Step {
+    private final Directive directive;
+    private final Set<String> columns = new HashSet<>();
+    private final Set<String> dropped = new HashSet<>();
+    private final boolean known;
+
+    Step(Directive directive) {
+      this.directive = directive;
+      this.known = (REORDERABLE.contains(directive.getClass()) || FILTERS.contains(directive.getClass()))
+        && collect(directive);
+    }
+
+    private boolean collect(Directive directive) {
+      Mutation mutation = lineage(directive);
+      if (mutation == null) {
+        return false;
+      }
+      for (Relation relation : mutation.relations()) {
+        if (relation.getType() == Relation.Type.ALL && relation.getTargets().isEmpty()) {
+          // Relation is with all the columns of the row.
+          return false;
+        }
+        for (String source : relation.getSources()) {
+          columns.add(source.toLowerCase());
+          if (relation.getType() == Relation.Type.DROP) {
+            dropped.add(source.toLowerCase());
+          }
+        }
+        for (String target : relation.getTargets()) {
+          columns.add(target.toLowerCase());
+        }
+      }
+      return true;
+    }
+
+    @Nullable
+    private static Mutation lineage(Directive directive) {
+      if (!(directive instanceof Lineage)) {
+        return null;
+      }
+      try {
+        return ((Lineage) directive).lineage();
+      } catch (RuntimeException e) {
+        return null;
+      }
+    }
+
+    boolean isFilter() {
+      return known && FILTERS.contains(directive.getClass());
+    }
+
+    boolean isReorderable() {
+      return known && REORDERABLE.contains(directive.getClass());
+    }
+
+    String column() {
+      return ((StringTransform) directive).getColumn().toLowerCase();
+    }
+  }
+}
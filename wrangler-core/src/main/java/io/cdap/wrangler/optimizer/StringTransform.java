@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.optimizer;
+
+/**
+ * A directive that transforms the string values of a single column and leaves all other values untouched.
+ *
+ * <p>Such a directive produces exactly one row for every row it is given and never fails on a value, which
+ * allows {@link RecipeOptimizer} to remove it when its result is never used and to fuse consecutive transforms
+ * of the same column.</p>
+ */
+public interface StringTransform {
+
+  /**
+   * @return name of the column whose values are transformed.
+   */
+  String getColumn();
+
+  /**
+   * Transforms a single value of the column.
+   *
+   * @param value to be transformed.
+   * @return the transformed value.
+   */
+  String apply(String value);
+}
@@ -24,6 +24,8 @@ import io.cdap.wrangler.api.GrammarMigrator;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 
 import static org.apache.commons.lang3.StringUtils.trim;
@@ -41,6 +43,9 @@ import static org.apache.commons.lang3.StringUtils.trim;
  * </ul></p>
  */
 public final class MigrateToV2 implements GrammarMigrator {
+  // A quoted expression followed by the name of the regex engine to use.
+  private static final Pattern QUOTED_WITH_ENGINE = Pattern.compile("^('[^']*'|\"[^\"]*\")\\s+([A-Za-z]+)$");
+
   private final List<String> recipe;
 
   public MigrateToV2(List<String> recipe) {
@@ -192,8 +197,9 @@ public final class MigrateToV2 implements GrammarMigrator {
           String delimiter = getNextToken(tokenizer, command, "delimiter", lineno);
           String firstCol = getNextToken(tokenizer, command, "new-column-1", lineno);
           String secondCol = getNextToken(tokenizer, command, "new-column-2", lineno);
-          transformed.add(String.format("split %s %s %s %s;", col(source), quote(delimiter),
-                                        col(firstCol), col(secondCol)));
+          String engine = getNextToken(tokenizer, "\n", command, "engine", lineno, true);
+          transformed.add(String.format("split %s %s %s %s%s;", col(source), quote(delimiter),
+                                        col(firstCol), col(secondCol), trailing(engine)));
         }
         break;
 
@@ -320,8 +326,14 @@ public final class MigrateToV2 implements GrammarMigrator {
         case "find-and-replace" : {
           String columns = getNextToken(tokenizer, command, "columns", lineno);
           String expression = getNextToken(tokenizer, "\n", command, "sed-script", lineno);
-          transformed.add(String.format("find-and-replace %s %s;",
-                                        toColumArray(columns.split(",")), quote(expression)));
+          String engine = null;
+          Matcher matcher = QUOTED_WITH_ENGINE.matcher(expression);
+          if (matcher.matches()) {
+            expression = matcher.group(1);
+            engine = matcher.group(2);
+          }
+          transformed.add(String.format("find-and-replace %s %s%s;",
+                                        toColumArray(columns.split(",")), quote(expression), trailing(engine)));
         }
         break;
 
@@ -559,11 +571,11 @@ public final class MigrateToV2 implements GrammarMigrator {
         }
         break;
 
-        // parse-as-hl7 <column> [<depth>]
+        // parse-as-hl7 <column> [<depth>] [<mode>]
         case "parse-as-hl7" : {
           String column = getNextToken(tokenizer, command, "column", lineno);
           String depthOpt = getNextToken(tokenizer, "\n", command, "depth", lineno, true);
-          transformed.add(String.format("parse-as-hl7 %s %s;", col(column), depthOpt));
+          transformed.add(String.format("parse-as-hl7 %s%s;", col(column), trailing(depthOpt)));
         }
         break;
 
@@ -691,7 +703,8 @@ public final class MigrateToV2 implements GrammarMigrator {
         case "extract-regex-groups" : {
           String column = getNextToken(tokenizer, command, "column", lineno);
           String regex = getNextToken(tokenizer, command, "regex", lineno);
-          transformed.add(String.format("extract-regex-groups %s %s;", col(column), quote(regex)));
+          String engine = getNextToken(tokenizer, "\n", command, "engine", lineno, true);
+          transformed.add(String.format("extract-regex-groups %s %s%s;", col(column), quote(regex), trailing(engine)));
         }
         break;
 
@@ -786,6 +799,14 @@ public final class MigrateToV2 implements GrammarMigrator {
     return String.format("'%s'", value);
   }
 
+  // Optional trailing arguments, such as the regex engine following a pattern.
+  private static String trailing(@Nullable String value) {
+    if (value == null || value.isEmpty()) {
+      return "";
+    }
+    return " " + value;
+  }
+
   private static String col(String value) {
     if (value.startsWith(":")) {
       return value;
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link RegexEngine} backed by {@link java.util.regex}. It supports the full Java regex syntax, including
+ * back references and look-arounds, but its backtracking matcher can take exponential time on some patterns.
+ */
+final class JavaRegexEngine implements RegexEngine {
+  static final String NAME = "java";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public Regex compile(String regex) {
+    return new JavaRegex(Pattern.compile(regex));
+  }
+
+  /**
+   * {@link Regex} of a compiled {@link Pattern}.
+   */
+  private static final class JavaRegex implements Regex {
+    private final Pattern pattern;
+    private final int groupCount;
+
+    JavaRegex(Pattern pattern) {
+      this.pattern = pattern;
+      this.groupCount = pattern.matcher("").groupCount();
+    }
+
+    @Override
+    public String pattern() {
+      return pattern.pattern();
+    }
+
+    @Override
+    public int groupCount() {
+      return groupCount;
+    }
+
+    @Override
+    public boolean matches(CharSequence input) {
+      return pattern.matcher(input).matches();
+    }
+
+    @Override
+    public RegexMatcher matcher(CharSequence input) {
+      Matcher matcher = pattern.matcher(input);
+      return new RegexMatcher() {
+        @Override
+        public boolean find() {
+          return matcher.find();
+        }
+
+        @Override
+        public int start() {
+          return matcher.start();
+        }
+
+        @Override
+        public int end() {
+          return matcher.end();
+        }
+
+        @Override
+        public String group(int group) {
+          return matcher.group(group);
+        }
+
+        @Override
+        public void appendReplacement(StringBuffer buffer, String replacement) {
+          matcher.appendReplacement(buffer, replacement);
+        }
+
+        @Override
+        public void appendTail(StringBuffer buffer) {
+          matcher.appendTail(buffer);
+        }
+      };
+    }
+
+    @Override
+    public String[] split(String input, int limit) {
+      return pattern.split(input, limit);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RegexEngine} backed by RE2/J, which matches in time linear in the size of the input whatever the
+ * pattern is. It supports the common regex syntax: character classes, alternation, repetition, anchors,
+ * capturing and non-capturing groups and inline flags, but not back references or look-arounds.
+ */
+final class LinearRegexEngine implements RegexEngine {
+  static final String NAME = "linear";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public Regex compile(String regex) {
+    try {
+      return new LinearRegex(Pattern.compile(regex));
+    } catch (PatternSyntaxException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * {@link Regex} of a compiled RE2/J {@link Pattern}.
+   */
+  private static final class LinearRegex implements Regex {
+    private final Pattern pattern;
+
+    LinearRegex(Pattern pattern) {
+      this.pattern = pattern;
+    }
+
+    @Override
+    public String pattern() {
+      return pattern.pattern();
+    }
+
+    @Override
+    public int groupCount() {
+      return pattern.groupCount();
+    }
+
+    @Override
+    public boolean matches(CharSequence input) {
+      return pattern.matcher(input).matches();
+    }
+
+    @Override
+    public RegexMatcher matcher(CharSequence input) {
+      Matcher matcher = pattern.matcher(input);
+      return new RegexMatcher() {
+        @Override
+        public boolean find() {
+          return matcher.find();
+        }
+
+        @Override
+        public int start() {
+          return matcher.start();
+        }
+
+        @Override
+        public int end() {
+          return matcher.end();
+        }
+
+        @Override
+        public String group(int group) {
+          return matcher.group(group);
+        }
+
+        @Override
+        public void appendReplacement(StringBuffer buffer, String replacement) {
+          matcher.appendReplacement(buffer, replacement);
+        }
+
+        @Override
+        public void appendTail(StringBuffer buffer) {
+          matcher.appendTail(buffer);
+        }
+      };
+    }
+
+    @Override
+    public String[] split(String input, int limit) {
+      // Same algorithm as java.util.regex.Pattern, which unlike RE2/J doesn't produce a leading empty string
+      // for an empty match at the beginning of the input.
+      List<String> parts = new ArrayList<>();
+      boolean limited = limit > 0;
+      int index = 0;
+      Matcher matcher = pattern.matcher(input);
+      while (matcher.find()) {
+        if (!limited || parts.size() < limit - 1) {
+          if (index == 0 && matcher.start() == 0 && matcher.end() == 0) {
+            continue;
+          }
+          parts.add(input.substring(index, matcher.start()));
+          index = matcher.end();
+        } else if (parts.size() == limit - 1) {
+          parts.add(input.substring(index));
+          index = matcher.end();
+        }
+      }
+      if (index == 0) {
+        return new String[] { input };
+      }
+      if (!limited || parts.size() < limit) {
+        parts.add(input.substring(index));
+      }
+      int size = parts.size();
+      if (limit == 0) {
+        while (size > 0 && parts.get(size - 1).isEmpty()) {
+          size--;
+        }
+      }
+      return parts.subList(0, size).toArray(new String[size]);
+    }
+  }
+}
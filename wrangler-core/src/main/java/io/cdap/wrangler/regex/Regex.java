@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+/**
+ * A compiled regular expression of a {@link RegexEngine}. Instances are thread safe.
+ */
+public interface Regex {
+
+  /**
+   * @return the regular expression this was compiled from.
+   */
+  String pattern();
+
+  /**
+   * @return number of capturing groups in the regular expression.
+   */
+  int groupCount();
+
+  /**
+   * @return true if the entire input matches the regular expression.
+   */
+  boolean matches(CharSequence input);
+
+  /**
+   * Creates a matcher over the input. Matchers are not thread safe.
+   */
+  RegexMatcher matcher(CharSequence input);
+
+  /**
+   * Splits the input around matches of the regular expression, as {@link String#split(String, int)} does.
+   */
+  String[] split(String input, int limit);
+}
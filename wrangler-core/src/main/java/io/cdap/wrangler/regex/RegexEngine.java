@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+/**
+ * An implementation of regular expressions used by directives that match user supplied patterns
+ * against column values.
+ *
+ * @see RegexEngines
+ */
+public interface RegexEngine {
+
+  /**
+   * @return name of the engine, as used in recipes and in the {@link RegexEngines#ENGINE_PROPERTY} property.
+   */
+  String getName();
+
+  /**
+   * Compiles a regular expression.
+   *
+   * @param regex to be compiled.
+   * @return compiled regular expression.
+   * @throws IllegalArgumentException if the regex is invalid or uses features the engine doesn't support.
+   */
+  Regex compile(String regex);
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import io.cdap.wrangler.api.ExecutorContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link RegexEngine}s available to directives.
+ *
+ * <p>Directives that match regular expressions use the {@link #JAVA} engine unless the recipe names another
+ * engine for the directive, or the pipeline sets the {@link #ENGINE_PROPERTY} runtime argument.</p>
+ */
+public final class RegexEngines {
+  /**
+   * Runtime argument for the engine used by directives that don't name one.
+   */
+  public static final String ENGINE_PROPERTY = "wrangler.regex.engine";
+
+  /**
+   * Runtime argument that lets patterns not supported by the {@link #ENGINE_PROPERTY} engine use the {@link #JAVA}
+   * engine instead of failing the directive. Disabled unless set to {@code true}.
+   */
+  public static final String FALLBACK_PROPERTY = "wrangler.regex.engine.fallback";
+
+  /**
+   * Backtracking engine of {@link java.util.regex}, the default.
+   */
+  public static final RegexEngine JAVA = new JavaRegexEngine();
+
+  /**
+   * Linear time engine, safe to use with untrusted patterns and data.
+   */
+  public static final RegexEngine LINEAR = new LinearRegexEngine();
+
+  private static final Map<String, RegexEngine> ENGINES = new LinkedHashMap<>();
+
+  static {
+    ENGINES.put(JAVA.getName(), JAVA);
+    ENGINES.put(LINEAR.getName(), LINEAR);
+  }
+
+  private RegexEngines() {
+  }
+
+  /**
+   * Returns the engine with the given name.
+   *
+   * @param name of the engine, case insensitive.
+   * @return the engine.
+   * @throws IllegalArgumentException if there is no such engine.
+   */
+  public static RegexEngine get(String name) {
+    RegexEngine engine = ENGINES.get(name.trim().toLowerCase());
+    if (engine == null) {
+      throw new IllegalArgumentException(
+        String.format("Unknown regex engine '%s'. Supported engines are %s.", name, ENGINES.keySet()));
+    }
+    return engine;
+  }
+
+  /**
+   * Returns the engine configured for the pipeline through the {@link #ENGINE_PROPERTY} runtime argument.
+   *
+   * @param context of the pipeline, may be null.
+   * @return the configured engine, or {@link #JAVA} if none is configured.
+   * @throws IllegalArgumentException if the configured engine doesn't exist.
+   */
+  public static RegexEngine configured(@Nullable ExecutorContext context) {
+    Map<String, String> properties = context == null ? null : context.getProperties();
+    String name = properties == null ? null : properties.get(ENGINE_PROPERTY);
+    if (name == null || name.trim().isEmpty()) {
+      return JAVA;
+    }
+    return get(name);
+  }
+
+  /**
+   * Returns whether the pipeline allows patterns not supported by the configured engine to use the {@link #JAVA}
+   * engine, through the {@link #FALLBACK_PROPERTY} runtime argument.
+   *
+   * @param context of the pipeline, may be null.
+   */
+  public static boolean fallback(@Nullable ExecutorContext context) {
+    Map<String, String> properties = context == null ? null : context.getProperties();
+    return properties != null && Boolean.parseBoolean(properties.get(FALLBACK_PROPERTY));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import javax.annotation.Nullable;
+
+/**
+ * Finds matches of a {@link Regex} in an input, with the semantics of {@link java.util.regex.Matcher}.
+ */
+public interface RegexMatcher {
+
+  /**
+   * Finds the next match in the input.
+   *
+   * @return true if a match was found.
+   */
+  boolean find();
+
+  /**
+   * @return index of the first character of the last match.
+   */
+  int start();
+
+  /**
+   * @return index after the last character of the last match.
+   */
+  int end();
+
+  /**
+   * @return input matched by the group of the last match, or null if the group didn't participate in it.
+   */
+  @Nullable
+  String group(int group);
+
+  /**
+   * Appends the input since the previous match, followed by the replacement of the last match. Groups are
+   * referenced in the replacement as <code>$n</code>.
+   */
+  void appendReplacement(StringBuffer buffer, String replacement);
+
+  /**
+   * Appends the input after the last match.
+   */
+  void appendTail(StringBuffer buffer);
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ExecutorContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * The patterns of a directive, compiled with the {@link RegexEngine} selected for it.
+ *
+ * <p>An engine named in the recipe is used as is, and the patterns must be supported by it. Otherwise the
+ * patterns are validated with the {@link RegexEngines#JAVA} engine when the directive is initialized, and
+ * compiled again on first use if the pipeline configures another engine. Patterns that the configured engine
+ * doesn't support fail the directive, unless the pipeline also sets {@link RegexEngines#FALLBACK_PROPERTY}, in
+ * which case they keep using the Java engine.</p>
+ *
+ * @param <T> type of the compiled patterns.
+ */
+public final class RegexSelection<T> {
+  private static final Logger LOG = LoggerFactory.getLogger(RegexSelection.class);
+
+  /**
+   * Compiles the patterns of a directive with an engine.
+   *
+   * @param <T> type of the compiled patterns.
+   */
+  public interface Compiler<T> {
+
+    /**
+     * @throws IllegalArgumentException if the patterns are invalid or not supported by the engine.
+     */
+    T compile(RegexEngine engine);
+  }
+
+  private final String directive;
+  private final Compiler<T> compiler;
+  private final boolean named;
+  private final T compiled;
+  // Patterns compiled with the engines configured by pipelines, or the error if an engine doesn't support them.
+  private final ConcurrentMap<RegexEngine, Compilation<T>> configured = new ConcurrentHashMap<>();
+
+  private RegexSelection(String directive, Compiler<T> compiler, boolean named, T compiled) {
+    this.directive = directive;
+    this.compiler = compiler;
+    this.named = named;
+    this.compiled = compiled;
+  }
+
+  /**
+   * Compiles the patterns of a directive.
+   *
+   * @param directive name of the directive, for error messages.
+   * @param engine name of the engine specified in the recipe, or null if none was specified.
+   * @param compiler compiling the patterns.
+   * @return the compiled patterns.
+   * @throws DirectiveParseException if the engine doesn't exist, or the patterns can't be compiled with it.
+   */
+  public static <T> RegexSelection<T> create(String directive, @Nullable String engine, Compiler<T> compiler)
+    throws DirectiveParseException {
+    RegexEngine selected;
+    try {
+      selected = engine == null ? RegexEngines.JAVA : RegexEngines.get(engine);
+    } catch (IllegalArgumentException e) {
+      throw new DirectiveParseException(directive, e.getMessage(), e);
+    }
+    try {
+      return new RegexSelection<>(directive, compiler, engine != null, compiler.compile(selected));
+    } catch (IllegalArgumentException e) {
+      throw new DirectiveParseException(
+        directive, String.format("Invalid pattern for the '%s' regex engine. %s", selected.getName(), e.getMessage()),
+        e);
+    }
+  }
+
+  /**
+   * Returns the patterns compiled with the engine selected for the directive.
+   *
+   * @param context of the pipeline, may be null.
+   * @throws DirectiveExecutionException if the pipeline configures an unknown engine, or an engine that doesn't
+   * support the patterns without allowing the fallback to the Java engine.
+   */
+  public T get(@Nullable ExecutorContext context) throws DirectiveExecutionException {
+    if (named) {
+      return compiled;
+    }
+    RegexEngine engine;
+    try {
+      engine = RegexEngines.configured(context);
+    } catch (IllegalArgumentException e) {
+      throw new DirectiveExecutionException(directive, e.getMessage(), e);
+    }
+    if (engine == RegexEngines.JAVA) {
+      return compiled;
+    }
+    Compilation<T> compilation = configured.computeIfAbsent(engine, this::compile);
+    if (compilation.patterns != null) {
+      return compilation.patterns;
+    }
+    if (!RegexEngines.fallback(context)) {
+      throw new DirectiveExecutionException(
+        directive, String.format("Pattern not supported by the '%s' regex engine configured with '%s'. %s "
+                                   + "Set '%s' to true to use the '%s' engine for such patterns.",
+                                 engine.getName(), RegexEngines.ENGINE_PROPERTY, compilation.error,
+                                 RegexEngines.FALLBACK_PROPERTY, RegexEngines.JAVA.getName()));
+    }
+    return compiled;
+  }
+
+  private Compilation<T> compile(RegexEngine engine) {
+    try {
+      return new Compilation<>(compiler.compile(engine), null);
+    } catch (IllegalArgumentException e) {
+      LOG.debug("Directive '{}' uses a pattern not supported by the '{}' regex engine. {}",
+                directive, engine.getName(), e.getMessage());
+      return new Compilation<>(null, e.getMessage());
+    }
+  }
+
+  /**
+   * Patterns compiled with an engine, or the reason the engine doesn't support them.
+   */
+  private static final class Compilation<T> {
+    @Nullable
+    private final T patterns;
+    @Nullable
+    private final String error;
+
+    private Compilation(@Nullable T patterns, @Nullable String error) {
+      this.patterns = patterns;
+      this.error = error;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.artifact.ArtifactId;
 import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.Finishable;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.parser.DirectiveClass;
@@ -92,6 +93,13 @@ public final class DirectiveInfo {
     }
   }
 
+  /**
+   * @return true if the directive is {@link Finishable}, producing rows once all the input has been executed.
+   */
+  public boolean isFinishable() {
+    return Finishable.class.isAssignableFrom(directive);
+  }
+
   /**
    * @return a {@link DirectiveClass} which contains the class information of this directive.
    */
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.Map;
+
+/**
+ * A small per-thread cache of parsed JSON documents.
+ *
+ * <p>A recipe often applies several <code>json-path</code> directives or <code>json:</code> functions to the
+ * same column of a row. Each of them used to parse the column text on its own; this cache lets them share the
+ * first parse. Documents are keyed by the identity of the string they were parsed from: a row column is read
+ * as the very same {@link String} instance by every directive in the recipe until it's replaced, so an identity
+ * hit is always a parse of exactly that text.</p>
+ *
+ * <p>Trees returned by {@link #parse(String)} are shared and must not be modified. Callers that hand the tree
+ * out or modify it use {@link #parseCopy(String)}.</p>
+ */
+public final class JsonDocumentCache {
+  // Number of documents remembered per thread; covers a handful of JSON columns per row.
+  private static final int SLOTS = 8;
+  // Documents longer than this are parsed but not retained.
+  private static final int MAX_LENGTH = 1 << 20;
+  private static final JsonParser PARSER = new JsonParser();
+  private static final ThreadLocal<Slots> CACHE = ThreadLocal.withInitial(Slots::new);
+
+  private JsonDocumentCache() {
+  }
+
+  /**
+   * Parses a JSON document, reusing the tree of an earlier parse of the same string on this thread.
+   *
+   * @param json string representation of json.
+   * @return a shared, read-only tree of the document.
+   * @throws com.google.gson.JsonParseException if the json is invalid.
+   */
+  public static JsonElement parse(String json) {
+    Slots slots = CACHE.get();
+    JsonElement element = slots.get(json);
+    if (element == null) {
+      element = PARSER.parse(json);
+      if (json.length() <= MAX_LENGTH) {
+        slots.put(json, element);
+      }
+    }
+    return element;
+  }
+
+  /**
+   * Parses a JSON document into a tree owned by the caller.
+   *
+   * @param json string representation of json.
+   * @return a tree of the document that can be freely modified.
+   * @throws com.google.gson.JsonParseException if the json is invalid.
+   */
+  public static JsonElement parseCopy(String json) {
+    JsonElement element = CACHE.get().get(json);
+    if (element == null) {
+      return PARSER.parse(json);
+    }
+    return copy(element);
+  }
+
+  /**
+   * Creates a deep copy of a json tree. Primitives are immutable and are shared with the source.
+   *
+   * @param element to be copied.
+   * @return copy of the element.
+   */
+  public static JsonElement copy(JsonElement element) {
+    if (element.isJsonObject()) {
+      JsonObject object = new JsonObject();
+      for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+        object.add(entry.getKey(), copy(entry.getValue()));
+      }
+      return object;
+    } else if (element.isJsonArray()) {
+      JsonArray array = new JsonArray();
+      for (JsonElement child : element.getAsJsonArray()) {
+        array.add(copy(child));
+      }
+      return array;
+    }
+    return element;
+  }
+
+  /**
+   * Fixed number of documents, replaced in round robin order.
+   */
+  private static final class Slots {
+    private final String[] keys = new String[SLOTS];
+    private final JsonElement[] documents = new JsonElement[SLOTS];
+    private int next;
+
+    JsonElement get(String json) {
+      for (int i = 0; i < SLOTS; i++) {
+        if (keys[i] == json) {
+          return documents[i];
+        }
+      }
+      return null;
+    }
+
+    void put(String json, JsonElement document) {
+      keys[next] = json;
+      documents[next] = document;
+      next = (next + 1) % SLOTS;
+    }
+  }
+}
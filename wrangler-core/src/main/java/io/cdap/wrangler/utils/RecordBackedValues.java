@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.utils;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Values of a {@link io.cdap.wrangler.api.Row} that are read from a {@link StructuredRecord} only when they
+ * are first accessed. Values that are overwritten or removed before being read are never converted.
+ *
+ * <p>Replacing or removing a value that was never read returns {@code null} instead of the previous value.</p>
+ */
+final class RecordBackedValues extends AbstractList<Object> implements RandomAccess, Serializable {
+  // Marks a slot whose value has not been read from the record yet.
+  private static final Object UNLOADED = new Object();
+
+  private final StructuredRecord record;
+  private final List<Schema.Field> fields;
+  private final ArrayList<Object> values;
+  // Index of the record field each slot is read from. Only maintained while there are unloaded slots.
+  private int[] sources;
+  private int unloaded;
+
+  RecordBackedValues(StructuredRecord record, List<Schema.Field> fields) {
+    this.record = record;
+    this.fields = fields;
+    this.values = new ArrayList<>(Collections.nCopies(fields.size(), UNLOADED));
+    this.unloaded = fields.size();
+    this.sources = new int[fields.size()];
+    for (int i = 0; i < sources.length; ++i) {
+      sources[i] = i;
+    }
+  }
+
+  @Override
+  public Object get(int index) {
+    Object value = values.get(index);
+    if (value == UNLOADED) {
+      value = StructuredToRowTransformer.getValue(record, fields.get(sources[index]));
+      values.set(index, value);
+      unloaded--;
+    }
+    return value;
+  }
+
+  @Override
+  public Object set(int index, Object element) {
+    Object previous = values.set(index, element);
+    if (previous == UNLOADED) {
+      unloaded--;
+      return null;
+    }
+    return previous;
+  }
+
+  @Override
+  public void add(int index, Object element) {
+    values.add(index, element);
+    modCount++;
+    if (unloaded > 0) {
+      if (values.size() > sources.length) {
+        sources = Arrays.copyOf(sources, Math.max(values.size(), sources.length + (sources.length >> 1)));
+      }
+      System.arraycopy(sources, index, sources, index + 1, values.size() - index - 1);
+    }
+  }
+
+  @Override
+  public Object remove(int index) {
+    Object previous = values.remove(index);
+    modCount++;
+    if (unloaded > 0) {
+      System.arraycopy(sources, index + 1, sources, index, values.size() - index);
+    }
+    if (previous == UNLOADED) {
+      unloaded--;
+      return null;
+    }
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Serializes the values as a plain list, reading all the values that were not accessed yet.
+   */
+  private Object writeReplace() {
+    return new ArrayList<>(this);
+  }
+}
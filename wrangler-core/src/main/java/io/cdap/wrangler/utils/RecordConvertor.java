@@ -37,14 +37,21 @@ import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import javax.annotation.Nullable;
 
 /**
  * Converts {@link Row} to {@link StructuredRecord}.
  */
 public final class RecordConvertor implements Serializable {
+  // Upper bound on the number of schemas for which decode plans are kept around.
+  private static final int MAX_CACHED_PLANS = 64;
+
+  // Compiled decode plans, keyed by the identity of the output schema.
+  private transient Map<Schema, DecodePlan> plans;
 
   /**
    * Converts a list of {@link Row} into populated list of {@link StructuredRecord}
@@ -75,23 +82,131 @@ public final class RecordConvertor implements Serializable {
       return null;
     }
     // TODO: This is a hack to workaround StructuredRecord processing. NEED TO RETHINK.
-    if (row.getFields().size() == 1) {
+    if (row.width() == 1) {
       Object cell = row.getValue(0);
       if (cell instanceof StructuredRecord) {
         return (StructuredRecord) cell;
       }
     }
+    DecodePlan plan = getPlan(row, schema);
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    for (FieldPlan field : plan.fields) {
+      Object value = field.slot == -1 ? null : row.getValue(field.slot);
+      try {
+        setField(builder, field.name, field.decoder.decode(value));
+      } catch (UnexpectedFormatException e) {
+        throw new RecordConvertorException(
+          String.format("Field '%s' of type '%s' cannot be set to '%s'. Make sure the value is " +
+                          "being set is inline with the specified schema.",
+                        field.name, field.displayType, value == null ? "NULL" : value), e);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Converts a Wrangler {@link Row} into a {@link StructuredRecord} that can be emitted as is. In addition to
+   * what {@link #decodeRecord(Row, Schema)} does, string values are converted to the type of the field they
+   * are set on in the same way as {@link StructuredRecord.Builder#convertAndSet(String, String)}.
+   *
+   * <p>Failures decoding a value are reported as {@link RecordConvertorException}. Failures converting a string
+   * value are only surfaced after the whole row has been decoded, wrapped in a {@link ConversionException}.</p>
+   *
+   * @param row    defines a single {@link Row}
+   * @param schema Schema associated with {@link StructuredRecord}
+   * @return Populated {@link StructuredRecord}
+   */
+  public StructuredRecord toOutputRecord(Row row, Schema schema) throws RecordConvertorException {
+    // TODO: This is a hack to workaround StructuredRecord processing. NEED TO RETHINK.
+    if (row.width() == 1) {
+      Object cell = row.getValue(0);
+      if (cell instanceof StructuredRecord) {
+        return toOutputRecord((StructuredRecord) cell, schema);
+      }
+    }
+    DecodePlan plan = getPlan(row, schema);
     StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    RuntimeException conversionFailure = null;
+    for (FieldPlan field : plan.fields) {
+      Object value = field.slot == -1 ? null : row.getValue(field.slot);
+      Object decodedObj;
+      try {
+        decodedObj = field.decoder.decode(value);
+        if (field.stringType || !(decodedObj instanceof String)) {
+          setField(builder, field.name, decodedObj);
+          continue;
+        }
+      } catch (UnexpectedFormatException e) {
+        throw new RecordConvertorException(
+          String.format("Field '%s' of type '%s' cannot be set to '%s'. Make sure the value is " +
+                          "being set is inline with the specified schema.",
+                        field.name, field.displayType, value == null ? "NULL" : value), e);
+      }
+      if (conversionFailure == null) {
+        try {
+          builder.convertAndSet(field.name, (String) decodedObj);
+        } catch (RuntimeException e) {
+          conversionFailure = e;
+        }
+      }
+    }
+    if (conversionFailure != null) {
+      throw new ConversionException(conversionFailure);
+    }
+    return builder.build();
+  }
+
+  private static StructuredRecord toOutputRecord(StructuredRecord record, Schema schema) {
+    try {
+      StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+      for (Schema.Field field : schema.getFields()) {
+        Object value = record.get(field.getName());
+        if (value instanceof String) {
+          builder.convertAndSet(field.getName(), (String) value);
+        } else {
+          builder.set(field.getName(), value);
+        }
+      }
+      return builder.build();
+    } catch (RuntimeException e) {
+      throw new ConversionException(e);
+    }
+  }
+
+  /**
+   * Returns the decode plan for the output schema and the column layout of the row. Plans are cached
+   * by schema identity and are recompiled only when a row with a different column layout shows up.
+   */
+  private DecodePlan getPlan(Row row, Schema schema) {
+    if (plans == null) {
+      plans = new IdentityHashMap<>();
+    }
+    DecodePlan plan = plans.get(schema);
+    if (plan != null && plan.matches(row)) {
+      return plan;
+    }
+    if (plans.size() >= MAX_CACHED_PLANS) {
+      plans.clear();
+    }
+    plan = compile(row, schema);
+    plans.put(schema, plan);
+    return plan;
+  }
+
+  /**
+   * Compiles the plan for mapping a row with the given column layout to the output schema. The slot
+   * resolution mirrors what would be done for each row: the fields are expected to be in the same order
+   * as the columns of the row, and only if they are not a case insensitive search is performed.
+   */
+  private DecodePlan compile(Row row, Schema schema) {
     List<Schema.Field> fields = schema.getFields();
-    // We optimize for use case where wrangler list of fields is equal to the output schema one
+    FieldPlan[] plans = new FieldPlan[fields.size()];
     // This value would hold first row field index that we did not map to schema yet
     int firstUnclaimedField = 0;
+    int i = 0;
     for (Schema.Field field : fields) {
-      Schema fSchema = field.getSchema();
-      boolean isNullable = fSchema.isNullable();
       String name = field.getName();
-      Object value = null;
-      int idx = -1;
+      int idx;
       if ((firstUnclaimedField < row.width()) && (name.equals(row.getColumn(firstUnclaimedField)))) {
         idx = firstUnclaimedField;
         firstUnclaimedField++;
@@ -101,34 +216,95 @@ public final class RecordConvertor implements Serializable {
           firstUnclaimedField++;
         }
       }
-      if (idx != -1) {
-        value = row.getValue(idx);
-      }
-      try {
-        Object decodedObj = decode(name, value, field.getSchema());
-        if (decodedObj instanceof LocalDate) {
-          builder.setDate(name, (LocalDate) decodedObj);
-        } else if (decodedObj instanceof LocalTime) {
-          builder.setTime(name, (LocalTime) decodedObj);
-        } else if (decodedObj instanceof ZonedDateTime) {
-          builder.setTimestamp(name, (ZonedDateTime) decodedObj);
-        } else if (decodedObj instanceof BigDecimal) {
-          builder.setDecimal(name, (BigDecimal) decodedObj);
-        } else if (decodedObj instanceof LocalDateTime) {
-          builder.setDateTime(name, (LocalDateTime) decodedObj);
-        } else {
-          builder.set(name, decodedObj);
-        }
-      } catch (UnexpectedFormatException e) {
-        throw new RecordConvertorException(
-          String.format("Field '%s' of type '%s' cannot be set to '%s'. Make sure the value is " +
-                          "being set is inline with the specified schema.",
-                        name,
-                        isNullable ? fSchema.getNonNullable().getDisplayName() : fSchema.getDisplayName(),
-                        value == null ? "NULL" : value), e);
+      Schema fSchema = field.getSchema();
+      String displayType = fSchema.isNullable() ? fSchema.getNonNullable().getDisplayName() : fSchema.getDisplayName();
+      Schema.Type type = fSchema.isNullable() ? fSchema.getNonNullable().getType() : fSchema.getType();
+      plans[i++] = new FieldPlan(name, idx, displayType, type == Schema.Type.STRING, compileDecoder(name, fSchema));
+    }
+    String[] columns = new String[row.width()];
+    for (int j = 0; j < columns.length; ++j) {
+      columns[j] = row.getColumn(j);
+    }
+    return new DecodePlan(columns, plans);
+  }
+
+  /**
+   * Compiles a decoder for the schema of a field. This resolves nullability, logical types and unions
+   * once, so that decoding a value is only the type specific conversion.
+   */
+  private FieldDecoder compileDecoder(String name, Schema schema) {
+    boolean isNullable = schema.isNullable();
+    Schema.Type type = schema.getType();
+    Schema.LogicalType logicalType = isNullable ? schema.getNonNullable().getLogicalType() : schema.getLogicalType();
+
+    FieldDecoder decoder;
+    if (logicalType != null) {
+      decoder = object -> decodeLogicalType(name, object, logicalType, isNullable);
+    } else {
+      switch (type) {
+        case NULL:
+        case BOOLEAN:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case BYTES:
+        case STRING:
+          decoder = object -> decodeSimpleTypes(name, object, schema);
+          break;
+        case ARRAY:
+          Schema component = schema.getComponentSchema();
+          decoder = object -> decodeArray(name, object, component);
+          break;
+        case RECORD:
+          decoder = object -> decodeRecord(name, object, schema);
+          break;
+        case MAP:
+          Schema key = schema.getMapSchema().getKey();
+          Schema value = schema.getMapSchema().getValue();
+          // Should be fine to cast since schema tells us what it is.
+          // noinspection unchecked
+          decoder = object -> decodeMap(name, (Map<Object, Object>) object, key, value);
+          break;
+        case UNION:
+          List<Schema> schemas = schema.getUnionSchemas();
+          if (schemas.isEmpty()) {
+            decoder = object -> {
+              throw new RecordConvertorException(String.format("Unable decode object '%s'.", name));
+            };
+          } else {
+            decoder = compileDecoder(name, schemas.get(0));
+          }
+          break;
+        default:
+          decoder = object -> {
+            throw new RecordConvertorException(
+              String.format("Unable decode object '%s' with schema type '%s'.", name, type.toString()));
+          };
       }
     }
-    return builder.build();
+
+    if (isNullable) {
+      FieldDecoder nonNullable = decoder;
+      return object -> object == null ? null : nonNullable.decode(object);
+    }
+    return decoder;
+  }
+
+  private static void setField(StructuredRecord.Builder builder, String name, @Nullable Object decodedObj) {
+    if (decodedObj instanceof LocalDate) {
+      builder.setDate(name, (LocalDate) decodedObj);
+    } else if (decodedObj instanceof LocalTime) {
+      builder.setTime(name, (LocalTime) decodedObj);
+    } else if (decodedObj instanceof ZonedDateTime) {
+      builder.setTimestamp(name, (ZonedDateTime) decodedObj);
+    } else if (decodedObj instanceof BigDecimal) {
+      builder.setDecimal(name, (BigDecimal) decodedObj);
+    } else if (decodedObj instanceof LocalDateTime) {
+      builder.setDateTime(name, (LocalDateTime) decodedObj);
+    } else {
+      builder.set(name, decodedObj);
+    }
   }
 
   private Object decode(String name, Object object, Schema schema) throws RecordConvertorException {
@@ -143,33 +319,7 @@ public final class RecordConvertor implements Serializable {
     Schema.LogicalType logicalType = isNullable ? schema.getNonNullable().getLogicalType() : schema.getLogicalType();
 
     if (logicalType != null) {
-      switch (logicalType) {
-        case DATETIME:
-          if (isNullable && object == null || object instanceof LocalDateTime) {
-            return object;
-          }
-          if (object == null) {
-            throw new UnexpectedFormatException(
-              String.format("Datetime field %s should have a non null value", name));
-          }
-          try {
-            LocalDateTime.parse((String) object);
-          } catch (DateTimeParseException exception) {
-            throw new UnexpectedFormatException(
-              String.format("Datetime field '%s' with value '%s' is not in ISO-8601 format.",
-                            name, object), exception);
-          }
-          return object;
-        case DATE:
-        case TIME_MILLIS:
-        case TIME_MICROS:
-        case TIMESTAMP_MILLIS:
-        case TIMESTAMP_MICROS:
-        case DECIMAL:
-          return object;
-        default:
-          throw new UnexpectedFormatException("field type " + logicalType + " is not supported.");
-      }
+      return decodeLogicalType(name, object, logicalType, isNullable);
     }
 
     // Now based on the type, do the necessary decoding.
@@ -204,6 +354,36 @@ public final class RecordConvertor implements Serializable {
     );
   }
 
+  private Object decodeLogicalType(String name, Object object, Schema.LogicalType logicalType, boolean isNullable) {
+    switch (logicalType) {
+      case DATETIME:
+        if (isNullable && object == null || object instanceof LocalDateTime) {
+          return object;
+        }
+        if (object == null) {
+          throw new UnexpectedFormatException(
+            String.format("Datetime field %s should have a non null value", name));
+        }
+        try {
+          LocalDateTime.parse((String) object);
+        } catch (DateTimeParseException exception) {
+          throw new UnexpectedFormatException(
+            String.format("Datetime field '%s' with value '%s' is not in ISO-8601 format.",
+                          name, object), exception);
+        }
+        return object;
+      case DATE:
+      case TIME_MILLIS:
+      case TIME_MICROS:
+      case TIMESTAMP_MILLIS:
+      case TIMESTAMP_MICROS:
+      case DECIMAL:
+        return object;
+      default:
+        throw new UnexpectedFormatException("field type " + logicalType + " is not supported.");
+    }
+  }
+
   @Nullable
   private StructuredRecord decodeRecord(String name,
                                         @Nullable Object object, Schema schema) throws RecordConvertorException {
@@ -455,4 +635,76 @@ public final class RecordConvertor implements Serializable {
     }
     return array;
   }
+
+  /**
+   * Decodes the value of a single field as per its schema.
+   */
+  private interface FieldDecoder {
+    @Nullable
+    Object decode(@Nullable Object object) throws RecordConvertorException;
+  }
+
+  /**
+   * Resolved slot and decoder for a single field of the output schema.
+   */
+  private static final class FieldPlan {
+    private final String name;
+    private final int slot;
+    private final String displayType;
+    // String values set on a field of type string do not need any further conversion.
+    private final boolean stringType;
+    private final FieldDecoder decoder;
+
+    FieldPlan(String name, int slot, String displayType, boolean stringType, FieldDecoder decoder) {
+      this.name = name;
+      this.slot = slot;
+      this.displayType = displayType;
+      this.stringType = stringType;
+      this.decoder = decoder;
+    }
+  }
+
+  /**
+   * Plan for decoding rows of a specific column layout into records of an output schema.
+   */
+  private static final class DecodePlan {
+    private final String[] columns;
+    private final FieldPlan[] fields;
+
+    DecodePlan(String[] columns, FieldPlan[] fields) {
+      this.columns = columns;
+      this.fields = fields;
+    }
+
+    /**
+     * @return true if the row has the same column layout as the one this plan was compiled for.
+     */
+    boolean matches(Row row) {
+      if (row.width() != columns.length) {
+        return false;
+      }
+      for (int i = 0; i < columns.length; ++i) {
+        String column = row.getColumn(i);
+        if (column != columns[i] && !Objects.equals(columns[i], column)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Thrown by {@link #toOutputRecord(Row, Schema)} when a value could not be set on the output record after
+   * it has been decoded. The cause is the failure raised by the {@link StructuredRecord.Builder}.
+   */
+  public static final class ConversionException extends RuntimeException {
+    private ConversionException(RuntimeException cause) {
+      super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+      return (RuntimeException) super.getCause();
+    }
+  }
 }
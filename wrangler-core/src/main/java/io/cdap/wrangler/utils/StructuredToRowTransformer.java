@@ -49,6 +49,22 @@ public class StructuredToRowTransformer {
     return row;
   }
 
+  /**
+   * Get a row that is backed by the given record. Field values are only read from the record and converted
+   * when they are first accessed, so fields that are never used by the recipe are not copied into the row.
+   *
+   * @param record the record to transform
+   * @return the row corresponding to the record
+   */
+  public static Row transformLazily(StructuredRecord record) {
+    List<Schema.Field> fields = record.getSchema().getFields();
+    List<String> columns = new ArrayList<>(fields.size());
+    for (Schema.Field field : fields) {
+      columns.add(field.getName());
+    }
+    return new Row(columns, new RecordBackedValues(record, fields));
+  }
+
   /**
    * Get the field value from the given record
    *
@@ -58,7 +74,20 @@ public class StructuredToRowTransformer {
    */
   @Nullable
   public static Object getValue(StructuredRecord input, String fieldName) {
-    Schema fieldSchema = input.getSchema().getField(fieldName).getSchema();
+    return getValue(input, input.getSchema().getField(fieldName));
+  }
+
+  /**
+   * Get the value of a field of the given record
+   *
+   * @param input input record
+   * @param field field of the record schema to get value from
+   * @return the value of the field in the row
+   */
+  @Nullable
+  static Object getValue(StructuredRecord input, Schema.Field field) {
+    String fieldName = field.getName();
+    Schema fieldSchema = field.getSchema();
     fieldSchema = fieldSchema.isNullable() ? fieldSchema.getNonNullable() : fieldSchema;
     Schema.LogicalType logicalType = fieldSchema.getLogicalType();
 
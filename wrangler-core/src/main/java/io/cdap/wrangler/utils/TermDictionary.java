@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary of terms and their replacements, matched with an Aho-Corasick automaton.
+ *
+ * <p>All the terms are located in one pass over a value, whatever the size of the dictionary. Matches are replaced
+ * left to right: at every position the longest term starting there wins, and the scan resumes after it, so
+ * replacements never overlap and are never matched again.</p>
+ *
+ * <p>With whole word matching, a term only matches when it is not adjacent to a letter or a digit. With case
+ * insensitive matching, terms and values are compared after folding the case of each character.</p>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ */
+public final class TermDictionary {
+  private static final char[] NO_KEYS = new char[0];
+  private static final int[] NO_TARGETS = new int[0];
+
+  private final boolean wholeWord;
+  private final boolean ignoreCase;
+
+  // Transitions of each state, as sorted characters and the states they lead to.
+  private final char[][] keys;
+  private final int[][] targets;
+  // State to fall back to when a character has no transition.
+  private final int[] fail;
+  // Length of the prefix each state represents.
+  private final int[] depth;
+  // Replacement of the term ending at each state, or null if no term ends there.
+  private final String[] replacements;
+  // Nearest state on the fail chain where a term ends, or 0.
+  private final int[] next;
+
+  /**
+   * Builds the automaton for a dictionary.
+   *
+   * @param terms replacements of the terms. Terms that are equal once case folded keep the last replacement.
+   * @param wholeWord true to only match terms not adjacent to a letter or a digit.
+   * @param ignoreCase true to match terms regardless of case.
+   * @throws IllegalArgumentException if a term is empty.
+   */
+  public TermDictionary(Map<String, String> terms, boolean wholeWord, boolean ignoreCase) {
+    this.wholeWord = wholeWord;
+    this.ignoreCase = ignoreCase;
+
+    // Trie of the terms.
+    List<Map<Character, Integer>> trie = new ArrayList<>();
+    List<Integer> depths = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    trie.add(new HashMap<>());
+    depths.add(0);
+    values.add(null);
+    for (Map.Entry<String, String> entry : terms.entrySet()) {
+      String term = entry.getKey();
+      if (term.isEmpty()) {
+        throw new IllegalArgumentException("Terms of the dictionary can't be empty.");
+      }
+      int state = 0;
+      for (int i = 0; i < term.length(); i++) {
+        Character c = fold(term.charAt(i));
+        Integer target = trie.get(state).get(c);
+        if (target == null) {
+          target = trie.size();
+          trie.add(new HashMap<>());
+          depths.add(i + 1);
+          values.add(null);
+          trie.get(state).put(c, target);
+        }
+        state = target;
+      }
+      values.set(state, entry.getValue());
+    }
+
+    int size = trie.size();
+    this.keys = new char[size][];
+    this.targets = new int[size][];
+    this.fail = new int[size];
+    this.depth = new int[size];
+    this.replacements = values.toArray(new String[0]);
+    this.next = new int[size];
+    for (int state = 0; state < size; state++) {
+      depth[state] = depths.get(state);
+      Map<Character, Integer> transitions = trie.get(state);
+      if (transitions.isEmpty()) {
+        keys[state] = NO_KEYS;
+        targets[state] = NO_TARGETS;
+        continue;
+      }
+      char[] chars = new char[transitions.size()];
+      int i = 0;
+      for (Character c : transitions.keySet()) {
+        chars[i++] = c;
+      }
+      Arrays.sort(chars);
+      int[] states = new int[chars.length];
+      for (i = 0; i < chars.length; i++) {
+        states[i] = transitions.get(chars[i]);
+      }
+      keys[state] = chars;
+      targets[state] = states;
+    }
+
+    // Fail and output links, breadth first so that shallower states are done first.
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : targets[0]) {
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (int i = 0; i < keys[state].length; i++) {
+        int child = targets[state][i];
+        int link = fail[state];
+        int target = transition(link, keys[state][i]);
+        while (target < 0 && link != 0) {
+          link = fail[link];
+          target = transition(link, keys[state][i]);
+        }
+        fail[child] = target < 0 ? 0 : target;
+        next[child] = replacements[fail[child]] != null ? fail[child] : next[fail[child]];
+        queue.add(child);
+      }
+    }
+  }
+
+  /**
+   * Reads a dictionary with one term per line, separated from its replacement by a tab or, for lines without a
+   * tab, by the first comma. Blank lines and lines starting with '#' are ignored. Terms and replacements are
+   * trimmed.
+   *
+   * @param reader to read the dictionary from.
+   * @return replacements of the terms, in the order they were read.
+   * @throws IOException if the dictionary can't be read.
+   * @throws IllegalArgumentException if a line has no replacement or an empty term.
+   */
+  public static Map<String, String> read(Reader reader) throws IOException {
+    Map<String, String> terms = new LinkedHashMap<>();
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    int lineno = 0;
+    while ((line = lines.readLine()) != null) {
+      lineno++;
+      if (line.trim().isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int separator = line.indexOf('\t');
+      if (separator < 0) {
+        separator = line.indexOf(',');
+      }
+      if (separator < 0) {
+        throw new IllegalArgumentException(
+          String.format("Line %d of the dictionary has no replacement for '%s'.", lineno, line));
+      }
+      String term = line.substring(0, separator).trim();
+      if (term.isEmpty()) {
+        throw new IllegalArgumentException(String.format("Line %d of the dictionary has an empty term.", lineno));
+      }
+      terms.put(term, line.substring(separator + 1).trim());
+    }
+    return terms;
+  }
+
+  /**
+   * Replaces all the terms of the dictionary found in a value.
+   *
+   * @param value to replace the terms in.
+   * @return the value with the terms replaced, or the same instance if no term was found.
+   */
+  public String replace(String value) {
+    int length = value.length();
+    // State of the longest term starting at each position, allocated on the first match.
+    int[] matches = null;
+    int state = 0;
+    for (int i = 0; i < length; i++) {
+      char c = fold(value.charAt(i));
+      int target = transition(state, c);
+      while (target < 0 && state != 0) {
+        state = fail[state];
+        target = transition(state, c);
+      }
+      state = target < 0 ? 0 : target;
+
+      for (int s = replacements[state] != null ? state : next[state]; s != 0; s = next[s]) {
+        int start = i - depth[s] + 1;
+        if (wholeWord && (isWordAt(value, start - 1) || isWordAt(value, i + 1))) {
+          continue;
+        }
+        if (matches == null) {
+          matches = new int[length];
+        }
+        if (depth[s] > depth[matches[start]]) {
+          matches[start] = s;
+        }
+      }
+    }
+
+    if (matches == null) {
+      return value;
+    }
+    StringBuilder builder = new StringBuilder(length);
+    int i = 0;
+    while (i < length) {
+      int s = matches[i];
+      if (s != 0) {
+        builder.append(replacements[s]);
+        i += depth[s];
+      } else {
+        builder.append(value.charAt(i++));
+      }
+    }
+    return builder.toString();
+  }
+
+  private int transition(int state, char c) {
+    int i = Arrays.binarySearch(keys[state], c);
+    return i < 0 ? -1 : targets[state][i];
+  }
+
+  private char fold(char c) {
+    return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+  }
+
+  private static boolean isWordAt(String value, int i) {
+    return i >= 0 && i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.aggregates;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipePipeline;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link GroupBy}.
+ */
+public class GroupByTest {
+
+  @Test
+  public void testGroupBy() throws Exception {
+    String[] directives = new String[] {
+      "group-by :country,:city 'orders = count(*), total = sum(price), low = min(price), high = max(price), " +
+        "average = avg(price), buyers = count-distinct(customer)'",
+      "filter-row exp:{orders < 2} true"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("country", "US").add("city", "SF").add("price", 10).add("customer", "a"),
+      new Row("country", "US").add("city", "NY").add("price", "5").add("customer", "b"),
+      new Row("country", "US").add("city", "SF").add("price", 30.5).add("customer", "a"),
+      new Row("country", "IN").add("city", "BLR").add("price", null).add("customer", "c"),
+      new Row("country", "IN").add("city", "BLR").add("price", 2L).add("customer", "d"),
+      new Row("country", "US").add("city", "SF").add("price", 2).add("customer", "e")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+
+    // Groups are produced in the order they are first seen, and are executed by the directives that follow.
+    Assert.assertEquals(2, rows.size());
+    Row sf = rows.get(0);
+    Assert.assertEquals("US", sf.getValue("country"));
+    Assert.assertEquals("SF", sf.getValue("city"));
+    Assert.assertEquals(3L, sf.getValue("orders"));
+    Assert.assertEquals(42.5, (Double) sf.getValue("total"), 0.0001);
+    Assert.assertEquals(2.0, (Double) sf.getValue("low"), 0.0001);
+    Assert.assertEquals(30.5, (Double) sf.getValue("high"), 0.0001);
+    Assert.assertEquals(42.5 / 3, (Double) sf.getValue("average"), 0.0001);
+    Assert.assertEquals(2L, sf.getValue("buyers"));
+
+    Row blr = rows.get(1);
+    Assert.assertEquals("BLR", blr.getValue("city"));
+    Assert.assertEquals(2L, blr.getValue("orders"));
+    Assert.assertEquals(2.0, (Double) blr.getValue("total"), 0.0001);
+    Assert.assertEquals(2.0, (Double) blr.getValue("average"), 0.0001);
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    // A budget of about 1KB spills every few dozen groups.
+    String[] directives = new String[] {
+      "group-by :key 'n = count(*), total = sum(value), values = count-distinct(value)' 0.001"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 5000; i++) {
+      String key = "key-" + (i * 7919 % 1000);
+      rows.add(new Row("key", key).add("value", i % 3));
+      expected.merge(key, i % 3, Integer::sum);
+    }
+
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(1000, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals(5L, row.getValue("n"));
+      Assert.assertEquals(expected.get(row.getValue("key")), (Double) row.getValue("total"), 0.0001);
+      Assert.assertTrue((Long) row.getValue("values") <= 3);
+    }
+  }
+
+  @Test
+  public void testSpillNonSerializableValues() throws Exception {
+    String[] directives = new String[] {
+      "group-by :key 'n = count(*), values = count-distinct(value)' 0.001"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      JsonObject key = new JsonObject();
+      key.addProperty("id", i * 7919 % 500);
+      rows.add(new Row("key", key).add("value", new JsonPrimitive("v" + i % 4)));
+    }
+
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(500, rows.size());
+    for (Row row : rows) {
+      Assert.assertTrue(row.getValue("key") instanceof JsonObject);
+      Assert.assertEquals(6L, row.getValue("n"));
+      // The rows of a key are 500 apart, so they all have the same value.
+      Assert.assertEquals(1L, row.getValue("values"));
+    }
+  }
+
+  @Test
+  public void testByteArrayValues() throws Exception {
+    for (String memory : new String[] { "", " 0.001" }) {
+      String[] directives = new String[] {
+        "group-by :key 'n = count(*), values = count-distinct(value)'" + memory
+      };
+
+      List<Row> rows = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        rows.add(new Row("key", new byte[] { (byte) (i % 100) }).add("value", new byte[] { (byte) (i % 3) }));
+      }
+
+      rows = TestingRig.execute(directives, rows);
+
+      // Keys and values with the same bytes are equal, although they are different arrays.
+      Assert.assertEquals(memory, 100, rows.size());
+      for (Row row : rows) {
+        Assert.assertEquals(memory, 20L, row.getValue("n"));
+        Assert.assertEquals(memory, 3L, row.getValue("values"));
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedValue() throws Exception {
+    // Values that could not be spilled to disk are rejected even when the groups fit in memory.
+    String[] directives = new String[] {
+      "group-by :key 'n = count(*)'"
+    };
+
+    try {
+      TestingRig.execute(directives, Arrays.asList(new Row("key", new Object())));
+      Assert.fail("Values that can't be spilled to disk should not be grouped");
+    } catch (RecipeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("key"));
+    }
+  }
+
+  @Test
+  public void testLazyExecution() throws Exception {
+    String[] directives = new String[] {
+      "group-by :key 'n = count(value)'"
+    };
+
+    List<Row> rows = Arrays.asList(new Row("key", "a").add("value", 1), new Row("key", "b").add("value", null),
+                                   new Row("key", "a").add("value", 3));
+
+    RecipePipeline pipeline = TestingRig.execute(directives);
+    Iterator<Row> output = pipeline.execute(rows.iterator(), 1);
+    List<Row> results = new ArrayList<>();
+    output.forEachRemaining(results::add);
+    pipeline.close();
+
+    Assert.assertEquals(2, results.size());
+    Assert.assertEquals(2L, results.get(0).getValue("n"));
+    Assert.assertEquals(0L, results.get(1).getValue("n"));
+  }
+
+  @Test
+  public void testNonNumericValue() throws Exception {
+    String[] directives = new String[] {
+      "group-by :key 'total = sum(value)'"
+    };
+
+    List<Row> rows = Arrays.asList(new Row("key", "a").add("value", 1), new Row("key", "a").add("value", "x"));
+
+    Pair<List<Row>, List<Row>> result = TestingRig.executeWithErrors(directives, rows);
+
+    Assert.assertEquals(1, result.getFirst().size());
+    Assert.assertEquals(1.0, (Double) result.getFirst().get(0).getValue("total"), 0.0001);
+    Assert.assertEquals(1, result.getSecond().size());
+  }
+
+  @Test
+  public void testInvalidAggregates() throws Exception {
+    TestingRig.compileSuccess(new String[] { "group-by :key 'total = sum(value)'" });
+    for (String aggregates : new String[] { "total", "total = median(value)", "total = sum(*)" }) {
+      try {
+        TestingRig.parse(new String[] { "group-by :key '" + aggregates + "'" }).parse();
+        Assert.fail("Expected '" + aggregates + "' to be rejected");
+      } catch (Exception e) {
+        // expected
+      }
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.column;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.DirectiveExecutionException;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ColumnLayoutCache}
+ */
+public class ColumnLayoutCacheTest {
+
+  @Test
+  public void testRenamesOncePerLayout() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    ColumnLayoutCache cache = new ColumnLayoutCache(row -> {
+      calls.incrementAndGet();
+      for (int i = 0; i < row.width(); i++) {
+        row.setColumn(i, row.getColumn(i).toUpperCase());
+      }
+    });
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new Row("a", i).add("b", i));
+      rows.add(new Row("a", i).add("c", i));
+      rows.add(new Row(new String("a"), i).add(new String("b"), i));
+    }
+    for (Row row : rows) {
+      cache.apply(row);
+    }
+
+    Assert.assertEquals(2, calls.get());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(new Row("A", i).add("B", i), rows.get(3 * i));
+      Assert.assertEquals(new Row("A", i).add("C", i), rows.get(3 * i + 1));
+      Assert.assertEquals(new Row("A", i).add("B", i), rows.get(3 * i + 2));
+    }
+
+    // Rows share the names of their layout until they are modified.
+    rows.get(0).setColumn(0, "X");
+    Assert.assertEquals("X", rows.get(0).getColumn(0));
+    Assert.assertEquals("A", rows.get(3).getColumn(0));
+  }
+
+  @Test
+  public void testUnchangedLayout() throws Exception {
+    ColumnLayoutCache cache = new ColumnLayoutCache(row -> { });
+    Row row = new Row("a", 1).add("b", 2);
+    cache.apply(row);
+    cache.apply(row);
+    Assert.assertEquals(new Row("a", 1).add("b", 2), row);
+  }
+
+  @Test
+  public void testFailuresAreNotCached() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    ColumnLayoutCache cache = new ColumnLayoutCache(row -> {
+      calls.incrementAndGet();
+      throw new DirectiveExecutionException("rename", "failed");
+    });
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.apply(new Row("a", 1));
+        Assert.fail();
+      } catch (DirectiveExecutionException e) {
+        // expected
+      }
+    }
+    Assert.assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void testRecipeWithMixedLayouts() throws Exception {
+    String[] directives = new String[] {
+      "columns-replace s/^col_//g",
+      "change-column-case upper",
+      "rename :A :first",
+      "set-headers :x,:y"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("col_a", 1).add("col_b", 2).add("col_c", 3),
+      new Row("col_b", 4).add("col_a", 5),
+      new Row("col_a", 6).add("col_b", 7).add("col_c", 8)
+    );
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(3, rows.size());
+    Assert.assertEquals(new Row("x", 1).add("y", 2).add("C", 3), rows.get(0));
+    Assert.assertEquals(new Row("x", 4).add("y", 5), rows.get(1));
+    Assert.assertEquals(new Row("x", 6).add("y", 7).add("C", 8), rows.get(2));
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testRenameToExistingColumn() throws Exception {
+    String[] directives = new String[] {
+      "rename :a :b"
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("a", 1).add("c", 2), new Row("a", 1).add("b", 2)));
+  }
+}
@@ -16,14 +16,23 @@
 
 package io.cdap.directives.currency;
 
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Tests {@link ParseAsCurrency}
@@ -79,4 +88,58 @@ public class ParseAsCurrencyTest {
       ++i;
     }
   }
+
+  @Test
+  public void testLocaleLayouts() throws Exception {
+    // Layouts differ between the locale data of JDK releases, so values are formatted by the JDK.
+    NumberFormat usFormat = NumberFormat.getCurrencyInstance(Locale.US);
+    CurrencyParser us = new CurrencyParser(Locale.US);
+    Assert.assertEquals(1234.5, us.parse(usFormat.format(1234.5)), 0);
+    Assert.assertEquals(-1234.5, us.parse(usFormat.format(-1234.5)), 0);
+    Assert.assertEquals(0.0, us.parse(usFormat.format(-0.0)), 0);
+    Assert.assertEquals(0.1, us.parse("$.1"), 0);
+    // Layouts other than the plain one are parsed as by a DecimalFormat.
+    Assert.assertEquals(12.5, us.parse("$12.50 USD"), 0);
+    Assert.assertEquals(123, us.parse("$1,23"), 0);
+
+    NumberFormat deFormat = NumberFormat.getCurrencyInstance(Locale.GERMANY);
+    CurrencyParser de = new CurrencyParser(Locale.GERMANY);
+    Assert.assertEquals(1234.56, de.parse(deFormat.format(1234.56)), 0);
+    Assert.assertEquals(-1234.56, de.parse(deFormat.format(-1234.56)), 0);
+  }
+
+  @Test
+  public void testParseFromManyThreads() throws Exception {
+    List<Directive> directives = TestingRig.parse(new String[] {
+      "parse-as-currency :src :dst 'de_DE'"
+    }).parse();
+    Directive directive = directives.get(0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          TestingPipelineContext context = new TestingPipelineContext();
+          NumberFormat format = NumberFormat.getCurrencyInstance(Locale.GERMANY);
+          for (int i = 0; i < 2000; i++) {
+            int cents = thread * 100000 + i;
+            // Values outside of the plain layout are parsed by the shared DecimalFormat copies.
+            String value = format.format(cents / 100.0) + (i % 2 == 0 ? "" : " x");
+            List<Row> rows = directive.execute(Collections.singletonList(new Row("src", value)), context);
+            if ((double) rows.get(0).getValue("dst") != cents / 100.0) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
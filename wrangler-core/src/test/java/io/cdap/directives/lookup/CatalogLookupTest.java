@@ -18,6 +18,7 @@ package io.cdap.directives.lookup;
 
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.ICDCatalog;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -55,4 +56,37 @@ public class CatalogLookupTest {
     }
   }
 
+  @Test
+  public void testICD9Lookup() throws Exception {
+    String[] directives = new String[] {
+      "catalog-lookup ICD-9 code"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("code", "0011"),
+      new Row("code", "0010"),
+      new Row("code", "ABC"),     // Invalid code.
+      new Row("code", 11)         // Not a string.
+    );
+
+    rows = TestingRig.execute(directives, rows);
+    Assert.assertEquals(4, rows.size());
+    Assert.assertEquals("Cholera due to vibrio cholerae el tor", rows.get(0).getValue("code_icd_9_description"));
+    Assert.assertEquals("Cholera due to vibrio cholerae", rows.get(1).getValue("code_icd_9_description"));
+    Assert.assertNull(rows.get(2).getValue("code_icd_9_description"));
+    Assert.assertNull(rows.get(3).getValue("code_icd_9_description"));
+  }
+
+  @Test
+  public void testSharedCatalog() {
+    ICDCatalog first = new ICDCatalog("icd-9");
+    ICDCatalog second = new ICDCatalog("icd-9");
+    Assert.assertTrue(first.configure());
+    Assert.assertTrue(second.configure());
+    // Both instances read the descriptions loaded once.
+    Assert.assertSame(first.getDescription("0020"), second.getDescription("0020"));
+    Assert.assertEquals("Typhoid fever", first.lookup("0020").getDescription());
+    Assert.assertNull(first.lookup("002"));
+    Assert.assertFalse(new ICDCatalog("icd-0").configure());
+  }
 }
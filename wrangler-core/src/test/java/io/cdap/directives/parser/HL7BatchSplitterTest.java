@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link HL7BatchSplitter}
+ */
+public class HL7BatchSplitterTest {
+
+  private static final String BATCH = "FHS|^~\\&|LAB|RIH|||20230822181701\r\n"
+    + "BHS|^~\\&|LAB|RIH|||20230822181701\r\n"
+    + "MSH|^~\\&|LAB|RIH|EKG|EKG|199904140038||ADT^A01|1|P|2.2\r\n"
+    + "PID|0001|00009874|00001122|A00977|SMITH^JOHN^M\r\n"
+    + "\r\n"
+    + "MSH|^~\\&|LAB|RIH|EKG|EKG|199904140039||ADT^A08|2|P|2.2\r\n"
+    + "PID|0002|00009875|00001123|A00978|DOE^JANE\r\n"
+    + "NK1|1|DOE^JOHN|FA\r\n"
+    + "BTS|2\r\n"
+    + "FTS|1\r\n";
+
+  @Test
+  public void testSplitBatch() throws Exception {
+    String[] directives = new String[] {
+      "split-hl7-batch :body",
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("file", "batch.hl7").add("body", BATCH)));
+
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals("batch.hl7", rows.get(0).getValue("file"));
+    Assert.assertEquals("MSH|^~\\&|LAB|RIH|EKG|EKG|199904140038||ADT^A01|1|P|2.2\r"
+                          + "PID|0001|00009874|00001122|A00977|SMITH^JOHN^M", rows.get(0).getValue("body"));
+    Assert.assertEquals("batch.hl7", rows.get(1).getValue("file"));
+    Assert.assertEquals("MSH|^~\\&|LAB|RIH|EKG|EKG|199904140039||ADT^A08|2|P|2.2\r"
+                          + "PID|0002|00009875|00001123|A00978|DOE^JANE\r"
+                          + "NK1|1|DOE^JOHN|FA", rows.get(1).getValue("body"));
+  }
+
+  @Test
+  public void testSplitAndParse() throws Exception {
+    String[] directives = new String[] {
+      "split-hl7-batch :body",
+      "parse-as-hl7 :body 3 tokenize",
+      "parse-as-hl7 :body 3",
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", BATCH)));
+
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals("A01", rows.get(0).getValue("body_hl7_MSH_9_2"));
+    Assert.assertEquals("SMITH", rows.get(0).getValue("body_hl7_PID_5_1"));
+    Assert.assertEquals("A08", rows.get(1).getValue("body_hl7_MSH_9_2"));
+    Assert.assertEquals("DOE", rows.get(1).getValue("body_hl7_NK1_2_1"));
+  }
+
+  @Test
+  public void testSingleMessage() throws Exception {
+    String message = "MSH|^~\\&|LAB|RIH|EKG|EKG|199904140038||ADT^A01|1|P|2.2\rPID|0001|00009874";
+    String[] directives = new String[] {
+      "split-hl7-batch :body",
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", message), new Row("id", 1)));
+
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals(message, rows.get(0).getValue("body"));
+    Assert.assertEquals(1, rows.get(1).getValue("id"));
+  }
+
+  @Test
+  public void testEmptyBatch() throws Exception {
+    String[] directives = new String[] {
+      "split-hl7-batch :body",
+    };
+
+    String batch = "FHS|^~\\&\rBHS|^~\\&\rBTS|0\rFTS|1";
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", batch)));
+
+    Assert.assertEquals(0, rows.size());
+  }
+}
@@ -16,7 +16,10 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
@@ -227,4 +230,90 @@ public class HL7ParserTest {
     Assert.assertNotNull(rows);
   }
 
+  @Test
+  public void testTokenize() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-hl7 :body 3 tokenize",
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", adtA01)));
+
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    Assert.assertEquals("|", row.getValue("body_hl7_MSH_1"));
+    Assert.assertEquals("^~\\&", row.getValue("body_hl7_MSH_2"));
+    Assert.assertEquals("ADT", row.getValue("body_hl7_MSH_9_1"));
+    Assert.assertEquals("A01", row.getValue("body_hl7_MSH_9_2"));
+    Assert.assertEquals("2.2", row.getValue("body_hl7_MSH_12"));
+    Assert.assertEquals("SMITH", row.getValue("body_hl7_PID_5_1"));
+    Assert.assertEquals("JOHN", row.getValue("body_hl7_PID_5_2"));
+    // Components following an empty component are kept.
+    Assert.assertEquals("564 SPRING ST", row.getValue("body_hl7_PID_11_1"));
+    Assert.assertEquals("NEEDHAM", row.getValue("body_hl7_PID_11_3"));
+    Assert.assertEquals(-1, row.find("body_hl7_PID_11_2"));
+    Assert.assertEquals("POLLEN", row.getValue("body_hl7_AL1_3_2"));
+  }
+
+  @Test
+  public void testTokenizeMatchesModel() throws Exception {
+    List<Row> model = TestingRig.execute(new String[] { "parse-as-hl7 :body 1" },
+                                         Arrays.asList(new Row("body", adtA01)));
+    List<Row> tokenized = TestingRig.execute(new String[] { "parse-as-hl7 :body 1 tokenize" },
+                                             Arrays.asList(new Row("body", adtA01)));
+
+    for (String segment : new String[] { "MSH", "NK1", "PV1", "PV2", "AL1", "GT1", "IN1" }) {
+      Assert.assertNotNull(segment, model.get(0).getValue("body_hl7_" + segment));
+      Assert.assertEquals(segment, model.get(0).getValue("body_hl7_" + segment),
+                          tokenized.get(0).getValue("body_hl7_" + segment));
+    }
+  }
+
+  @Test
+  public void testTokenizeRepeats() throws Exception {
+    String message = "MSH|^~\\&|LAB|RIH|EKG|EKG|199904140038||ORU^R01|42|P|2.5\r\n"
+      + "PID|1||100003^^^&2.16.840.1.113883&ISO~300713^^^SLV||BRONK^MARIANNA\r\n"
+      + "OBX|1|TX|||Left \\T\\ right \\F\\ up \\H\\down\\N\\\r\n"
+      + "OBX|2|TX|||Second\r\n"
+      + "OBX|3|TX|||Third\r\n";
+    String[] directives = new String[] {
+      "parse-as-hl7 :body 1 tokenize",
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", message)));
+
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    JsonArray identifiers = ((JsonObject) row.getValue("body_hl7_PID")).getAsJsonArray("3");
+    Assert.assertEquals(2, identifiers.size());
+    Assert.assertEquals("100003", identifiers.get(0).getAsJsonObject().get("1").getAsString());
+    Assert.assertEquals("ISO", identifiers.get(0).getAsJsonObject().getAsJsonObject("4").get("3").getAsString());
+    Assert.assertEquals("SLV", identifiers.get(1).getAsJsonObject().get("4").getAsString());
+
+    JsonArray observations = (JsonArray) row.getValue("body_hl7_OBX");
+    Assert.assertEquals(3, observations.size());
+    Assert.assertEquals("Left & right | up \\H\\down\\N\\",
+                        observations.get(0).getAsJsonObject().get("5").getAsString());
+    Assert.assertEquals("Third", observations.get(2).getAsJsonObject().get("5").getAsString());
+  }
+
+  @Test
+  public void testTokenizeAllSegmentRepeats() throws Exception {
+    List<Row> rows = TestingRig.execute(new String[] { "parse-as-hl7 :body 1 tokenize" },
+                                        Arrays.asList(new Row("body", nte)));
+
+    JsonArray notes = (JsonArray) rows.get(0).getValue("body_hl7_NTE");
+    Assert.assertEquals(nte.split("\rNTE\\|").length - 1, notes.size());
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testTokenizeWithoutHeader() throws Exception {
+    TestingRig.execute(new String[] { "parse-as-hl7 :body tokenize" },
+                       Arrays.asList(new Row("body", "PID|1||100003")));
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testUnsupportedMode() throws Exception {
+    TestingRig.execute(new String[] { "parse-as-hl7 :body 2 fastest" }, Arrays.asList(new Row("body", adtA01)));
+  }
+
 }
@@ -16,6 +16,7 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.JsonObject;
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
@@ -83,4 +84,55 @@ public class JsPathTest {
     Assert.assertEquals(1, rows.size());
     Assert.assertEquals(8, rows.get(0).getValue("s6"));
   }
+
+  @Test
+  public void testPathOnTextColumn() throws Exception {
+    String body = "{ \"name\" : { \"first\" : \"Joltie\", \"last\" : \"Root\" }, \"numbers\" : [ 1, 2, 3 ] }";
+    String[] directives = new String[] {
+      "json-path :body :first '$.name.first'",
+      "json-path :body :last '$.name.last'",
+      "json-path :body :second '$.numbers[1]'",
+      "set-column valid json:IsValid(body)",
+      "set-column parsed json:Parse(body)",
+      "set-column names json:select(body, false, '$.name')"
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", body)));
+
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    Assert.assertEquals("Joltie", row.getValue("first"));
+    Assert.assertEquals("Root", row.getValue("last"));
+    Assert.assertEquals(2L, row.getValue("second"));
+    Assert.assertEquals(true, row.getValue("valid"));
+
+    // Values handed out to the recipe must not share the cached document.
+    JsonObject parsed = (JsonObject) row.getValue("parsed");
+    parsed.remove("name");
+    ((JsonObject) row.getValue("names")).remove("first");
+    rows = TestingRig.execute(new String[] { "json-path :body :first '$.name.first'" },
+                              Arrays.asList(new Row("body", body)));
+    Assert.assertEquals("Joltie", rows.get(0).getValue("first"));
+  }
+
+  @Test
+  public void testDropOnExtractedValue() throws Exception {
+    String body = "{ \"name\" : { \"first\" : \"Joltie\", \"last\" : \"Root\" } }";
+    String[] directives = new String[] {
+      "json-path :body :name '$.name'",
+      "set-column name json:drop(name, 'first')",
+      "json-path :body :first '$.name.first'"
+    };
+
+    // Like rows fanned out by a directive, both rows share the same column text.
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", body), new Row("body", body)));
+
+    Assert.assertEquals(2, rows.size());
+    for (Row row : rows) {
+      JsonObject name = (JsonObject) row.getValue("name");
+      Assert.assertFalse(name.has("first"));
+      Assert.assertEquals("Root", name.get("last").getAsString());
+      Assert.assertEquals("Joltie", row.getValue("first"));
+    }
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.parser;
+
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link JsPaths}
+ */
+public class JsPathsTest {
+  private static final String BODY = "{\n" +
+    "  \"name\" : { \"first\" : \"Joltie\", \"last\" : \"Root\", \"middle\" : null },\n" +
+    "  \"numbers\" : [ 1, 2.5, 3 ],\n" +
+    "  \"responses\" : [ { \"a\" : 1, \"b\" : \"X\" }, { \"a\" : 2, \"b\" : \"Y\" } ]\n" +
+    "}";
+
+  @Test
+  public void testMultiplePaths() throws Exception {
+    String[] directives = new String[] {
+      "json-paths :body :first,:last,:middle,:second,:response,:count,:bs " +
+        "'$.name.first','$.name.last','$.name.middle','$.numbers[1]','$.responses[1]','$.numbers.length()'," +
+        "'$.responses[*].b'"
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", BODY)));
+
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    Assert.assertEquals("Joltie", row.getValue("first"));
+    Assert.assertEquals("Root", row.getValue("last"));
+    Assert.assertEquals(JsonNull.INSTANCE, row.getValue("middle"));
+    Assert.assertEquals(2.5, row.getValue("second"));
+    Assert.assertEquals("Y", ((JsonObject) row.getValue("response")).get("b").getAsString());
+    Assert.assertEquals(3, row.getValue("count"));
+    Assert.assertEquals("[\"X\",\"Y\"]", row.getValue("bs").toString());
+  }
+
+  @Test
+  public void testSameResultsAsJsonPath() throws Exception {
+    String[] paths = new String[] {
+      "$", "$.name", "$['name']['first']", "$.numbers[0]", "$.numbers[2]", "$.responses[0].a", "$..a"
+    };
+    StringBuilder destinations = new StringBuilder();
+    StringBuilder expressions = new StringBuilder();
+    String[] directives = new String[paths.length + 1];
+    for (int i = 0; i < paths.length; ++i) {
+      directives[i] = String.format("json-path :body :single_%d \"%s\"", i, paths[i]);
+      destinations.append(i == 0 ? ":" : ",:").append("multi_").append(i);
+      expressions.append(i == 0 ? "" : ",").append('"').append(paths[i]).append('"');
+    }
+    directives[paths.length] = String.format("json-paths :body %s %s", destinations, expressions);
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", BODY)));
+
+    Assert.assertEquals(1, rows.size());
+    for (int i = 0; i < paths.length; ++i) {
+      Object single = rows.get(0).getValue("single_" + i);
+      Object multi = rows.get(0).getValue("multi_" + i);
+      Assert.assertEquals(paths[i], single, multi);
+      Assert.assertEquals(paths[i], single.getClass(), multi.getClass());
+    }
+  }
+
+  @Test
+  public void testNullSource() throws Exception {
+    String[] directives = new String[] {
+      "json-paths :body :first,:last '$.name.first','$.name.last'"
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", null)));
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertNull(rows.get(0).getValue("first"));
+    Assert.assertNull(rows.get(0).getValue("last"));
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testMismatchedDestinations() throws Exception {
+    String[] directives = new String[] {
+      "json-paths :body :first '$.name.first','$.name.last'"
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("body", BODY)));
+  }
+
+  @Test
+  public void testDropOnExtractedValue() throws Exception {
+    String body = "{ \"name\" : { \"first\" : \"Joltie\", \"last\" : \"Root\" } }";
+    String[] directives = new String[] {
+      "json-paths :body :name '$.name'",
+      "set-column name json:drop(name, 'first')",
+      "json-paths :body :first,:again '$.name.first','$.name'",
+      "json-path :body :single '$.name.first'"
+    };
+
+    // Like rows fanned out by a directive, both rows share the same column text.
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("body", body), new Row("body", body)));
+
+    Assert.assertEquals(2, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals("{\"last\":\"Root\"}", row.getValue("name").toString());
+      Assert.assertEquals("Joltie", row.getValue("first"));
+      Assert.assertEquals("Joltie", row.getValue("single"));
+      Assert.assertEquals("{\"first\":\"Joltie\",\"last\":\"Root\"}", row.getValue("again").toString());
+    }
+  }
+
+  @Test
+  public void testSegments() {
+    Assert.assertEquals(Arrays.asList("name", "first"), JsPaths.segments("$.name.first"));
+    Assert.assertEquals(Arrays.asList("a b", 2), JsPaths.segments("$['a b'][2]"));
+    Assert.assertEquals(Arrays.asList(), JsPaths.segments("$"));
+    Assert.assertNull(JsPaths.segments("$..name"));
+    Assert.assertNull(JsPaths.segments("$.numbers[*]"));
+    Assert.assertNull(JsPaths.segments("$.numbers[-1]"));
+    Assert.assertNull(JsPaths.segments("$['a','b']"));
+    Assert.assertNull(JsPaths.segments("$.numbers.length()"));
+  }
+}
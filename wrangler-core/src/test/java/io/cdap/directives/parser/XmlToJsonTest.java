@@ -16,8 +16,11 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import io.cdap.directives.xml.XmlToJson;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
@@ -51,4 +54,48 @@ public class XmlToJsonTest {
     Assert.assertEquals("{\"tagid\":3.03246306303E19}", rows.get(0).getValue("body_2_Data").toString());
     Assert.assertEquals("{\"tagid\":\"303246306303E8\"}", rows.get(0).getValue("body_3_Data").toString());
   }
+
+  @Test
+  public void testFlattening() throws Exception {
+    String[] directives = new String[] {
+      "parse-xml-to-json body 2"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("body", "<?xml version=\"1.0\"?><!-- feed --><order id=\"7\" status=\"open\">"
+        + "<item sku=\"a\">2</item><item sku=\"b\"><![CDATA[x < y]]></item>"
+        + "<customer><name>Ann &amp; Bob</name><vip/></customer>"
+        + "<note>  first  </note><note>true</note></order>")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    Assert.assertEquals(-1, row.find("body"));
+    Assert.assertEquals(7L, row.getValue("body_order_id"));
+    Assert.assertEquals("open", row.getValue("body_order_status"));
+
+    JsonArray items = (JsonArray) row.getValue("body_order_item");
+    Assert.assertEquals(2, items.size());
+    Assert.assertEquals(2, items.get(0).getAsJsonObject().get("content").getAsInt());
+    Assert.assertEquals("x < y", items.get(1).getAsJsonObject().get("content").getAsString());
+
+    // Objects below the depth are kept whole.
+    JsonObject customer = (JsonObject) row.getValue("body_order_customer");
+    Assert.assertEquals("Ann & Bob", customer.get("name").getAsString());
+    Assert.assertEquals("", customer.get("vip").getAsString());
+
+    JsonArray notes = (JsonArray) row.getValue("body_order_note");
+    Assert.assertEquals("first", notes.get(0).getAsString());
+    Assert.assertTrue(notes.get(1).getAsBoolean());
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testMalformedDocument() throws Exception {
+    String[] directives = new String[] {
+      "parse-xml-to-json body"
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("body", "<a><b>1</c></a>")));
+  }
 }
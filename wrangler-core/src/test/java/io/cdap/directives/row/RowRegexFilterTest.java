@@ -16,8 +16,10 @@
 
 package io.cdap.directives.row;
 
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.regex.RegexEngines;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -158,4 +160,28 @@ public class RowRegexFilterTest {
     rows = TestingRig.execute(directives, rows);
     Assert.assertTrue(rows.size() == 2);
   }
+
+  @Test(timeout = 10000)
+  public void testLinearEngine() throws Exception {
+    String[] directives = new String[] {
+      "filter-by-regex if-matched :value '(a+)+$'"
+    };
+
+    // Takes exponential time with a backtracking matcher.
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 64; i++) {
+      value.append('a');
+    }
+    List<Row> rows = Arrays.asList(
+      new Row("value", value + "!"),
+      new Row("value", value.toString())
+    );
+
+    TestingPipelineContext context = new TestingPipelineContext();
+    context.getProperties().put(RegexEngines.ENGINE_PROPERTY, "linear");
+    rows = TestingRig.execute(directives, rows, context);
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals(value + "!", rows.get(0).getValue("value"));
+  }
 }
@@ -16,11 +16,16 @@
 
 package io.cdap.directives.transformation;
 
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.regex.RegexEngines;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -246,7 +251,8 @@ public class ExtractRegexGroupsTest {
       new RegexInputOutput("2:59:04 PST", "2:59:04 PST"),
       new RegexInputOutput("2:59:04 Pacific Standard Time", "2:59:04 Pacific Standard Time")
     };
-    testRegex(regex, regexInputOutputs);
+    // Nested character classes in the timezone group are read differently by the linear engine.
+    testRegex(regex, regexInputOutputs, new TestingPipelineContext());
   }
 
   @Test
@@ -264,7 +270,7 @@ public class ExtractRegexGroupsTest {
       new RegexInputOutput("2016-01-10 2:59:04 PST", "2016-01-10 2:59:04 PST"),
       new RegexInputOutput("2016-01-10 2:59:04 Pacific Standard Time", "2016-01-10 2:59:04 Pacific Standard Time")
     };
-    testRegex(regex, regexInputOutputs);
+    testRegex(regex, regexInputOutputs, new TestingPipelineContext());
   }
 
   @Test
@@ -297,7 +303,63 @@ public class ExtractRegexGroupsTest {
     testRegex(regex, regexInputOutputs);
   }
 
+  @Test
+  public void testEngine() throws Exception {
+    String[] directives = new String[] {
+      "extract-regex-groups :column '(\\d+)-(\\d+)' linear"
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("column", "1-2, 3-4, 5")));
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals(5, rows.get(0).width());
+    Assert.assertEquals("1", rows.get(0).getValue("column_1_1"));
+    Assert.assertEquals("2", rows.get(0).getValue("column_1_2"));
+    Assert.assertEquals("3", rows.get(0).getValue("column_2_1"));
+    Assert.assertEquals("4", rows.get(0).getValue("column_2_2"));
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testPatternNotSupportedByEngine() throws Exception {
+    String[] directives = new String[] {
+      "extract-regex-groups :column '<([a-z]+)>.*</\\1>' linear"
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("column", "<a>b</a>")));
+  }
+
+  @Test
+  public void testPatternNotSupportedByConfiguredEngine() throws Exception {
+    String[] directives = new String[] {
+      "extract-regex-groups :column '<([a-z]+)>.*</\\1>'"
+    };
+    TestingPipelineContext context = new TestingPipelineContext();
+    context.getProperties().put(RegexEngines.ENGINE_PROPERTY, "linear");
+
+    try {
+      TestingRig.execute(directives, Arrays.asList(new Row("column", "<a>b</a>")), context);
+      Assert.fail("Pattern not supported by the configured engine should fail the directive");
+    } catch (RecipeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains(RegexEngines.FALLBACK_PROPERTY));
+    }
+
+    context.getProperties().put(RegexEngines.FALLBACK_PROPERTY, "true");
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("column", "<a>b</a>")), context);
+    Assert.assertEquals("a", rows.get(0).getValue("column_1_1"));
+  }
+
   private void testRegex(String regex, RegexInputOutput[] regexInputOutputs) throws Exception {
+    testRegex(regex, regexInputOutputs, new TestingPipelineContext());
+
+    // Patterns not supported by the linear engine fall back to the java engine when it is allowed.
+    TestingPipelineContext context = new TestingPipelineContext();
+    context.getProperties().put(RegexEngines.ENGINE_PROPERTY, "linear");
+    context.getProperties().put(RegexEngines.FALLBACK_PROPERTY, "true");
+    testRegex(regex, regexInputOutputs, context);
+  }
+
+  private void testRegex(String regex, RegexInputOutput[] regexInputOutputs,
+                         ExecutorContext context) throws Exception {
     final String column = "column";
 
     String[] directives = new String[] {
@@ -309,7 +371,7 @@ public class ExtractRegexGroupsTest {
       rows.add(new Row(column, regexInputOutput.input));
     }
 
-    rows = TestingRig.execute(directives, rows);
+    rows = TestingRig.execute(directives, rows, context);
 
     Assert.assertEquals(regexInputOutputs.length, rows.size());
     for (int i = 0; i < regexInputOutputs.length; i++) {
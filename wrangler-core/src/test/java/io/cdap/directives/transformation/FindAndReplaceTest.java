@@ -17,6 +17,7 @@
 package io.cdap.directives.transformation;
 
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
@@ -51,4 +52,30 @@ public class FindAndReplaceTest {
                         rows.get(0).getValue("body"));
   }
 
+  @Test
+  public void testLinearEngine() throws Exception {
+    String[] directives = new String[] {
+      "find-and-replace :body 's/(\\d+)-(\\d+)/$2-$1/2g' linear",
+      "find-and-replace :name 's|JOLTIE|Root|I' linear"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("body", "1-2, 3-4, 5-6").add("name", "joltie joltie")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("1-2, 4-3, 6-5", rows.get(0).getValue("body"));
+    Assert.assertEquals("Root joltie", rows.get(0).getValue("name"));
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testScriptNotSupportedByEngine() throws Exception {
+    String[] directives = new String[] {
+      "find-and-replace :body '/a/d' linear"
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("body", "abc")));
+  }
 }
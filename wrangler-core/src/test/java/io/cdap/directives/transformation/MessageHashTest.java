@@ -22,7 +22,10 @@ import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -59,4 +62,37 @@ public class MessageHashTest {
     TestingRig.execute(directives, rows);
   }
 
+  @Test
+  public void testHexEncoding() throws Exception {
+    String[] directives = new String[] {
+      "hash :md5,:sha512 MD5 true",
+      "hash :sha512 SHA-512 true"
+    };
+
+    List<Row> rows = Arrays.asList(new Row("md5", "abc").add("sha512", "abc"));
+
+    rows = TestingRig.execute(directives, rows);
+    // Digests are encoded in full, whatever their size.
+    Assert.assertEquals("900150983cd24fb0d6963f7d28e17f72", rows.get(0).getValue("md5"));
+    Assert.assertEquals(128, ((String) rows.get(0).getValue("sha512")).length());
+  }
+
+  @Test
+  public void testUtf8Encoding() throws Exception {
+    StringBuilder longText = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      longText.append("a\u00e9\u20ac");
+    }
+    String[] values = new String[] {
+      "", "h\u00e9llo", "\ud83d\ude00 smile", "unpaired \ud83d surrogate \ude00", longText.toString()
+    };
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    for (String value : values) {
+      List<Row> rows = TestingRig.execute(new String[] { "hash :value SHA-256" },
+                                          Collections.singletonList(new Row("value", value)));
+      Assert.assertArrayEquals(digest.digest(value.getBytes(StandardCharsets.UTF_8)),
+                               (byte[]) rows.get(0).getValue("value"));
+    }
+  }
 }
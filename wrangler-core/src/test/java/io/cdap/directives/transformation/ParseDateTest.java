@@ -17,18 +17,26 @@
 package io.cdap.directives.transformation;
 
 import io.cdap.directives.parser.ParseDate;
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -187,6 +195,91 @@ public class ParseDateTest {
     // TODO CDAP-14243 - add more tests once the issue with parser is fixed
   }
 
+  @Test
+  public void testSimpleDateFromManyThreads() throws Exception {
+    Directive directive = TestingRig.parse(new String[] {
+      "parse-as-simple-date :date 'yyyy-MM-dd HH:mm:ss'"
+    }).parse().get(0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          TestingPipelineContext context = new TestingPipelineContext();
+          for (int i = 0; i < 2000; i++) {
+            ZonedDateTime expected = ZonedDateTime.of(2000 + thread, 1 + i % 12, 1 + i % 28, i % 24, i % 60, 0, 0,
+                                                      ZoneOffset.UTC);
+            String value = String.format("%d-%02d-%02d %02d:%02d:00", expected.getYear(), expected.getMonthValue(),
+                                         expected.getDayOfMonth(), expected.getHour(), expected.getMinute());
+            List<Row> rows = directive.execute(Collections.singletonList(new Row("date", value)), context);
+            if (!expected.isEqual((ZonedDateTime) rows.get(0).getValue("date"))) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLearnedDateFormat() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-date date US/Eastern"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      rows.add(new Row("date", String.format("2017-03-14 10:%02d:%02d", i / 60, i % 60)));
+    }
+    rows.add(new Row("date", "september 7th 2016 at 10am"));
+
+    TestingPipelineContext context = new TestingPipelineContext();
+    rows = TestingRig.execute(directives, rows, context);
+
+    Assert.assertEquals(151, rows.size());
+    ZoneId zone = ZoneId.of("US/Eastern");
+    for (int i = 0; i < 150; i++) {
+      Assert.assertEquals(2, rows.get(i).width());
+      Assert.assertEquals(ZonedDateTime.of(2017, 3, 14, 10, i / 60, i % 60, 0, zone), rows.get(i).getValue("date_1"));
+    }
+    Assert.assertEquals(ZonedDateTime.of(2016, 9, 7, 10, 0, 0, 0, zone), rows.get(150).getValue("date_1"));
+
+    // The first 100 values are sampled, the rest are parsed with the learned format.
+    Mockito.verify(context.getMetrics(), Mockito.times(50)).count("parse.date.iso-space", 1);
+    Mockito.verify(context.getMetrics(), Mockito.times(101)).count("parse.date.natural", 1);
+  }
+
+  @Test
+  public void testLearnedDateFormatInDaylightSavingOverlap() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-date date US/Eastern"
+    };
+    // Clocks are set back from 2:00 to 1:00 on 2017-11-05 in US/Eastern, so 1:30 occurs twice.
+    String overlap = "2017-11-05 01:30:00";
+
+    List<Row> natural = TestingRig.execute(directives, Collections.singletonList(new Row("date", overlap)));
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      rows.add(new Row("date", String.format("2017-11-06 01:%02d:00", i % 60)));
+    }
+    rows.add(new Row("date", overlap));
+    TestingPipelineContext context = new TestingPipelineContext();
+    rows = TestingRig.execute(directives, rows, context);
+
+    Mockito.verify(context.getMetrics()).count("parse.date.iso-space", 1);
+    Assert.assertEquals(natural.get(0).getValue("date_1"), rows.get(100).getValue("date_1"));
+    Assert.assertEquals(ZoneOffset.ofHours(-5), ((ZonedDateTime) rows.get(100).getValue("date_1")).getOffset());
+  }
+
   @Test
   public void testFormatDate() throws Exception {
     String[] directives = new String[] {
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.directives.transformation;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.Row;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link Standardize}
+ */
+public class StandardizeTest {
+
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  private static File dictionaries;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    dictionaries = TMP_FOLDER.newFolder();
+    System.setProperty(Standardize.DICTIONARY_DIRS_PROPERTY, dictionaries.getAbsolutePath());
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    System.clearProperty(Standardize.DICTIONARY_DIRS_PROPERTY);
+  }
+
+  private static String dictionary(String... lines) throws Exception {
+    File file = File.createTempFile("dictionary", ".tsv", dictionaries);
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return file.getAbsolutePath();
+  }
+
+  @Test
+  public void testStandardize() throws Exception {
+    String path = dictionary("St\tStreet", "Ave\tAvenue", "Rd\tRoad", "N\tNorth");
+    String[] directives = new String[] {
+      String.format("standardize :address,:city '%s'", path)
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("address", "12 N Main St").add("city", "Stanford").add("zip", 94305),
+      new Row("address", "1 Park Ave").add("city", null).add("zip", 10001)
+    );
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals("12 North Main Street", rows.get(0).getValue("address"));
+    Assert.assertEquals("Stanford", rows.get(0).getValue("city"));
+    Assert.assertEquals("1 Park Avenue", rows.get(1).getValue("address"));
+    Assert.assertNull(rows.get(1).getValue("city"));
+    Assert.assertEquals(10001, rows.get(1).getValue("zip"));
+  }
+
+  @Test
+  public void testSubstringAndIgnoreCase() throws Exception {
+    String path = dictionary("# misspellings", "recieve,receive", "teh,the");
+    String[] directives = new String[] {
+      String.format("standardize :body '%s' false true", path)
+    };
+
+    List<Row> rows = Arrays.asList(new Row("body", "Teh parcel was Recieved"));
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("the parcel was received", rows.get(0).getValue("body"));
+  }
+
+  @Test
+  public void testRelativePath() throws Exception {
+    String path = dictionary("IBM\tInternational Business Machines");
+    String[] directives = new String[] {
+      String.format("standardize :vendor '%s'", new File(path).getName())
+    };
+
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(new Row("vendor", "IBM")));
+
+    Assert.assertEquals("International Business Machines", rows.get(0).getValue("vendor"));
+  }
+
+  @Test
+  public void testDictionaryNotAllowed() throws Exception {
+    String path = dictionary("IBM\tInternational Business Machines");
+    File outside = TMP_FOLDER.newFile();
+    Files.write(outside.toPath(), Arrays.asList("IBM\tInternational Business Machines"), StandardCharsets.UTF_8);
+    String[] sources = {
+      new File(path).toURI().toString(),
+      "jar:" + new File(path).toURI() + "!/",
+      "http://localhost/dictionary.tsv",
+      outside.getAbsolutePath(),
+      "../" + outside.getName()
+    };
+
+    for (String source : sources) {
+      try {
+        TestingRig.parse(new String[] { String.format("standardize :vendor '%s'", source) }).parse();
+        Assert.fail("Dictionary should not be read from " + source);
+      } catch (RecipeException e) {
+        Assert.assertTrue(source, e.getCause() instanceof DirectiveParseException);
+      }
+    }
+
+    System.clearProperty(Standardize.DICTIONARY_DIRS_PROPERTY);
+    try {
+      TestingRig.parse(new String[] { String.format("standardize :vendor '%s'", path) }).parse();
+      Assert.fail("Dictionaries should not be read when no directory is allowed");
+    } catch (RecipeException e) {
+      Assert.assertTrue(e.getCause() instanceof DirectiveParseException);
+    } finally {
+      System.setProperty(Standardize.DICTIONARY_DIRS_PROPERTY, dictionaries.getAbsolutePath());
+    }
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testMissingDictionary() throws Exception {
+    String[] directives = new String[] {
+      String.format("standardize :vendor '%s'", new File(dictionaries, "missing.tsv").getAbsolutePath())
+    };
+
+    TestingRig.execute(directives, Arrays.asList(new Row("vendor", "IBM")));
+  }
+}
@@ -73,4 +73,20 @@ public class WriteAsCSVTest {
     Assert.assertEquals("1,\"this is, string\"", rows.get(0).getValue(2));
   }
 
+  @Test
+  public void testQuoting() throws Exception {
+    String[] directives = new String[]{
+      "write-as-csv body",
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("negative", -1).add("quote", "say \"hi\"").add("null", null).add("space", "trailing ")
+        .add("flag", true).add("line", "a\nb"),
+      new Row("empty", "").add("plain", "x")
+    );
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals("\"-1\",\"say \"\"hi\"\"\",,\"trailing \",true,\"a\nb\"", rows.get(0).getValue("body"));
+    Assert.assertEquals("\"\",x", rows.get(1).getValue("body"));
+  }
 }
@@ -71,4 +71,20 @@ public class WriteAsJsonMapTest {
     Assert.assertEquals(url, jsonObject.get("url").getAsString());
     Assert.assertEquals(GSON.toJson(o), jsonObject.get("o").toString());
   }
+
+  @Test
+  public void testEscaping() throws Exception {
+    String[] directives = new String[] {
+      "write-as-json-map body"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("text", "<a href=\"x\">\t'b'\u2028").add("missing", null).add("long", 12L).add("flag", false)
+        .add("list", Arrays.asList(1, 2))
+    );
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals("{\"text\":\"\\u003ca href\\u003d\\\"x\\\"\\u003e\\t\\u0027b\\u0027\\u2028\"," +
+                          "\"long\":12,\"flag\":false,\"list\":[1,2]}", rows.get(0).getValue("body"));
+  }
 }
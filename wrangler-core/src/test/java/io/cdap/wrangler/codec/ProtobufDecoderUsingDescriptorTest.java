@@ -17,12 +17,17 @@
 package io.cdap.wrangler.codec;
 
 import com.example.tutorial.AddressBookProtos;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos;
 import io.cdap.wrangler.api.Row;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -66,4 +71,113 @@ public class ProtobufDecoderUsingDescriptorTest {
       }
     }
   }
+
+  @Test
+  public void testRepeatedMessages() throws Exception {
+    AddressBookProtos.AddressBook book = AddressBookProtos.AddressBook.newBuilder()
+      .addPeople(AddressBookProtos.Person.newBuilder()
+                   .setId(1)
+                   .setName("Joltie Root")
+                   .addPhones(AddressBookProtos.Person.PhoneNumber.newBuilder().setNumber("555-4321"))
+                   .addPhones(AddressBookProtos.Person.PhoneNumber.newBuilder()
+                                .setNumber("555-1234")
+                                .setType(AddressBookProtos.Person.PhoneType.WORK)))
+      .addPeople(AddressBookProtos.Person.newBuilder()
+                   .setId(2)
+                   .setName("Root Joltie"))
+      .build();
+
+    List<Row> rows = decoder("AddressBook").decode(book.toByteArray());
+
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(0);
+    Assert.assertEquals(Arrays.asList("people_name", "people_id", "people_phones_number", "people_phones_number",
+                                      "people_phones_type", "people_name", "people_id"),
+                        columns(row));
+    Assert.assertEquals(Arrays.asList("Joltie Root", 1, "555-4321", "555-1234", "WORK", "Root Joltie", 2),
+                        values(row));
+  }
+
+  @Test
+  public void testFieldsInNumberOrder() throws Exception {
+    // Fields are written out of order, with an unknown field and a repeated singular field in between.
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+    output.writeString(3, "first@example.com");
+    output.writeInt32(2, 1234);
+    output.writeString(15, "unknown");
+    output.writeString(1, "Joltie Root");
+    output.writeString(3, "joltie.root@example.com");
+    output.flush();
+
+    List<Row> rows = decoder("Person").decode(bytes.toByteArray());
+
+    Assert.assertEquals(Arrays.asList("name", "id", "email"), columns(rows.get(0)));
+    Assert.assertEquals(Arrays.asList("Joltie Root", 1234, "joltie.root@example.com"), values(rows.get(0)));
+  }
+
+  @Test(expected = DecoderException.class)
+  public void testMissingRequiredField() throws Exception {
+    DescriptorProtos.FileDescriptorSet descriptors = DescriptorProtos.FileDescriptorSet.newBuilder()
+      .addFile(DescriptorProtos.FileDescriptorProto.newBuilder()
+                 .setName("item.proto")
+                 .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                                   .setName("Item")
+                                   .addField(field("sku", 1, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING,
+                                                   DescriptorProtos.FieldDescriptorProto.Label.LABEL_REQUIRED))
+                                   .addField(field("quantity", 2, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT32,
+                                                   DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL))))
+      .build();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+    output.writeInt32(2, 5);
+    output.flush();
+
+    new ProtobufDecoderUsingDescriptor(descriptors.toByteArray(), "Item").decode(bytes.toByteArray());
+  }
+
+  @Test(expected = DecoderException.class)
+  public void testTruncatedRecord() throws Exception {
+    byte[] bytes = AddressBookProtos.Person.newBuilder().setId(1234).setName("Joltie Root").build().toByteArray();
+
+    decoder("Person").decode(Arrays.copyOf(bytes, bytes.length - 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownRecordName() throws Exception {
+    decoder("Company");
+  }
+
+  private Decoder<Row> decoder(String name) throws Exception {
+    try (InputStream is = this.getClass().getClassLoader().getResourceAsStream("addressbook.desc")) {
+      return new ProtobufDecoderUsingDescriptor(IOUtils.toByteArray(is), name);
+    }
+  }
+
+  private static DescriptorProtos.FieldDescriptorProto field(String name, int number,
+                                                             DescriptorProtos.FieldDescriptorProto.Type type,
+                                                             DescriptorProtos.FieldDescriptorProto.Label label) {
+    return DescriptorProtos.FieldDescriptorProto.newBuilder()
+      .setName(name)
+      .setNumber(number)
+      .setType(type)
+      .setLabel(label)
+      .build();
+  }
+
+  private static List<String> columns(Row row) {
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < row.width(); i++) {
+      columns.add(row.getColumn(i));
+    }
+    return columns;
+  }
+
+  private static List<Object> values(Row row) {
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < row.width(); i++) {
+      values.add(row.getValue(i));
+    }
+    return values;
+  }
 }
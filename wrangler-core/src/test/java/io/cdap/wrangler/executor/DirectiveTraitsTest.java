@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests {@link DirectiveTraits}.
+ */
+public class DirectiveTraitsTest {
+
+  @Test
+  public void testRowIndependence() throws Exception {
+    String[] recipe = new String[] {
+      "parse-as-json :body 1",
+      "uppercase :name",
+      "set-column :total price * 2",
+      "increment-variable counter 1 true",
+      "parse-as-date :date US/Eastern",
+      "find-and-replace :name s/a/b/g"
+    };
+
+    List<Directive> directives = TestingRig.parse(recipe).parse();
+    Assert.assertTrue(DirectiveTraits.isRowIndependent(directives.get(0)));
+    Assert.assertTrue(DirectiveTraits.isRowIndependent(directives.get(1)));
+    // Expressions can read and write the context.
+    Assert.assertFalse(DirectiveTraits.isRowIndependent(directives.get(2)));
+    Assert.assertFalse(DirectiveTraits.isRowIndependent(directives.get(3)));
+    // Date formats are learned from the rows processed before.
+    Assert.assertFalse(DirectiveTraits.isRowIndependent(directives.get(4)));
+    // The regex engine is selected from the properties of the context.
+    Assert.assertFalse(DirectiveTraits.isRowIndependent(directives.get(5)));
+  }
+}
@@ -18,13 +18,30 @@ package io.cdap.wrangler.executor;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.RecipeCancelledException;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.UncheckedRecipeException;
+import io.cdap.wrangler.metrics.DirectiveMetrics;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Tests {@link RecipePipelineExecutor}.
@@ -96,4 +113,289 @@ public class RecipePipelineExecutorTest {
     Assert.assertEquals(1481666448L, record.<Long>get("timestamp").longValue());
     Assert.assertEquals(186.66f, record.get("weight"), 0.0001f);
   }
+
+  @Test
+  public void testDirectiveMetrics() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv :body ,",
+      "drop :body",
+      "filter-row exp:{body_1 == 'skip'} true",
+      "split-to-rows :body_2 -"
+    };
+    List<Row> rows = Arrays.asList(
+      new Row("body", "a,1-2-3"),
+      new Row("body", "skip,4"),
+      new Row("body", "b,5-6")
+    );
+
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                 new TestingPipelineContext());
+    executor.enableDirectiveMetrics(2);
+    Assert.assertEquals(5, executor.execute(rows).size());
+
+    List<DirectiveMetrics.Stats> stats = executor.getDirectiveMetrics().getStats();
+    Assert.assertEquals(4, stats.size());
+    Assert.assertEquals("parse-as-csv", stats.get(0).getName());
+    Assert.assertEquals(3, stats.get(2).getRowsIn());
+    Assert.assertEquals(2, stats.get(2).getRowsOut());
+    Assert.assertEquals("split-to-rows", stats.get(3).getName());
+    Assert.assertEquals(2, stats.get(3).getExecutions());
+    Assert.assertEquals(5, stats.get(3).getRowsOut());
+    // Only the first and the last rows are sampled.
+    Assert.assertEquals(3, stats.get(0).getExecutions());
+    Assert.assertEquals(2, stats.get(0).getSamples());
+    Assert.assertEquals(2, stats.get(3).getSamples());
+    Assert.assertTrue(stats.get(3).getEstimatedNanos() > 0);
+    Assert.assertEquals(1, stats.get(0).getColumnsIn());
+    Assert.assertEquals(3, stats.get(0).getColumnsOut());
+    Assert.assertEquals(2, stats.get(1).getColumnsOut());
+
+    Metrics metrics = Mockito.mock(Metrics.class);
+    Mockito.when(metrics.child(Mockito.anyMap())).thenReturn(metrics);
+    executor.getDirectiveMetrics().emit(metrics);
+    Mockito.verify(metrics).countLong(DirectiveMetrics.METRIC_PREFIX + "rows.out", 5L);
+    Mockito.verify(metrics).gauge(DirectiveMetrics.METRIC_PREFIX + "fanout.pct", 250L);
+    Assert.assertEquals(0, stats.get(3).getRowsOut());
+  }
+
+  @Test
+  public void testLazyExecution() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv :body ,",
+      "drop :body",
+      "send-to-error exp:{body_1 == 'bad'}",
+      "split-to-rows :body_2 -"
+    };
+
+    // Input is generated on demand, only the rows of a single batch are pulled at a time.
+    AtomicInteger pulled = new AtomicInteger();
+    Iterator<Row> input = new Iterator<Row>() {
+      @Override
+      public boolean hasNext() {
+        return pulled.get() < 1000;
+      }
+
+      @Override
+      public Row next() {
+        int i = pulled.getAndIncrement();
+        return new Row("body", (i % 100 == 99 ? "bad" : "r" + i) + "," + i + "-" + i);
+      }
+    };
+
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                 new TestingPipelineContext());
+    Iterator<Row> output = executor.execute(input, 10);
+    Assert.assertEquals(0, pulled.get());
+    Assert.assertTrue(output.hasNext());
+    Assert.assertEquals(10, pulled.get());
+
+    int count = 0;
+    while (output.hasNext()) {
+      Row row = output.next();
+      int expected = count / 2 + (count / 2) / 99;
+      Assert.assertEquals("r" + expected, row.getValue("body_1"));
+      Assert.assertEquals(String.valueOf(expected), row.getValue("body_2"));
+      count++;
+      Assert.assertEquals((expected / 10 + 1) * 10, pulled.get());
+    }
+    Assert.assertEquals(1980, count);
+    Assert.assertEquals(10, executor.errors().size());
+  }
+
+  @Test
+  public void testLazyExecutionFailure() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv :body ,",
+      "fail exp:{body_1 == 'bad'}"
+    };
+
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                 new TestingPipelineContext());
+    Stream<Row> input = Stream.of("a,1", "b,2", "bad,3").map(value -> new Row("body", value));
+    try (Stream<Row> output = executor.execute(input)) {
+      output.forEach(row -> { });
+      Assert.fail("Expected execution to fail");
+    } catch (UncheckedRecipeException e) {
+      Assert.assertEquals(2, e.getCause().getRowIndex());
+      Assert.assertEquals(2, e.getCause().getDirectiveIndex());
+    }
+  }
+
+  @Test
+  public void testCancellation() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv :body ,",
+      "drop :body"
+    };
+
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                 new TestingPipelineContext());
+    // The execution is cancelled while the third batch is pulled, so it stops before its first row.
+    AtomicInteger pulled = new AtomicInteger();
+    Iterator<Row> input = new Iterator<Row>() {
+      @Override
+      public boolean hasNext() {
+        return pulled.get() < 1000;
+      }
+
+      @Override
+      public Row next() {
+        if (pulled.incrementAndGet() == 25) {
+          executor.cancel();
+        }
+        return new Row("body", "a,b");
+      }
+    };
+
+    Iterator<Row> output = executor.execute(input, 10);
+    int count = 0;
+    try {
+      while (output.hasNext()) {
+        output.next();
+        count++;
+      }
+      Assert.fail("Expected execution to be cancelled");
+    } catch (UncheckedRecipeException e) {
+      Assert.assertTrue(e.getCause() instanceof RecipeCancelledException);
+      Assert.assertEquals(20, e.getCause().getRowIndex());
+    }
+    Assert.assertEquals(20, count);
+    Assert.assertEquals(30, pulled.get());
+    Assert.assertTrue(executor.isCancelled());
+
+    try {
+      executor.execute(Collections.singletonList(new Row("body", "a,b")));
+      Assert.fail("Expected execution to be cancelled");
+    } catch (RecipeCancelledException e) {
+      Assert.assertEquals(0, e.getRowIndex());
+    } finally {
+      executor.close();
+    }
+  }
+
+  @Test
+  public void testPipelinedExecution() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv :body ,",
+      "drop :body",
+      "send-to-error exp:{body_1 == 'bad'}",
+      "split-to-rows :body_2 -",
+      "uppercase :body_1",
+      "find-and-replace body_2 s/0/zero/g",
+      "rename body_1 name"
+    };
+    List<Row> input = new ArrayList<>();
+    for (int i = 0; i < 500; ++i) {
+      input.add(new Row("body", (i % 50 == 7 ? "bad" : "r" + i) + "," + i + "-" + (i * 10)));
+    }
+
+    RecipePipelineExecutor sequential = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                   new TestingPipelineContext());
+    List<Row> expected = sequential.execute(copy(input));
+
+    RecipePipelineExecutor pipelined = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                  new TestingPipelineContext());
+    pipelined.enablePipelining(3);
+    try {
+      Assert.assertEquals(expected, pipelined.execute(copy(input)));
+      Assert.assertEquals(sequential.errors().size(), pipelined.errors().size());
+      Assert.assertEquals(10, pipelined.errors().size());
+      for (int i = 0; i < sequential.errors().size(); ++i) {
+        Assert.assertEquals(sequential.errors().get(i).getRow(), pipelined.errors().get(i).getRow());
+      }
+
+      // A failure in a later stage is reported with the index of the row and directive that failed.
+      input.add(new Row("body", "x,1-one"));
+      List<Row> failing = copy(input);
+      failing.add(new Row("body", "y,1-2"));
+      String[] failure = new String[] {
+        "parse-as-csv :body ,",
+        "split-to-rows :body_2 -",
+        "set-type :body_2 integer"
+      };
+      RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(failure),
+                                                                   new TestingPipelineContext());
+      executor.enablePipelining(3);
+      try {
+        executor.execute(failing);
+        Assert.fail("Expected execution to fail");
+      } catch (RecipeException e) {
+        Assert.assertEquals(500, e.getRowIndex());
+        Assert.assertEquals(3, e.getDirectiveIndex());
+      } finally {
+        executor.close();
+      }
+    } finally {
+      pipelined.close();
+    }
+  }
+
+  @Test
+  public void testAbandonedPipeline() throws Exception {
+    String[] commands = new String[] {
+      "uppercase :body",
+      "trim :body",
+      "lowercase :body"
+    };
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                 new TestingPipelineContext());
+    executor.enablePipelining(3);
+    try {
+      Set<Thread> stages = startAndAbandon(executor);
+      Assert.assertEquals(3, stages.size());
+
+      // The stages stop once the output iterator is garbage collected, without closing the executor.
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      while (stages.stream().anyMatch(Thread::isAlive) && System.currentTimeMillis() < deadline) {
+        System.gc();
+        TimeUnit.MILLISECONDS.sleep(50);
+      }
+      Assert.assertFalse(stages.stream().anyMatch(Thread::isAlive));
+    } finally {
+      executor.close();
+    }
+  }
+
+  /**
+   * Starts a pipelined execution over an endless input, consumes a few rows and abandons the output.
+   *
+   * @return the threads of the stages.
+   */
+  private static Set<Thread> startAndAbandon(RecipePipelineExecutor executor) throws Exception {
+    Set<Thread> before = Thread.getAllStackTraces().keySet();
+    AtomicInteger count = new AtomicInteger();
+    Iterator<Row> output = executor.execute(Stream.generate(() -> new Row("body", " Row " + count.get()))
+                                              .peek(row -> count.incrementAndGet()).iterator(), 10);
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals("row " + i, output.next().getValue("body"));
+    }
+    return Thread.getAllStackTraces().keySet().stream()
+      .filter(thread -> !before.contains(thread) && thread.getName().startsWith("wrangler-pipeline-stage-"))
+      .collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testStageSplit() throws Exception {
+    String[] commands = new String[] {
+      "uppercase :a",
+      "set-variable total b",
+      "lowercase :c",
+      "trim :d",
+      "rename e f"
+    };
+    List<Directive> directives = TestingRig.parse(commands).parse();
+    // Directives up to 'set-variable' are pinned to the first stage.
+    Assert.assertEquals(Arrays.asList(2, 3), PipelinedExecution.split(directives, 3));
+    Assert.assertEquals(Arrays.asList(2, 3, 4), PipelinedExecution.split(directives, 10));
+    Assert.assertEquals(Collections.emptyList(), PipelinedExecution.split(directives.subList(0, 2), 4));
+    Assert.assertEquals(Collections.singletonList(1), PipelinedExecution.split(directives.subList(2, 5), 2));
+  }
+
+  private static List<Row> copy(List<Row> rows) {
+    List<Row> copies = new ArrayList<>();
+    for (Row row : rows) {
+      copies.add(new Row(row));
+    }
+    return copies;
+  }
 }
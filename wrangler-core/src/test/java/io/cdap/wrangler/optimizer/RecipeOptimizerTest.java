@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.optimizer;
+
+import io.cdap.directives.column.Drop;
+import io.cdap.directives.row.RecordConditionFilter;
+import io.cdap.directives.transformation.ColumnExpression;
+import io.cdap.directives.transformation.Lower;
+import io.cdap.directives.transformation.Upper;
+import io.cdap.wrangler.TestingPipelineContext;
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link RecipeOptimizer}.
+ */
+public class RecipeOptimizerTest {
+
+  @Test
+  public void testFilterPushDown() throws Exception {
+    String[] recipe = new String[] {
+      "uppercase :name",
+      "set-column :total price * 2",
+      "filter-row exp:{age < 18} true"
+    };
+
+    List<Directive> directives = new RecipeOptimizer(TestingRig.parse(recipe)).parse();
+    Assert.assertEquals(3, directives.size());
+    Assert.assertTrue(directives.get(0) instanceof RecordConditionFilter);
+    Assert.assertTrue(directives.get(1) instanceof Upper);
+  }
+
+  @Test
+  public void testFilterIsNotMovedAheadOfItsInputs() throws Exception {
+    String[] recipe = new String[] {
+      "split-to-columns :body ,",
+      "uppercase :name",
+      "filter-row exp:{body_1 == 'x'} true"
+    };
+
+    List<Directive> directives = new RecipeOptimizer(TestingRig.parse(recipe)).parse();
+    Assert.assertTrue(directives.get(1) instanceof RecordConditionFilter);
+    Assert.assertTrue(directives.get(2) instanceof Upper);
+
+    // Unknown directives are never reordered.
+    recipe = new String[] {
+      "set-variable total price",
+      "filter-row exp:{total > 10} true"
+    };
+    directives = new RecipeOptimizer(TestingRig.parse(recipe)).parse();
+    Assert.assertTrue(directives.get(1) instanceof RecordConditionFilter);
+
+    // A property of a column is read as a dotted variable.
+    recipe = new String[] {
+      "set-column :m json:Parse(body)",
+      "filter-row exp:{m.k == 'v'} true"
+    };
+    directives = new RecipeOptimizer(TestingRig.parse(recipe)).parse();
+    Assert.assertTrue(directives.get(0) instanceof ColumnExpression);
+    Assert.assertTrue(directives.get(1) instanceof RecordConditionFilter);
+  }
+
+  @Test
+  public void testDeadTransformElimination() throws Exception {
+    String[] recipe = new String[] {
+      "uppercase :name",
+      "trim :name",
+      "lowercase :city",
+      "drop :name"
+    };
+
+    List<Directive> directives = new RecipeOptimizer(TestingRig.parse(recipe)).parse();
+    Assert.assertEquals(2, directives.size());
+    Assert.assertTrue(directives.get(0) instanceof Lower);
+    Assert.assertTrue(directives.get(1) instanceof Drop);
+  }
+
+  @Test
+  public void testTransformFusion() throws Exception {
+    String[] recipe = new String[] {
+      "trim :name",
+      "lowercase :NAME",
+      "titlecase :name",
+      "uppercase :city"
+    };
+
+    RecipeParser parser = new RecipeOptimizer(TestingRig.parse(recipe));
+    List<Directive> directives = parser.parse();
+    Assert.assertEquals(2, directives.size());
+    Assert.assertTrue(directives.get(0) instanceof FusedStringTransform);
+    Assert.assertEquals(3, ((FusedStringTransform) directives.get(0)).getDirectives().size());
+
+    List<Row> rows = Arrays.asList(
+      new Row("name", "  jOHN dOE ").add("city", "sf"),
+      new Row("name", 10).add("city", "la")
+    );
+    rows = new RecipePipelineExecutor(parser, new TestingPipelineContext()).execute(rows);
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals("John Doe", rows.get(0).getValue("name"));
+    Assert.assertEquals("SF", rows.get(0).getValue("city"));
+    Assert.assertEquals(10, rows.get(1).getValue("name"));
+    Assert.assertEquals("LA", rows.get(1).getValue("city"));
+  }
+
+  @Test
+  public void testOptimizedRecipeProducesSameResult() throws Exception {
+    String[] recipe = new String[] {
+      "trim :name",
+      "uppercase :name",
+      "split-to-columns :address ,",
+      "drop :address",
+      "filter-row exp:{age < 18} true",
+      "filter-row exp:{address_2 == 'CA'} false"
+    };
+
+    List<Row> expected = TestingRig.execute(recipe, rows());
+    List<Row> actual = new RecipePipelineExecutor(new RecipeOptimizer(TestingRig.parse(recipe)),
+                                                  new TestingPipelineContext()).execute(rows());
+    Assert.assertEquals(1, actual.size());
+    Assert.assertEquals(expected, actual);
+  }
+
+  private static List<Row> rows() {
+    return Arrays.asList(
+      new Row("name", " joltie ").add("age", 10).add("address", "1 main st,CA"),
+      new Row("name", " root ").add("age", 30).add("address", "2 main st,CA"),
+      new Row("name", " jocker ").add("age", 40).add("address", "3 main st,NV")
+    );
+  }
+}
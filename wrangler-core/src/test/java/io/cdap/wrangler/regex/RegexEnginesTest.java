@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.regex;
+
+import io.cdap.wrangler.TestingPipelineContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link RegexEngines}
+ */
+public class RegexEnginesTest {
+
+  @Test
+  public void testGet() {
+    Assert.assertSame(RegexEngines.JAVA, RegexEngines.get("java"));
+    Assert.assertSame(RegexEngines.LINEAR, RegexEngines.get("Linear"));
+    try {
+      RegexEngines.get("perl");
+      Assert.fail("Unknown engine should not be returned");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConfigured() {
+    TestingPipelineContext context = new TestingPipelineContext();
+    Assert.assertSame(RegexEngines.JAVA, RegexEngines.configured(null));
+    Assert.assertSame(RegexEngines.JAVA, RegexEngines.configured(context));
+    context.getProperties().put(RegexEngines.ENGINE_PROPERTY, "linear");
+    Assert.assertSame(RegexEngines.LINEAR, RegexEngines.configured(context));
+    Assert.assertFalse(RegexEngines.fallback(context));
+    context.getProperties().put(RegexEngines.FALLBACK_PROPERTY, "true");
+    Assert.assertTrue(RegexEngines.fallback(context));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedPattern() {
+    RegexEngines.LINEAR.compile("(a)\\1");
+  }
+
+  @Test
+  public void testSameResults() {
+    String[] patterns = { ",", "\\s*,\\s*", "", "^", "x*", "(\\w+)@(\\w+)?", "[^,]+" };
+    String[] inputs = { "", "a", ",a,,b,,", "a , b,c", "joe@x, amy@", "xxaxx" };
+    for (String pattern : patterns) {
+      Regex java = RegexEngines.JAVA.compile(pattern);
+      Regex linear = RegexEngines.LINEAR.compile(pattern);
+      Assert.assertEquals(java.groupCount(), linear.groupCount());
+      for (String input : inputs) {
+        String message = pattern + " on " + input;
+        Assert.assertEquals(message, java.matches(input), linear.matches(input));
+        for (int limit = -1; limit <= 2; limit++) {
+          Assert.assertArrayEquals(message, java.split(input, limit), linear.split(input, limit));
+        }
+        Assert.assertEquals(message, replace(java, input), replace(linear, input));
+      }
+    }
+  }
+
+  private static String replace(Regex regex, String input) {
+    StringBuffer buffer = new StringBuffer();
+    RegexMatcher matcher = regex.matcher(input);
+    while (matcher.find()) {
+      buffer.append('[').append(matcher.start()).append(',').append(matcher.end()).append(']');
+      matcher.appendReplacement(buffer, regex.groupCount() > 0 ? "<$1>" : "<$0>");
+    }
+    matcher.appendTail(buffer);
+    return buffer.toString();
+  }
+}
@@ -360,4 +360,67 @@ public class RecordConvertorTest {
     StructuredRecord structuredRecord = new RecordConvertor().decodeRecord(row, schema);
     Assert.assertEquals(value, structuredRecord.getDateTime(fieldName));
   }
+
+  @Test
+  public void testChangingColumnLayout() throws Exception {
+    Schema schema = Schema.recordOf("test",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                    Schema.Field.of("cost", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))));
+
+    RecordConvertor rc = new RecordConvertor();
+    List<StructuredRecord> records = rc.toStructureRecord(Arrays.asList(
+      new Row("id", 1).add("name", "a").add("cost", 1.5),
+      new Row("id", 2).add("name", "b").add("cost", 2.5),
+      new Row("COST", "3.5").add("ID", "3"),
+      new Row("id", 4).add("name", "d").add("cost", 4.5)
+    ), schema);
+
+    Assert.assertEquals(4, records.size());
+    Assert.assertEquals(2, (int) records.get(1).get("id"));
+    Assert.assertEquals("b", records.get(1).get("name"));
+    Assert.assertEquals(3, (int) records.get(2).get("id"));
+    Assert.assertNull(records.get(2).get("name"));
+    Assert.assertEquals(3.5d, records.get(2).get("cost"), 0.0001d);
+    Assert.assertEquals("d", records.get(3).get("name"));
+    Assert.assertEquals(4.5d, records.get(3).get("cost"), 0.0001d);
+  }
+
+  @Test
+  public void testOutputRecordConversion() throws Exception {
+    Schema schema = Schema.recordOf("test",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                    Schema.Field.of("date", Schema.nullableOf(Schema.of(LogicalType.DATE))),
+                                    Schema.Field.of("time", Schema.nullableOf(Schema.of(LogicalType.TIME_MICROS))));
+
+    RecordConvertor rc = new RecordConvertor();
+    Row row = new Row("id", "1").add("name", "abc").add("date", LocalDate.of(2018, 11, 11)).add("time", "10");
+    StructuredRecord actual = rc.toOutputRecord(row, schema);
+
+    StructuredRecord expected = StructuredRecord.builder(schema)
+      .set("id", 1)
+      .set("name", "abc")
+      .setDate("date", LocalDate.of(2018, 11, 11))
+      .set("time", 10L)
+      .build();
+    Assert.assertEquals(expected, actual);
+
+    // Records passed through as a single column are mapped to the output schema.
+    Schema inner = Schema.recordOf("inner",
+                                   Schema.Field.of("id", Schema.of(Schema.Type.STRING)),
+                                   Schema.Field.of("name", Schema.of(Schema.Type.STRING)));
+    StructuredRecord record = StructuredRecord.builder(inner).set("id", "1").set("name", "abc").build();
+    actual = rc.toOutputRecord(new Row("body", record), schema);
+    Assert.assertEquals(1, (int) actual.get("id"));
+    Assert.assertEquals("abc", actual.get("name"));
+    Assert.assertNull(actual.get("date"));
+  }
+
+  @Test(expected = RecordConvertor.ConversionException.class)
+  public void testOutputRecordConversionFailure() throws Exception {
+    Schema schema = Schema.recordOf("test",
+                                    Schema.Field.of("time", Schema.nullableOf(Schema.of(LogicalType.TIME_MICROS))));
+    new RecordConvertor().toOutputRecord(new Row("time", "noon"), schema);
+  }
 }
@@ -127,4 +127,38 @@ public class StructuredToRowTransformerTest {
     Assert.assertEquals(expected.getValue("f15"), row.getValue("f15"));
     Assert.assertEquals(expected, row);
   }
+
+  @Test
+  public void testLazyRow() {
+    Schema schema = Schema.recordOf(
+      "schema",
+      Schema.Field.of("a", Schema.of(Schema.Type.INT)),
+      Schema.Field.of("b", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("c", Schema.of(Schema.Type.BYTES)),
+      Schema.Field.of("d", Schema.of(Schema.LogicalType.DATE)),
+      Schema.Field.of("e", Schema.nullableOf(Schema.of(Schema.Type.LONG))));
+    StructuredRecord record = StructuredRecord.builder(schema)
+      .set("a", 1).set("b", "bbb").set("c", ByteBuffer.wrap("test".getBytes(Charsets.UTF_8)))
+      .setDate("d", LocalDate.of(2020, 1, 1)).set("e", 5L)
+      .build();
+
+    Row row = StructuredToRowTransformer.transformLazily(record);
+    Assert.assertEquals(5, row.width());
+    Assert.assertEquals("bbb", row.getValue("b"));
+    Assert.assertTrue(row.getValue("c") instanceof byte[]);
+
+    // Modify the row before the remaining values have been read.
+    row.remove(row.find("a"));
+    row.add("f", "fff");
+    row.addOrSetAtIndex(0, "g", "ggg");
+    row.setValue(row.find("e"), 10L);
+    Assert.assertEquals("ggg", row.getValue(0));
+    Assert.assertEquals(LocalDate.of(2020, 1, 1), row.getValue("d"));
+    Assert.assertEquals(10L, row.getValue("e"));
+    Assert.assertEquals("fff", row.getValue("f"));
+
+    Row copy = new Row(row);
+    Assert.assertEquals(row, copy);
+    Assert.assertEquals(StructuredToRowTransformer.transform(record).getValue("d"), copy.getValue("d"));
+  }
 }
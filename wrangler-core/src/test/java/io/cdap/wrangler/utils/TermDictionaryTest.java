@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.wrangler.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests {@link TermDictionary}
+ */
+public class TermDictionaryTest {
+
+  @Test
+  public void testLongestMatchWins() {
+    Map<String, String> terms = new LinkedHashMap<>();
+    terms.put("he", "1");
+    terms.put("she", "2");
+    terms.put("his", "3");
+    terms.put("hers", "4");
+    TermDictionary dictionary = new TermDictionary(terms, false, false);
+
+    Assert.assertEquals("u2", dictionary.replace("ushe"));
+    Assert.assertEquals("4", dictionary.replace("hers"));
+    Assert.assertEquals("a31", dictionary.replace("ahishe"));
+    Assert.assertEquals("3 1 2", dictionary.replace("his he she"));
+    // Replacements don't overlap, the leftmost match wins.
+    Assert.assertEquals("2rs", dictionary.replace("shers"));
+  }
+
+  @Test
+  public void testNoMatchReturnsSameValue() {
+    Map<String, String> terms = new LinkedHashMap<>();
+    terms.put("abc", "x");
+    TermDictionary dictionary = new TermDictionary(terms, false, false);
+
+    String value = "ab bc abd";
+    Assert.assertSame(value, dictionary.replace(value));
+    Assert.assertEquals("", dictionary.replace(""));
+  }
+
+  @Test
+  public void testWholeWord() {
+    Map<String, String> terms = new LinkedHashMap<>();
+    terms.put("St", "Street");
+    terms.put("St.", "Street");
+    terms.put("Ave", "Avenue");
+    TermDictionary dictionary = new TermDictionary(terms, true, false);
+
+    Assert.assertEquals("1 Main Street, Stanford", dictionary.replace("1 Main St, Stanford"));
+    Assert.assertEquals("5th Avenue", dictionary.replace("5th Ave"));
+    Assert.assertEquals("Main Street", dictionary.replace("Main St."));
+    Assert.assertEquals("Aves", dictionary.replace("Aves"));
+  }
+
+  @Test
+  public void testIgnoreCase() {
+    Map<String, String> terms = new LinkedHashMap<>();
+    terms.put("corp", "Corporation");
+    terms.put("INC", "Incorporated");
+    TermDictionary dictionary = new TermDictionary(terms, true, true);
+
+    Assert.assertEquals("Acme Corporation", dictionary.replace("Acme CORP"));
+    Assert.assertEquals("Acme Incorporated", dictionary.replace("Acme inc"));
+    Assert.assertEquals("Incorporation", dictionary.replace("Incorporation"));
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    String text = "# vendor codes\n" +
+      "IBM\tInternational Business Machines\n" +
+      "\n" +
+      "hp, Hewlett-Packard\n" +
+      "a,b\tc\n";
+    Map<String, String> terms = TermDictionary.read(new StringReader(text));
+
+    Assert.assertEquals(3, terms.size());
+    Assert.assertEquals("International Business Machines", terms.get("IBM"));
+    Assert.assertEquals("Hewlett-Packard", terms.get("hp"));
+    Assert.assertEquals("c", terms.get("a,b"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadWithoutReplacement() throws Exception {
+    TermDictionary.read(new StringReader("IBM\nhp,Hewlett-Packard\n"));
+  }
+}
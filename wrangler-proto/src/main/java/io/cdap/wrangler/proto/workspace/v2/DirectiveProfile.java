@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+/**
+ * Execution profile of a directive of a recipe run over the workspace sample.
+ */
+public class DirectiveProfile {
+  private final String directive;
+  private final long wallTimeNanos;
+  private final long rowsIn;
+  private final long rowsOut;
+  private final int columnsIn;
+  private final int columnsOut;
+  private final long allocatedBytes;
+  private final long errors;
+
+  public DirectiveProfile(String directive, long wallTimeNanos, long rowsIn, long rowsOut, int columnsIn,
+                          int columnsOut, long allocatedBytes, long errors) {
+    this.directive = directive;
+    this.wallTimeNanos = wallTimeNanos;
+    this.rowsIn = rowsIn;
+    this.rowsOut = rowsOut;
+    this.columnsIn = columnsIn;
+    this.columnsOut = columnsOut;
+    this.allocatedBytes = allocatedBytes;
+    this.errors = errors;
+  }
+
+  public String getDirective() {
+    return directive;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  public long getRowsIn() {
+    return rowsIn;
+  }
+
+  public long getRowsOut() {
+    return rowsOut;
+  }
+
+  public int getColumnsIn() {
+    return columnsIn;
+  }
+
+  public int getColumnsOut() {
+    return columnsOut;
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+}
@@ -17,24 +17,29 @@
 
 package io.cdap.wrangler.service.directive;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
 import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
 import io.cdap.cdap.features.Feature;
 import io.cdap.directives.aggregates.DefaultTransientStore;
 import io.cdap.wrangler.api.CompileException;
+import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveConfig;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRecordBase;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.GrammarMigrator;
 import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.RecipeCancelledException;
 import io.cdap.wrangler.api.RecipeException;
-import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientStore;
+import io.cdap.wrangler.executor.DirectiveTraits;
 import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.metrics.DirectiveMetrics;
 import io.cdap.wrangler.parser.ConfigDirectiveContext;
 import io.cdap.wrangler.parser.GrammarBasedParser;
 import io.cdap.wrangler.parser.GrammarWalker;
@@ -46,6 +51,7 @@ import io.cdap.wrangler.proto.workspace.ColumnStatistics;
 import io.cdap.wrangler.proto.workspace.ColumnValidationResult;
 import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveProfile;
 import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
 import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
@@ -69,7 +75,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Abstract handler which contains common logic for v1 and v2 endpoints
@@ -86,9 +95,14 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
   protected static final String RECORD_DELIMITER_HEADER = "recorddelimiter";
   protected static final String DELIMITER_HEADER = "delimiter";
   protected static final TransientStore TRANSIENT_STORE = new DefaultTransientStore();
+  // Samples are split in chunks of at least this many rows when executed in parallel.
+  static final int MIN_CHUNK_SIZE = 256;
 
   protected DirectiveRegistry composite;
   protected boolean schemaManagementEnabled;
+  // Injected by CDAP
+  protected Metrics metrics;
+  private ExecutionScheduler scheduler;
 
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
@@ -98,6 +112,17 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       new UserDirectiveRegistry(context)
     );
     schemaManagementEnabled = Feature.WRANGLER_SCHEMA_MANAGEMENT.isEnabled(context);
+    scheduler = ExecutionScheduler.get(context.getRuntimeArguments());
+  }
+
+  /**
+   * Initializes the handler outside of a service, to execute recipes in tests.
+   */
+  @VisibleForTesting
+  void initialize(DirectiveRegistry composite, ExecutionScheduler scheduler, Metrics metrics) {
+    this.composite = composite;
+    this.scheduler = scheduler;
+    this.metrics = metrics;
   }
 
   /**
@@ -119,6 +144,21 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       List<String> directives,
       List<Row> sample,
       GrammarWalker.Visitor<E> grammarVisitor) throws DirectiveParseException, E, RecipeException {
+    return executeDirectives(namespace, directives, sample, grammarVisitor, null);
+  }
+
+  /**
+   * Executes the directives on the sample. When profiles is not null, the latency, row and column counts and
+   * allocations of every directive are measured on every row and a profile per directive is added to it.
+   * The execution waits for a slot of the namespace in the {@link ExecutionScheduler}, and is cancelled if it
+   * does not complete before its deadline.
+   */
+  protected <E extends Exception> List<Row> executeDirectives(
+      String namespace,
+      List<String> directives,
+      List<Row> sample,
+      GrammarWalker.Visitor<E> grammarVisitor,
+      @Nullable List<DirectiveProfile> profiles) throws DirectiveParseException, E, RecipeException {
 
     if (directives.isEmpty()) {
       return sample;
@@ -135,13 +175,44 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       throw new BadRequestException(e.getMessage(), e);
     }
 
-    RecipeParser parser = new GrammarBasedParser(namespace, recipe, composite,
-                                                 new ConfigDirectiveContext(DirectiveConfig.EMPTY));
-    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(parser,
+    try (ExecutionScheduler.Execution execution = scheduler.admit(namespace, metrics)) {
+      try {
+        return execute(namespace, recipe, sample, profiles, execution);
+      } catch (RecipeCancelledException e) {
+        throw execution.timeout();
+      }
+    }
+  }
+
+  private List<Row> execute(String namespace, String recipe, List<Row> sample,
+                            @Nullable List<DirectiveProfile> profiles,
+                            ExecutionScheduler.Execution execution) throws RecipeException {
+    List<Directive> parsed = parse(namespace, recipe);
+    if (profiles == null && !schemaManagementEnabled && sample.size() >= 2 * MIN_CHUNK_SIZE
+      && parsed.stream().allMatch(DirectiveTraits::isRowIndependent)) {
+      // Chunks only run in parallel on the slots of the namespace that are free.
+      int chunks = execution.reserve(sample.size() / MIN_CHUNK_SIZE);
+      if (chunks > 1) {
+        return executeInParallel(namespace, recipe, parsed, sample, chunks, execution);
+      }
+    }
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> parsed,
                                                                       new ServicePipelineContext(
                                                                         namespace, ExecutorContext.Environment.SERVICE,
                                                                         getContext(), TRANSIENT_STORE))) {
+      execution.watch(executor);
+      if (profiles != null) {
+        executor.enableDirectiveMetrics(1);
+      }
       List<Row> result = executor.execute(sample);
+      if (profiles != null && executor.getDirectiveMetrics() != null) {
+        for (DirectiveMetrics.Stats stats : executor.getDirectiveMetrics().getStats()) {
+          profiles.add(new DirectiveProfile(stats.getName(), stats.getEstimatedNanos(), stats.getRowsIn(),
+                                            stats.getRowsOut(), stats.getColumnsIn(), stats.getColumnsOut(),
+                                            stats.getEstimatedBytes(), stats.getErrors()));
+        }
+      }
 
       List<ErrorRecordBase> errors = executor.errors()
         .stream()
@@ -155,6 +226,87 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
     }
   }
 
+  private List<Directive> parse(String namespace, String recipe) throws RecipeException {
+    return new GrammarBasedParser(namespace, recipe, composite,
+                                  new ConfigDirectiveContext(DirectiveConfig.EMPTY)).parse();
+  }
+
+  /**
+   * Executes a recipe of row independent directives over consecutive chunks of the sample on the workers of the
+   * {@link ExecutionScheduler}.
+   * Every chunk is executed by its own instances of the directives, the outputs are concatenated in the order of
+   * the chunks, and the errors are reported in row order.
+   */
+  private List<Row> executeInParallel(String namespace, String recipe, List<Directive> parsed,
+                                      List<Row> sample, int chunks,
+                                      ExecutionScheduler.Execution execution) throws RecipeException {
+    List<RecipePipelineExecutor> executors = new ArrayList<>(chunks);
+    try {
+      // Directives are not thread safe, so every chunk other than the first gets a fresh copy of the recipe.
+      for (int i = 0; i < chunks; i++) {
+        List<Directive> directives = i == 0 ? parsed : parse(namespace, recipe);
+        RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> directives, new ServicePipelineContext(
+          namespace, ExecutorContext.Environment.SERVICE, getContext(), new DefaultTransientStore()));
+        executors.add(executor);
+        execution.watch(executor);
+      }
+
+      List<Future<List<Row>>> futures = new ArrayList<>(chunks);
+      int[] offsets = new int[chunks];
+      for (int i = 0; i < chunks; i++) {
+        offsets[i] = (int) ((long) sample.size() * i / chunks);
+        List<Row> chunk = sample.subList(offsets[i], (int) ((long) sample.size() * (i + 1) / chunks));
+        RecipePipelineExecutor executor = executors.get(i);
+        futures.add(execution.submit(() -> executor.execute(chunk)));
+      }
+
+      // Wait for all the chunks before the executors are closed, and report the failure of the earliest chunk.
+      List<Row> result = new ArrayList<>(sample.size());
+      Exception failure = null;
+      int failedOffset = 0;
+      for (int i = 0; i < chunks; i++) {
+        try {
+          result.addAll(futures.get(i).get());
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            failedOffset = offsets[i];
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          futures.forEach(future -> future.cancel(true));
+          throw new RecipeException("Interrupted while executing the recipe", e);
+        }
+      }
+      if (failure instanceof RecipeCancelledException) {
+        throw (RecipeCancelledException) failure;
+      }
+      if (failure instanceof RecipeException) {
+        RecipeException e = (RecipeException) failure;
+        throw new RecipeException(e.getMessage(), e.getCause(), e.getRowIndex() + failedOffset,
+                                  e.getDirectiveIndex());
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure != null) {
+        throw new RecipeException(failure.getMessage(), failure);
+      }
+
+      List<ErrorRecordBase> errors = executors.stream()
+        .flatMap(executor -> executor.errors().stream())
+        .filter(ErrorRecordBase::isShownInWrangler)
+        .collect(Collectors.toList());
+
+      if (!errors.isEmpty()) {
+        throw new ErrorRecordsException(errors);
+      }
+      return result;
+    } finally {
+      executors.forEach(RecipePipelineExecutor::close);
+    }
+  }
+
   /**
    * Transform the rows to response that is user friendly. Also generates the summary from the rows.
    */
@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.proto.StatusCodeException;
+
+import java.io.Closeable;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of recipes executed at the same time by the service in every namespace. Executions beyond the
+ * limit wait in a bounded queue until a slot frees up, and are rejected when the queue of the namespace is full.
+ * Every execution has a deadline covering both the time spent in the queue and the execution itself; the
+ * executors of an execution still running at its deadline are cancelled.
+ *
+ * <p>An execution can split its work into parallel tasks by reserving the free slots of its namespace, and runs
+ * them on the worker threads of its namespace. Every namespace has its own workers, as many as it has slots, so
+ * the tasks of a namespace never wait behind the tasks of another one. Workers exit when idle, so parallel
+ * executions never use more threads than the limit of a namespace allows.</p>
+ */
+final class ExecutionScheduler {
+  static final String MAX_CONCURRENT = "wrangler.service.execution.max.concurrent";
+  static final String MAX_QUEUED = "wrangler.service.execution.max.queued";
+  static final String TIMEOUT_SECONDS = "wrangler.service.execution.timeout.seconds";
+
+  static final String QUEUED_METRIC = "directive.execution.queued";
+  static final String REJECTED_METRIC = "directive.execution.rejected";
+  static final String TIMED_OUT_METRIC = "directive.execution.timedout";
+
+  private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "wrangler-execution-deadline");
+    thread.setDaemon(true);
+    return thread;
+  });
+  // Idle workers exit after this many seconds.
+  private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+  private static ExecutionScheduler instance;
+
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final long timeoutMillis;
+  private final ConcurrentMap<String, Slots> namespaces = new ConcurrentHashMap<>();
+  // Number of executions waiting in the queues of all the namespaces.
+  private final AtomicInteger queued = new AtomicInteger();
+
+  /**
+   * Returns the scheduler shared by all the handlers of the service, creating it from the runtime arguments of the
+   * service the first time.
+   */
+  static synchronized ExecutionScheduler get(Map<String, String> arguments) {
+    if (instance == null) {
+      int processors = Runtime.getRuntime().availableProcessors();
+      int maxConcurrent = Integer.parseInt(arguments.getOrDefault(MAX_CONCURRENT, String.valueOf(processors)));
+      int maxQueued = Integer.parseInt(arguments.getOrDefault(MAX_QUEUED, String.valueOf(4 * maxConcurrent)));
+      long timeoutSeconds = Long.parseLong(arguments.getOrDefault(TIMEOUT_SECONDS, "300"));
+      instance = new ExecutionScheduler(maxConcurrent, maxQueued, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+    }
+    return instance;
+  }
+
+  ExecutionScheduler(int maxConcurrent, int maxQueued, long timeoutMillis) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("Maximum number of concurrent executions must be at least 1, found "
+                                           + maxConcurrent);
+    }
+    if (maxQueued < 0) {
+      throw new IllegalArgumentException("Maximum number of queued executions cannot be negative, found "
+                                           + maxQueued);
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Waits for a slot to execute a recipe in the namespace. The slot is released when the returned execution is
+   * closed.
+   *
+   * @throws StatusCodeException with status 503 if the queue of the namespace is full, or 504 if no slot frees up
+   *                             before the deadline.
+   */
+  Execution admit(String namespace, Metrics metrics) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    Slots slots = namespaces.computeIfAbsent(namespace, name -> new Slots(name, maxConcurrent));
+    if (!slots.permits.tryAcquire()) {
+      if (slots.waiting.incrementAndGet() > maxQueued) {
+        slots.waiting.decrementAndGet();
+        metrics.count(REJECTED_METRIC, 1);
+        throw new StatusCodeException(
+          String.format("Too many recipes are being executed in namespace '%s'. Please try again later.", namespace),
+          HttpURLConnection.HTTP_UNAVAILABLE);
+      }
+      metrics.gauge(QUEUED_METRIC, queued.incrementAndGet());
+      boolean acquired;
+      try {
+        acquired = slots.permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StatusCodeException("Interrupted while waiting to execute the recipe", e,
+                                      HttpURLConnection.HTTP_UNAVAILABLE);
+      } finally {
+        slots.waiting.decrementAndGet();
+        metrics.gauge(QUEUED_METRIC, queued.decrementAndGet());
+      }
+      if (!acquired) {
+        metrics.count(TIMED_OUT_METRIC, 1);
+        throw timeout(namespace);
+      }
+    }
+    return new Execution(namespace, slots, metrics, deadline - System.nanoTime());
+  }
+
+  /**
+   * @return number of slots of the namespace that are not in use.
+   */
+  int getAvailable(String namespace) {
+    Slots slots = namespaces.get(namespace);
+    return slots == null ? maxConcurrent : slots.permits.availablePermits();
+  }
+
+  /**
+   * @return number of executions waiting for a slot in the namespace.
+   */
+  int getQueued(String namespace) {
+    Slots slots = namespaces.get(namespace);
+    return slots == null ? 0 : slots.waiting.get();
+  }
+
+  private StatusCodeException timeout(String namespace) {
+    return new StatusCodeException(String.format("Recipe execution in namespace '%s' did not complete within %d ms.",
+                                                 namespace, timeoutMillis), HttpURLConnection.HTTP_GATEWAY_TIMEOUT);
+  }
+
+  /**
+   * Slots of a namespace, and the workers running the parallel tasks of its executions.
+   */
+  private static final class Slots {
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    // The tasks running at once are bounded by the slots reserved in the namespace, so they hardly ever queue.
+    private final ThreadPoolExecutor workers;
+
+    private Slots(String namespace, int maxConcurrent) {
+      this.permits = new Semaphore(maxConcurrent, true);
+      AtomicInteger count = new AtomicInteger();
+      this.workers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                            new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "wrangler-execution-worker-" + namespace + "-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.workers.allowCoreThreadTimeOut(true);
+    }
+  }
+
+  /**
+   * An admitted execution, holding a slot of its namespace until it is closed.
+   */
+  final class Execution implements Closeable {
+    private final String namespace;
+    private final Slots slots;
+    private final Metrics metrics;
+    private final List<RecipePipelineExecutor> executors = new CopyOnWriteArrayList<>();
+    private final ScheduledFuture<?> deadline;
+    // Additional slots reserved for parallel tasks.
+    private int reserved;
+    private volatile boolean expired;
+
+    private Execution(String namespace, Slots slots, Metrics metrics, long remainingNanos) {
+      this.namespace = namespace;
+      this.slots = slots;
+      this.metrics = metrics;
+      this.deadline = DEADLINES.schedule(this::expire, remainingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancels the executor if the execution is still running at its deadline.
+     */
+    void watch(RecipePipelineExecutor executor) {
+      executors.add(executor);
+      if (expired) {
+        executor.cancel();
+      }
+    }
+
+    /**
+     * Reserves slots of the namespace that are free, without waiting, so that the execution can run up to the
+     * given number of tasks in parallel. The slots are released when the execution is closed.
+     *
+     * @param tasks number of tasks the execution would like to run in parallel.
+     * @return number of tasks the execution can run in parallel, at least one for the slot of the execution.
+     */
+    int reserve(int tasks) {
+      while (1 + reserved < tasks && slots.permits.tryAcquire()) {
+        reserved++;
+      }
+      return 1 + reserved;
+    }
+
+    /**
+     * Runs a task of the execution on a worker of its namespace.
+     */
+    <T> Future<T> submit(Callable<T> task) {
+      return slots.workers.submit(task);
+    }
+
+    /**
+     * @return whether the deadline of the execution has passed.
+     */
+    boolean isExpired() {
+      return expired;
+    }
+
+    /**
+     * @return the exception to report an execution cancelled at its deadline.
+     */
+    StatusCodeException timeout() {
+      metrics.count(TIMED_OUT_METRIC, 1);
+      return ExecutionScheduler.this.timeout(namespace);
+    }
+
+    private void expire() {
+      expired = true;
+      executors.forEach(RecipePipelineExecutor::cancel);
+    }
+
+    @Override
+    public void close() {
+      deadline.cancel(false);
+      slots.permits.release(1 + reserved);
+      reserved = 0;
+    }
+  }
+}
@@ -63,6 +63,7 @@ import io.cdap.wrangler.proto.recipe.v2.RecipeId;
 import io.cdap.wrangler.proto.workspace.v2.Artifact;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionRequest;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveProfile;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveUsage;
 import io.cdap.wrangler.proto.workspace.v2.Plugin;
 import io.cdap.wrangler.proto.workspace.v2.SampleSpec;
@@ -122,10 +123,6 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
   private RecipeStore recipeStore;
   private ConnectionDiscoverer discoverer;
 
-  // Injected by CDAP
-  @SuppressWarnings("unused")
-  private Metrics metrics;
-
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
     super.initialize(context);
@@ -367,6 +364,30 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     });
   }
 
+  /**
+   * Executes the directives on the workspace sample and returns the profile of each directive, without updating
+   * the workspace.
+   */
+  @POST
+  @TransactionPolicy(value = TransactionControl.EXPLICIT)
+  @Path("v2/contexts/{context}/workspaces/{id}/profile")
+  public void profile(HttpServiceRequest request, HttpServiceResponder responder,
+                      @PathParam("context") String namespace,
+                      @PathParam("id") String workspaceId) {
+    respond(responder, namespace, ns -> {
+      validateNamespace(ns, "Profiling directives in system namespace is currently not supported");
+
+      DirectiveExecutionRequest executionRequest =
+        GSON.fromJson(StandardCharsets.UTF_8.decode(request.getContent()).toString(),
+                      DirectiveExecutionRequest.class);
+      List<String> directives = new ArrayList<>(executionRequest.getDirectives());
+      WorkspaceDetail detail = wsStore.getWorkspaceDetail(new WorkspaceId(ns, workspaceId));
+      List<DirectiveProfile> profiles = new ArrayList<>();
+      executeDirectives(ns.getName(), directives, detail, new UserDirectivesCollector(), profiles);
+      responder.sendJson(new ServiceResponse<>(profiles));
+    });
+  }
+
   /**
    * Retrieve the directives available in the namespace
    */
@@ -552,6 +573,27 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
                                                             List<String> directives,
                                                             WorkspaceDetail detail,
                                                             GrammarWalker.Visitor<E> grammarVisitor) throws Exception {
+    return executeDirectives(namespace, directives, detail, grammarVisitor, null);
+  }
+
+  /**
+   * Executes the given list of directives on the given workspace. When profiles is not null, the directives are
+   * always executed locally, so that they can be profiled, and the profile of each directive is added to it.
+   *
+   * @param namespace the namespace to operate on for finding user defined directives
+   * @param directives the list of directives to apply. The list provided must be a mutable list for the addition of
+   *                   {@code #pragma} directives for loading UDDs.
+   * @param detail the workspace to operate on
+   * @param grammarVisitor visitor to call while parsing directives
+   * @param profiles list to add the directive profiles to, or null if the directives are not profiled
+   * @return the resulting rows after applying the directives
+   */
+  private <E extends Exception> List<Row> executeDirectives(String namespace,
+                                                            List<String> directives,
+                                                            WorkspaceDetail detail,
+                                                            GrammarWalker.Visitor<E> grammarVisitor,
+                                                            @Nullable List<DirectiveProfile> profiles)
+    throws Exception {
     // Remove all the #pragma from the existing directives. New ones will be generated.
     directives.removeIf(d -> PRAGMA_PATTERN.matcher(d).find());
 
@@ -564,9 +606,9 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
       TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
     }
 
-    return getContext().isRemoteTaskEnabled() ?
+    return getContext().isRemoteTaskEnabled() && profiles == null ?
       executeRemotely(namespace, directives, detail, grammarVisitor) :
-      executeLocally(namespace, directives, detail, grammarVisitor);
+      executeLocally(namespace, directives, detail, grammarVisitor, profiles);
   }
 
   /**
@@ -577,16 +619,18 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
    *                   {@code #pragma} directives for loading UDDs.
    * @param detail the workspace to operate on
    * @param grammarVisitor visitor to call while parsing directives
+   * @param profiles list to add the directive profiles to, or null if the directives are not profiled
    * @return the resulting rows after applying the directives
    */
   private <E extends Exception> List<Row> executeLocally(String namespace, List<String> directives,
-                                   WorkspaceDetail detail, GrammarWalker.Visitor<E> grammarVisitor)
+                                   WorkspaceDetail detail, GrammarWalker.Visitor<E> grammarVisitor,
+                                   @Nullable List<DirectiveProfile> profiles)
     throws DirectiveLoadException, DirectiveParseException, E, RecipeException {
 
     // load the udd
     composite.reload(namespace);
     return executeDirectives(namespace, directives, new ArrayList<>(detail.getSample()),
-                             grammarVisitor);
+                             grammarVisitor, profiles);
   }
 
   /**
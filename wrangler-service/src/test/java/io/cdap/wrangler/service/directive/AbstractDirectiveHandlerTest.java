@@ -0,0 +1,337 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.artifact.ArtifactSummary;
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ErrorRecordBase;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.ReportErrorAndProceed;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.optimizer.StringTransform;
+import io.cdap.wrangler.proto.ErrorRecordsException;
+import io.cdap.wrangler.proto.StatusCodeException;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveProfile;
+import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
+import io.cdap.wrangler.registry.DirectiveInfo;
+import io.cdap.wrangler.registry.DirectiveRegistry;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Tests the execution of recipes by {@link AbstractDirectiveHandler}, in parallel against sequential execution and
+ * with directive profiles.
+ */
+public class AbstractDirectiveHandlerTest {
+  private static final int SAMPLE_SIZE = 4 * AbstractDirectiveHandler.MIN_CHUNK_SIZE + 100;
+  private static final List<String> RECIPE = Arrays.asList(
+    "split-to-columns :body ,",
+    "test-screen :body_1",
+    "uppercase :body_1",
+    "set-type :body_2 integer"
+  );
+
+  @Before
+  public void reset() {
+    Screen.THREADS.clear();
+    Screen.ROWS.set(0);
+  }
+
+  @Test
+  public void testOrdering() throws Exception {
+    List<Row> expected = execute(sequential(), sample(i -> "r" + i + "," + i));
+    Set<String> sequentialThreads = new HashSet<>(Screen.THREADS);
+    Screen.THREADS.clear();
+
+    List<Row> actual = execute(parallel(TimeUnit.MINUTES.toMillis(1)), sample(i -> "r" + i + "," + i));
+
+    // The chunks ran on separate workers, and their outputs are concatenated in the order of the sample.
+    Assert.assertEquals(1, sequentialThreads.size());
+    Assert.assertTrue(Screen.THREADS.size() > 1);
+    Assert.assertEquals(SAMPLE_SIZE, actual.size());
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals("R" + (SAMPLE_SIZE - 1), actual.get(SAMPLE_SIZE - 1).getValue("body_1"));
+  }
+
+  @Test
+  public void testFailureOffset() throws Exception {
+    // Rows in the last two chunks fail, the earliest one is reported with its index in the sample.
+    int failing = SAMPLE_SIZE - 200;
+    IntFunction<String> body = i -> "r" + i + "," + (i == failing || i == SAMPLE_SIZE - 1 ? "x" : i);
+
+    RecipeException expected = null;
+    try {
+      execute(sequential(), sample(body));
+    } catch (RecipeException e) {
+      expected = e;
+    }
+    Assert.assertNotNull(expected);
+    Assert.assertEquals(failing, expected.getRowIndex());
+
+    try {
+      execute(parallel(TimeUnit.MINUTES.toMillis(1)), sample(body));
+      Assert.fail("Expected the execution to fail");
+    } catch (RecipeException e) {
+      Assert.assertEquals(expected.getRowIndex(), e.getRowIndex());
+      Assert.assertEquals(expected.getDirectiveIndex(), e.getDirectiveIndex());
+    }
+  }
+
+  @Test
+  public void testErrorRecordOrder() throws Exception {
+    // Rows reported as errors are spread over all the chunks.
+    List<Object> expected = errors(sequential());
+    Assert.assertEquals(SAMPLE_SIZE / 97 + 1, expected.size());
+    Assert.assertEquals(expected, errors(parallel(TimeUnit.MINUTES.toMillis(1))));
+  }
+
+  @Test
+  public void testCancellation() throws Exception {
+    AbstractDirectiveHandler handler = parallel(200);
+    try {
+      execute(handler, sample(i -> "slow" + i + "," + i));
+      Assert.fail("Expected the execution to time out");
+    } catch (StatusCodeException e) {
+      Assert.assertEquals(HttpURLConnection.HTTP_GATEWAY_TIMEOUT, e.getCode());
+    }
+
+    // All the chunks stopped before the execution completed.
+    int processed = Screen.ROWS.get();
+    Assert.assertTrue(processed < SAMPLE_SIZE);
+    Assert.assertTrue(Screen.THREADS.size() > 1);
+    TimeUnit.MILLISECONDS.sleep(100);
+    Assert.assertEquals(processed, Screen.ROWS.get());
+  }
+
+  @Test
+  public void testProfile() throws Exception {
+    // The profile endpoint of the workspaces executes the recipe the same way as the execute endpoint.
+    List<String> recipe = Arrays.asList("split-to-rows :body -", "split-to-columns :body ,");
+    List<Row> sample = Arrays.asList(new Row("body", "a,1-b,2"), new Row("body", "c,3"),
+                                     new Row("body", "d,4-e,5-f,6"));
+    AbstractDirectiveHandler handler = sequential();
+    List<Row> expected = handler.executeDirectives("default", recipe, new ArrayList<>(sample),
+                                                   (command, tokens) -> { });
+
+    List<DirectiveProfile> profiles = new ArrayList<>();
+    List<Row> actual = handler.executeDirectives("default", recipe, new ArrayList<>(sample),
+                                                 (command, tokens) -> { }, profiles);
+    Assert.assertEquals(6, actual.size());
+    Assert.assertEquals(expected, actual);
+
+    Assert.assertEquals(2, profiles.size());
+    DirectiveProfile split = profiles.get(0);
+    Assert.assertEquals(3, split.getRowsIn());
+    Assert.assertEquals(6, split.getRowsOut());
+    Assert.assertEquals(1, split.getColumnsIn());
+    Assert.assertEquals(1, split.getColumnsOut());
+    Assert.assertEquals(0, split.getErrors());
+
+    DirectiveProfile columns = profiles.get(1);
+    Assert.assertEquals(6, columns.getRowsIn());
+    Assert.assertEquals(6, columns.getRowsOut());
+    Assert.assertEquals(1, columns.getColumnsIn());
+    Assert.assertEquals(3, columns.getColumnsOut());
+    Assert.assertEquals(0, columns.getErrors());
+    Assert.assertTrue(split.getDirective().startsWith("split-to-rows"));
+    Assert.assertTrue(columns.getDirective().startsWith("split-to-columns"));
+  }
+
+  private static List<Object> errors(AbstractDirectiveHandler handler) throws Exception {
+    try {
+      execute(handler, sample(i -> (i % 97 == 0 ? "bad" : "r") + i + "," + i));
+      Assert.fail("Expected error records");
+      return null;
+    } catch (ErrorRecordsException e) {
+      return e.getErrorRecords().stream().map(ErrorRecordBase::getMessage).collect(Collectors.toList());
+    }
+  }
+
+  private static List<Row> sample(IntFunction<String> body) {
+    List<Row> sample = new ArrayList<>(SAMPLE_SIZE);
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      sample.add(new Row("body", body.apply(i)));
+    }
+    return sample;
+  }
+
+  private static List<Row> execute(AbstractDirectiveHandler handler, List<Row> sample) throws Exception {
+    return handler.executeDirectives("default", RECIPE, sample, (command, tokens) -> { });
+  }
+
+  private static AbstractDirectiveHandler sequential() {
+    // A single slot in the namespace leaves none to execute chunks in parallel.
+    return handler(new ExecutionScheduler(1, 0, TimeUnit.MINUTES.toMillis(1)));
+  }
+
+  private static AbstractDirectiveHandler parallel(long timeoutMillis) {
+    return handler(new ExecutionScheduler(4, 0, timeoutMillis));
+  }
+
+  private static AbstractDirectiveHandler handler(ExecutionScheduler scheduler) {
+    AbstractDirectiveHandler handler = new AbstractDirectiveHandler();
+    handler.initialize(new CompositeDirectiveRegistry(SystemDirectiveRegistry.INSTANCE, new TestRegistry()),
+                       scheduler, new NoopMetrics());
+    return handler;
+  }
+
+  /**
+   * Reports values starting with 'bad' as errors, and slows down on values starting with 'slow'. As it transforms
+   * a single column, it is executed in parallel like the system directives that do.
+   */
+  @Plugin(type = Directive.TYPE)
+  @Name(Screen.NAME)
+  @Description("Reports some values as errors.")
+  public static final class Screen implements Directive, StringTransform {
+    static final String NAME = "test-screen";
+    static final Set<String> THREADS = ConcurrentHashMap.newKeySet();
+    static final AtomicInteger ROWS = new AtomicInteger();
+
+    private String column;
+
+    @Override
+    public UsageDefinition define() {
+      UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
+      builder.define("column", TokenType.COLUMN_NAME);
+      return builder.build();
+    }
+
+    @Override
+    public void initialize(Arguments args) throws DirectiveParseException {
+      column = ((ColumnName) args.value("column")).value();
+    }
+
+    @Override
+    public List<Row> execute(List<Row> rows, ExecutorContext context) throws ReportErrorAndProceed {
+      THREADS.add(Thread.currentThread().getName());
+      for (Row row : rows) {
+        ROWS.incrementAndGet();
+        String value = (String) row.getValue(column);
+        if (value.startsWith("bad")) {
+          throw new ReportErrorAndProceed(value, 1);
+        }
+        if (value.startsWith("slow")) {
+          try {
+            TimeUnit.MILLISECONDS.sleep(5);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+      return rows;
+    }
+
+    @Override
+    public void destroy() {
+      // no-op
+    }
+
+    @Override
+    public String getColumn() {
+      return column;
+    }
+
+    @Override
+    public String apply(String value) {
+      return value;
+    }
+  }
+
+  private static final class TestRegistry implements DirectiveRegistry {
+
+    @Override
+    public Iterable<DirectiveInfo> list(String namespace) {
+      return Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public DirectiveInfo get(String namespace, String name) {
+      try {
+        return Screen.NAME.equals(name) ? DirectiveInfo.fromSystem(Screen.class) : null;
+      } catch (InstantiationException | IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public void reload(String namespace) {
+      // no-op
+    }
+
+    @Nullable
+    @Override
+    public ArtifactSummary getLatestWranglerArtifact() {
+      return null;
+    }
+
+    @Override
+    public void close() {
+      // no-op
+    }
+  }
+
+  private static final class NoopMetrics implements Metrics {
+
+    @Override
+    public void count(String metricName, int delta) {
+      // no-op
+    }
+
+    @Override
+    public void gauge(String metricName, long value) {
+      // no-op
+    }
+
+    @Override
+    public Metrics child(Map<String, String> tags) {
+      return this;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+      return Collections.emptyMap();
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.proto.StatusCodeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link ExecutionScheduler}.
+ */
+public class ExecutionSchedulerTest {
+
+  @Test
+  public void testRejection() {
+    ExecutionScheduler scheduler = new ExecutionScheduler(1, 0, TimeUnit.MINUTES.toMillis(1));
+    CountingMetrics metrics = new CountingMetrics();
+    try (ExecutionScheduler.Execution execution = scheduler.admit("ns1", metrics)) {
+      try {
+        scheduler.admit("ns1", metrics);
+        Assert.fail("Expected the execution to be rejected");
+      } catch (StatusCodeException e) {
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, e.getCode());
+      }
+      Assert.assertEquals(1L, (long) metrics.values.get(ExecutionScheduler.REJECTED_METRIC));
+      // Namespaces are limited independently.
+      scheduler.admit("ns2", metrics).close();
+    }
+    scheduler.admit("ns1", metrics).close();
+  }
+
+  @Test
+  public void testReserve() {
+    ExecutionScheduler scheduler = new ExecutionScheduler(4, 0, TimeUnit.MINUTES.toMillis(1));
+    CountingMetrics metrics = new CountingMetrics();
+    ExecutionScheduler.Execution other = scheduler.admit("ns", metrics);
+    try (ExecutionScheduler.Execution execution = scheduler.admit("ns", metrics)) {
+      // Only the free slots of the namespace are reserved.
+      Assert.assertEquals(2, execution.reserve(2));
+      Assert.assertEquals(3, execution.reserve(8));
+      Assert.assertEquals(0, scheduler.getAvailable("ns"));
+    }
+    Assert.assertEquals(3, scheduler.getAvailable("ns"));
+    other.close();
+    Assert.assertEquals(4, scheduler.getAvailable("ns"));
+  }
+
+  @Test
+  public void testParallelTasksOfNamespaces() throws Exception {
+    ExecutionScheduler scheduler = new ExecutionScheduler(2, 0, TimeUnit.MINUTES.toMillis(1));
+    CountingMetrics metrics = new CountingMetrics();
+    CountDownLatch release = new CountDownLatch(1);
+    try (ExecutionScheduler.Execution busy = scheduler.admit("ns1", metrics);
+         ExecutionScheduler.Execution other = scheduler.admit("ns2", metrics)) {
+      // The tasks of the first namespace keep all its workers busy.
+      Assert.assertEquals(2, busy.reserve(2));
+      List<Future<Boolean>> blocked = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        blocked.add(busy.submit(() -> release.await(1, TimeUnit.MINUTES)));
+      }
+
+      // The tasks of the other namespace don't wait for them.
+      Assert.assertEquals(2, other.reserve(2));
+      List<Future<String>> tasks = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        tasks.add(other.submit(() -> Thread.currentThread().getName()));
+      }
+      for (Future<String> task : tasks) {
+        Assert.assertTrue(task.get(10, TimeUnit.SECONDS).startsWith("wrangler-execution-worker-ns2-"));
+      }
+
+      release.countDown();
+      for (Future<Boolean> task : blocked) {
+        Assert.assertTrue(task.get(10, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  @Test
+  public void testQueueing() throws Exception {
+    ExecutionScheduler scheduler = new ExecutionScheduler(1, 1, 300);
+    CountingMetrics metrics = new CountingMetrics();
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try {
+      ExecutionScheduler.Execution running = scheduler.admit("ns", metrics);
+      Future<?> released = threads.submit(() -> scheduler.admit("ns", metrics).close());
+      waitFor(() -> scheduler.getQueued("ns") == 1);
+      Assert.assertEquals(1L, (long) metrics.values.get(ExecutionScheduler.QUEUED_METRIC));
+      running.close();
+      released.get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(0, scheduler.getQueued("ns"));
+      Assert.assertEquals(0L, (long) metrics.values.get(ExecutionScheduler.QUEUED_METRIC));
+
+      // No slot frees up before the deadline.
+      running = scheduler.admit("ns", metrics);
+      try {
+        scheduler.admit("ns", metrics);
+        Assert.fail("Expected the execution to time out");
+      } catch (StatusCodeException e) {
+        Assert.assertEquals(HttpURLConnection.HTTP_GATEWAY_TIMEOUT, e.getCode());
+      } finally {
+        running.close();
+      }
+      Assert.assertEquals(1L, (long) metrics.values.get(ExecutionScheduler.TIMED_OUT_METRIC));
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDeadline() throws Exception {
+    ExecutionScheduler scheduler = new ExecutionScheduler(1, 0, 100);
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(Collections::emptyList, null);
+    try (ExecutionScheduler.Execution execution = scheduler.admit("ns", new CountingMetrics())) {
+      execution.watch(executor);
+      waitFor(executor::isCancelled);
+      Assert.assertTrue(execution.isExpired());
+
+      // Executors created after the deadline are cancelled right away.
+      RecipePipelineExecutor late = new RecipePipelineExecutor(Collections::emptyList, null);
+      execution.watch(late);
+      Assert.assertTrue(late.isCancelled());
+    }
+  }
+
+  private static void waitFor(Condition condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.check()) {
+      Assert.assertTrue("Timed out waiting for the condition", System.nanoTime() < deadline);
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+  }
+
+  private interface Condition {
+    boolean check();
+  }
+
+  /**
+   * Keeps the last value of every gauge and the total of every counter.
+   */
+  private static final class CountingMetrics implements Metrics {
+    private final Map<String, Long> values = new ConcurrentHashMap<>();
+
+    @Override
+    public void count(String metricName, int delta) {
+      values.merge(metricName, (long) delta, Long::sum);
+    }
+
+    @Override
+    public void gauge(String metricName, long value) {
+      values.put(metricName, value);
+    }
+
+    @Override
+    public Metrics child(Map<String, String> tags) {
+      return this;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+      return Collections.emptyMap();
+    }
+  }
+}
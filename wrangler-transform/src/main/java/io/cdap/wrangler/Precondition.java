@@ -17,75 +17,58 @@
 package io.cdap.wrangler;
 
 import io.cdap.wrangler.api.Row;
-import org.apache.commons.jexl3.scripting.JexlScriptEngine;
-
-import javax.script.Bindings;
-import javax.script.CompiledScript;
-import javax.script.ScriptContext;
-import javax.script.ScriptException;
-import javax.script.SimpleBindings;
-import javax.script.SimpleScriptContext;
+import io.cdap.wrangler.expression.EL;
+import io.cdap.wrangler.expression.ELContext;
+import io.cdap.wrangler.expression.ELException;
 
 /**
  * A precondition expression that filters data into the directives.
+ *
+ * <p>The expression is compiled the same way as the expressions of the directives, and only the columns it
+ * references are bound for every row.</p>
  */
 public class Precondition {
   private final String condition;
-  private final CompiledScript script;
-  // SimpleScriptContext is pretty expensive to construct due to all PrintWriter creation, so let's cache it
-  private final ThreadLocal<ScriptContext> contextCache = ThreadLocal.withInitial(this::createContext);
+  private final EL el;
 
   public Precondition(String condition) throws PreconditionException {
     this.condition = condition;
-    JexlScriptEngine engine = new JexlScriptEngine();
     try {
-      script = engine.compile(condition);
-    } catch (ScriptException e) {
-      if (e.getCause() != null) {
-        throw new PreconditionException(e.getCause().getMessage());
-      } else {
-        throw new PreconditionException(e.getMessage());
-      }
+      el = EL.compile(condition);
+    } catch (ELException e) {
+      throw new PreconditionException(e.getMessage());
     }
   }
 
-  public ScriptContext createContext() {
-    ScriptContext parent = script.getEngine().getContext();
-
-    SimpleScriptContext context = new SimpleScriptContext();
-    context.setBindings(parent.getBindings(ScriptContext.GLOBAL_SCOPE),
-                         ScriptContext.GLOBAL_SCOPE);
-    context.setWriter(parent.getWriter());
-    context.setReader(parent.getReader());
-    context.setErrorWriter(parent.getErrorWriter());
-    return context;
-  }
-
   public boolean apply(Row row) throws PreconditionException {
-    Bindings bindings = new SimpleBindings();
-    for (int i = 0; i < row.width(); ++i) {
-      bindings.put(row.getColumn(i), row.getValue(i));
+    ELContext context = new ELContext();
+    for (String variable : el.variables()) {
+      int idx = row.find(variable);
+      if (idx != -1) {
+        context.set(variable, row.getValue(idx));
+        continue;
+      }
+      // A dotted variable may also access a property of a column, such as a field of a record.
+      int dot = variable.indexOf('.');
+      String column = dot == -1 ? variable : variable.substring(0, dot);
+      idx = dot == -1 ? -1 : row.find(column);
+      if (idx == -1) {
+        throw new PreconditionException(
+          String.format("Precondition '%s' uses '%s', which is not a column of the record.", condition, variable));
+      }
+      context.set(column, row.getValue(idx));
     }
 
     try {
-      ScriptContext scriptContext = contextCache.get();
-      scriptContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
-      Object result = script.eval(scriptContext);
+      Object result = el.execute(context).getObject();
       if (!(result instanceof Boolean)) {
         throw new PreconditionException(
           String.format("Precondition '%s' does not result in true or false.", condition)
         );
       }
       return (Boolean) result;
-    } catch (ScriptException e) {
-      // Generally JexlException wraps the original exception, so it's good idea
-      // to check if there is a inner exception, if there is wrap it in 'DirectiveExecutionException'
-      // else just print the error message.
-      if (e.getCause() != null) {
-        throw new PreconditionException(e.getCause().getMessage());
-      } else {
-        throw new PreconditionException(e.getMessage());
-      }
+    } catch (ELException e) {
+      throw new PreconditionException(e.getMessage());
     }
   }
 }
@@ -66,6 +66,7 @@ import io.cdap.wrangler.api.TransientStore;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.executor.RecipePipelineExecutor;
 import io.cdap.wrangler.lineage.LineageOperations;
+import io.cdap.wrangler.optimizer.RecipeOptimizer;
 import io.cdap.wrangler.parser.GrammarBasedParser;
 import io.cdap.wrangler.parser.MigrateToV2;
 import io.cdap.wrangler.parser.NoOpDirectiveContext;
@@ -76,6 +77,8 @@ import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
+import io.cdap.wrangler.utils.RecordConvertor;
+import io.cdap.wrangler.utils.RecordConvertorException;
 import io.cdap.wrangler.utils.StructuredToRowTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +121,8 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   private static final String ON_ERROR_FAIL_PIPELINE = "fail-pipeline";
   private static final String ON_ERROR_PROCEED = "send-to-error-port";
   private static final String ERROR_STRATEGY_DEFAULT = "wrangler.error.strategy.default";
+  private static final String RECIPE_OPTIMIZE = "wrangler.recipe.optimize";
+  private static final String DIRECTIVE_METRICS_SAMPLE_INTERVAL = "wrangler.directive.metrics.sample.interval";
 
   // Directive usage metric
   public static final String DIRECTIVE_METRIC_NAME = "wrangler.directive.count";
@@ -134,6 +139,9 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   // Wrangle Execution RecipePipeline
   private RecipePipeline pipeline;
 
+  // Converts rows produced by the pipeline into output records.
+  private RecordConvertor convertor;
+
   // Output Schema associated with readable output.
   private Schema oSchema = null;
 
@@ -241,6 +249,12 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
                                     "user space.", directive),
                     "Ensure the directive is loaded or the directive name is correct.")
                     .withConfigProperty(Config.NAME_DIRECTIVES);
+                } else if (directiveInfo != null && directiveInfo.isFinishable()) {
+                  collector.addFailure(
+                    String.format("Directive '%s' aggregates over all the input, which is not supported by the " +
+                                    "Wrangler plugin as it executes the recipe on one record at a time.", directive),
+                    "Remove the directive and aggregate the records in a later stage of the pipeline.")
+                    .withConfigProperty(Config.NAME_DIRECTIVES);
                 }
               }
             }
@@ -360,6 +374,9 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     // Parse DSL and initialize the wrangle pipeline.
     store = new DefaultTransientStore();
     RecipeParser recipe = getRecipeParser(context);
+    if (Boolean.parseBoolean(context.getArguments().get(RECIPE_OPTIMIZE))) {
+      recipe = new RecipeOptimizer(recipe);
+    }
 
     ExecutorContext ctx = new WranglerPipelineContext(ExecutorContext.Environment.TRANSFORM, context, store);
 
@@ -389,9 +406,16 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
       }
     }
 
+    // Validated before the recipe is compiled, so that a mistake in the argument isn't reported as a broken recipe.
+    int sampleInterval = getSampleInterval(context.getArguments().get(DIRECTIVE_METRICS_SAMPLE_INTERVAL));
+
     try {
       // Create the pipeline executor with context being set.
-      pipeline = new RecipePipelineExecutor(recipe, ctx);
+      RecipePipelineExecutor executor = new RecipePipelineExecutor(recipe, ctx);
+      if (sampleInterval > 0) {
+        executor.enableDirectiveMetrics(sampleInterval);
+      }
+      pipeline = executor;
     } catch (Exception e) {
       String errorReason = "Unable to compile the recipe and execute directives.";
       String errorMessage = String.format(
@@ -403,6 +427,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
 
     String defaultStrategy = context.getArguments().get(ERROR_STRATEGY_DEFAULT);
     onErrorStrategy = (defaultStrategy != null && config.onError == null) ? defaultStrategy : config.getOnError();
+    convertor = new RecordConvertor();
     // Initialize the error counter.
     errorCounter = 0;
   }
@@ -429,12 +454,13 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   public void transform(StructuredRecord input, Emitter<StructuredRecord> emitter) throws Exception {
     long start = 0;
     List<StructuredRecord> records;
+    RuntimeException conversionFailure = null;
 
     try {
       // Creates a row as starting point for input to the pipeline.
       Row row = new Row();
       if ("*".equalsIgnoreCase(config.getField())) {
-        row = StructuredToRowTransformer.transform(input);
+        row = StructuredToRowTransformer.transformLazily(input);
       } else if ("#".equalsIgnoreCase(config.getField())) {
         row.add(input.getSchema().getRecordName(), input);
       } else {
@@ -456,7 +482,24 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
       store.reset(TransientVariableScope.LOCAL);
 
       start = System.nanoTime();
-      records = pipeline.execute(Collections.singletonList(row), oSchema);
+      List<Row> rows = pipeline.execute(Collections.singletonList(row));
+      // Rows are written straight into records of the output schema. Failures converting string values
+      // are only raised once the records before them have been emitted.
+      records = new ArrayList<>(rows.size());
+      for (Row output : rows) {
+        try {
+          StructuredRecord record = convertor.toOutputRecord(output, oSchema);
+          if (conversionFailure == null) {
+            records.add(record);
+          }
+        } catch (RecordConvertorException e) {
+          throw new RecipeException("Problem converting into output record. Reason : " + e.getMessage(), e);
+        } catch (RecordConvertor.ConversionException e) {
+          if (conversionFailure == null) {
+            conversionFailure = e.getCause();
+          }
+        }
+      }
       // We now extract errors from the execution and pass it on to the error emitter.
       List<ErrorRecord> errors = pipeline.errors();
       if (errors.size() > 0) {
@@ -505,25 +548,38 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     }
 
     for (StructuredRecord record : records) {
-      StructuredRecord.Builder builder = StructuredRecord.builder(oSchema);
-      // Iterate through output schema, if the 'record' doesn't have it, then
-      // attempt to take if from 'input'.
-      for (Schema.Field field : oSchema.getFields()) {
-        Object wObject = record.get(field.getName()); // wrangled records
-        if (wObject == null) {
-          builder.set(field.getName(), null);
-        } else {
-          if (wObject instanceof String) {
-            builder.convertAndSet(field.getName(), (String) wObject);
-          } else {
-            // No need to use specific methods for fields of logical type - timestamp, date and time. This is because
-            // the wObject should already have correct values for corresponding primitive types.
-            builder.set(field.getName(), wObject);
-          }
-        }
-      }
-      emitter.emit(builder.build());
+      emitter.emit(record);
+    }
+    if (conversionFailure != null) {
+      throw conversionFailure;
+    }
+  }
+
+  /**
+   * Parses the runtime argument holding the number of rows between two measures of the directive metrics.
+   *
+   * @param value of the runtime argument, null or empty if directive metrics are not enabled.
+   * @return the sample interval, or 0 if directive metrics are not enabled.
+   */
+  private static int getSampleInterval(@Nullable String value) {
+    if (Strings.isNullOrEmpty(value)) {
+      return 0;
+    }
+    int interval;
+    try {
+      interval = Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      interval = 0;
+    }
+    if (interval < 1) {
+      String errorReason = String.format("Invalid value '%s' for the runtime argument '%s'. "
+                                           + "It should be a positive integer.", value,
+                                         DIRECTIVE_METRICS_SAMPLE_INTERVAL);
+      throw ErrorUtils.getProgramFailureException(
+          new ErrorCategory(ErrorCategory.ErrorCategoryEnum.PLUGIN), errorReason, errorReason,
+          ErrorType.USER, false, null);
     }
+    return interval;
   }
 
   /**
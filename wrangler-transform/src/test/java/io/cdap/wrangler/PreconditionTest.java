@@ -20,6 +20,8 @@ import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
+
 /**
  * Tests {@link Precondition}
  */
@@ -39,4 +41,18 @@ public class PreconditionTest {
     Row row = new Row("a", 1).add("b", "x").add("c", 2.06);
     Assert.assertEquals(true, new Precondition("c").apply(row));
   }
+
+  @Test
+  public void testReferencedColumns() throws Exception {
+    Row row = new Row("a", -1).add("m", Collections.singletonMap("k", "v")).add("n", null);
+    Assert.assertEquals(true, new Precondition("m.k == 'v' && n == null").apply(row));
+    // Functions available to directive expressions can also be used.
+    Assert.assertEquals(true, new Precondition("math:abs(a) == 1").apply(row));
+  }
+
+  @Test(expected = PreconditionException.class)
+  public void testMissingColumn() throws Exception {
+    Row row = new Row("a", 1);
+    new Precondition("b == 1").apply(row);
+  }
 }